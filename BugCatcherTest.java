@@ -1,6 +1,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Arrays;
+import java.util.PriorityQueue;
 import java.util.Random;
 
 /**
@@ -125,6 +126,65 @@ public class BugCatcherTest {
         test("Lazy decreaseKey - uses cuts", testLazyDecreaseKeyUsesCuts());
         test("Non-lazy decreaseKey - uses heapifyUp", testNonLazyDecreaseKeyUsesHeapify());
 
+        // ============ NODE POOL BUGS ============
+        System.out.println("\n--- Node Pool Bug Tests ---");
+        test("Deleted node is reused by next insert", testNodePoolReuse());
+        test("Stale item decreaseKey is ignored", testStaleItemDecreaseKey());
+        test("Stale item delete is ignored", testStaleItemDelete());
+        test("Pool capacity 0 disables pooling", testNodePoolDisabled());
+
+        // ============ BULK INSERT BUGS ============
+        System.out.println("\n--- Bulk Insert Bug Tests ---");
+        test("insertAll lazy - same roots as inserts", testInsertAllLazy());
+        test("insertAll non-lazy - consolidates once", testInsertAllNonLazy());
+        test("insertAll returns usable items", testInsertAllItems());
+
+        // ============ BATCH DELETEMIN BUGS ============
+        System.out.println("\n--- Batch DeleteMin Bug Tests ---");
+        test("deleteMinBatch returns k smallest in order", testDeleteMinBatchOrder());
+        test("deleteMinBatch with k > size empties heap", testDeleteMinBatchAll());
+        test("deleteMinBatch keeps heap valid (all modes)", testDeleteMinBatchHeapValid());
+
+        // ============ CASCADING CUT BUGS ============
+        System.out.println("\n--- Cascading Cut Bug Tests ---");
+        test("Cascading cut - longest cascade recorded", testMaxCascadeLength());
+        test("Deep cascade - no stack overflow", testDeepCascadeNoStackOverflow());
+
+        // ============ PARALLEL CONSOLIDATION BUGS ============
+        System.out.println("\n--- Parallel Consolidation Bug Tests ---");
+        test("Parallel consolidation - same links and order as serial", testParallelConsolidationMatchesSerial());
+        test("Parallel consolidation - heap valid after decreaseKeys", testParallelConsolidationHeapValid());
+
+        // ============ INCREMENTAL CONSOLIDATION BUGS ============
+        System.out.println("\n--- Incremental Consolidation Bug Tests ---");
+        test("Incremental consolidation - links per operation capped", testIncrementalLinksCapped());
+        test("Incremental consolidation - random ops keep min and order", testIncrementalRandomOps());
+
+        // ============ STRICT FIBONACCI HEAP BUGS ============
+        System.out.println("\n--- Strict Fibonacci Heap Bug Tests ---");
+        test("Strict Fibonacci - random ops and melds match a priority queue", testStrictFibonacciMatchesQueue());
+        test("Strict Fibonacci - worst-case cost per operation bounded", testStrictFibonacciCosts());
+
+        // ============ INSTRUMENTATION BUGS ============
+        System.out.println("\n--- Instrumentation Bug Tests ---");
+        test("Instrumentation - histogram percentiles within bucket error", testLogHistogramPercentiles());
+        test("Instrumentation - per-operation costs recorded once per call", testHeapInstrumentation());
+
+        // ============ OBSERVER BUGS ============
+        System.out.println("\n--- Observer Bug Tests ---");
+        test("Observer - callbacks match the heap counters", testObserverMatchesCounters());
+        test("Observer - parallel consolidation links reported by rank", testObserverParallelLinks());
+        test("Observer - counters do not overflow past Integer.MAX_VALUE", testCountersAreLong());
+
+        // ============ SNAPSHOT BUGS ============
+        System.out.println("\n--- Snapshot Bug Tests ---");
+        test("Snapshot - full walk matches the heap counters", testSnapshotMatchesCounters());
+        test("Snapshot - bounded walk stops at maxNodes", testSnapshotBounded());
+
+        // ============ PROACTIVE CONSOLIDATION BUGS ============
+        System.out.println("\n--- Proactive Consolidation Bug Tests ---");
+        test("Proactive consolidation - root list stays O(logn) and order is kept", testProactiveConsolidation());
+
         // Summary
         printSummary();
     }
@@ -160,11 +220,16 @@ public class BugCatcherTest {
         failureMessages.add(msg);
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Heap.HeapItem<V>[] newItemArray(int length) {
+        return (Heap.HeapItem<V>[]) new Heap.HeapItem[length];
+    }
+
     // ==================== NULL POINTER BUG TESTS ====================
 
     private static boolean testEmptyHeapFindMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             return heap.findMin() == null;
         } catch (Exception e) {
             logFail("testEmptyHeapFindMin: " + e.getMessage());
@@ -174,7 +239,7 @@ public class BugCatcherTest {
 
     private static boolean testEmptyHeapDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.deleteMin(); // Should not crash
             return true;
         } catch (Exception e) {
@@ -185,7 +250,7 @@ public class BugCatcherTest {
 
     private static boolean testEmptyHeapSize() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             return heap.size() == 0;
         } catch (Exception e) {
             logFail("testEmptyHeapSize: " + e.getMessage());
@@ -195,7 +260,7 @@ public class BugCatcherTest {
 
     private static boolean testEmptyHeapNumTrees() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             return heap.numTrees() == 0;
         } catch (Exception e) {
             logFail("testEmptyHeapNumTrees: " + e.getMessage());
@@ -205,7 +270,7 @@ public class BugCatcherTest {
 
     private static boolean testDeleteUntilEmpty() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 10; i++) {
                 heap.insert(i, "N" + i);
             }
@@ -222,7 +287,7 @@ public class BugCatcherTest {
 
     private static boolean testDeleteLastElement() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.deleteMin();
             return heap.size() == 0 && heap.findMin() == null && heap.numTrees() == 0;
@@ -234,7 +299,7 @@ public class BugCatcherTest {
 
     private static boolean testOperationsAfterEmpty() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.deleteMin();
             // Now heap is empty, try operations
@@ -252,7 +317,7 @@ public class BugCatcherTest {
 
     private static boolean testSingleElementFindMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(42, "only");
             return heap.findMin() != null && heap.findMin().key == 42;
         } catch (Exception e) {
@@ -263,7 +328,7 @@ public class BugCatcherTest {
 
     private static boolean testSingleElementDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(42, "only");
             heap.deleteMin();
             return heap.size() == 0 && heap.findMin() == null;
@@ -275,8 +340,8 @@ public class BugCatcherTest {
 
     private static boolean testSingleElementDecreaseKey() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem item = heap.insert(42, "only");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> item = heap.insert(42, "only");
             heap.decreaseKey(item, 10);
             return heap.findMin() != null && heap.findMin().key == 32;
         } catch (Exception e) {
@@ -287,8 +352,8 @@ public class BugCatcherTest {
 
     private static boolean testSingleElementDelete() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem item = heap.insert(42, "only");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> item = heap.insert(42, "only");
             heap.delete(item);
             return heap.size() == 0 && heap.findMin() == null;
         } catch (Exception e) {
@@ -301,7 +366,7 @@ public class BugCatcherTest {
 
     private static boolean testTwoElementsMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(20, "A");
             heap.insert(10, "B");
             return heap.findMin() != null && heap.findMin().key == 10;
@@ -313,7 +378,7 @@ public class BugCatcherTest {
 
     private static boolean testTwoElementsDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(20, "A");
             heap.insert(10, "B");
             heap.deleteMin();
@@ -326,8 +391,8 @@ public class BugCatcherTest {
 
     private static boolean testTwoElementsDeleteNonMin() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem a = heap.insert(20, "A");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> a = heap.insert(20, "A");
             heap.insert(10, "B");
             heap.delete(a);
             return heap.size() == 1 && heap.findMin() != null && heap.findMin().key == 10;
@@ -339,8 +404,8 @@ public class BugCatcherTest {
 
     private static boolean testTwoElementsDecreaseKey() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem a = heap.insert(20, "A");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> a = heap.insert(20, "A");
             heap.insert(10, "B");
             heap.decreaseKey(a, 15); // 20 -> 5
             return heap.findMin() != null && heap.findMin().key == 5;
@@ -354,7 +419,7 @@ public class BugCatcherTest {
 
     private static boolean testCircularListThreeInserts() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(20, "B");
             heap.insert(30, "C");
@@ -368,7 +433,7 @@ public class BugCatcherTest {
 
     private static boolean testCircularListAfterDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 5; i++) {
                 heap.insert(i * 10, "N" + i);
             }
@@ -384,8 +449,8 @@ public class BugCatcherTest {
 
     private static boolean testCircularListAfterCut() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem[] items = new Heap.HeapItem[8];
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String>[] items = newItemArray(8);
             for (int i = 0; i < 8; i++) {
                 items[i] = heap.insert((i + 1) * 10, "N" + i);
             }
@@ -403,8 +468,8 @@ public class BugCatcherTest {
 
     private static boolean testMeldThisEmpty() {
         try {
-            Heap heap1 = new Heap(true, true);
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             heap2.insert(10, "A");
             heap2.insert(20, "B");
             heap1.meld(heap2);
@@ -417,8 +482,8 @@ public class BugCatcherTest {
 
     private static boolean testMeldOtherEmpty() {
         try {
-            Heap heap1 = new Heap(true, true);
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             heap1.insert(10, "A");
             heap1.insert(20, "B");
             heap1.meld(heap2);
@@ -431,8 +496,8 @@ public class BugCatcherTest {
 
     private static boolean testMeldBothEmpty() {
         try {
-            Heap heap1 = new Heap(true, true);
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             heap1.meld(heap2);
             return heap1.size() == 0 && heap1.findMin() == null;
         } catch (Exception e) {
@@ -443,8 +508,8 @@ public class BugCatcherTest {
 
     private static boolean testMeldSingleElements() {
         try {
-            Heap heap1 = new Heap(true, true);
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             heap1.insert(20, "A");
             heap2.insert(10, "B");
             heap1.meld(heap2);
@@ -457,8 +522,8 @@ public class BugCatcherTest {
 
     private static boolean testMeldPreservesElements() {
         try {
-            Heap heap1 = new Heap(true, true);
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             for (int i = 1; i <= 5; i++) {
                 heap1.insert(i, "H1-" + i);
                 heap2.insert(i + 10, "H2-" + i);
@@ -491,8 +556,8 @@ public class BugCatcherTest {
 
     private static boolean testMeldUpdatesMin() {
         try {
-            Heap heap1 = new Heap(true, true);
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             heap1.insert(50, "A");
             heap2.insert(10, "B");
             heap1.meld(heap2);
@@ -507,7 +572,7 @@ public class BugCatcherTest {
 
     private static boolean testConsolidateEmpty() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.deleteMin(); // Heap now empty, consolidate might be called
             return heap.size() == 0;
@@ -519,7 +584,7 @@ public class BugCatcherTest {
 
     private static boolean testConsolidateSingle() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(20, "B");
             heap.deleteMin(); // 1 element left
@@ -532,7 +597,7 @@ public class BugCatcherTest {
 
     private static boolean testConsolidateStructure() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             // Insert 8 elements, delete min -> 7 elements
             for (int i = 1; i <= 8; i++) {
                 heap.insert(i, "N" + i);
@@ -548,7 +613,7 @@ public class BugCatcherTest {
 
     private static boolean testBucketArraySize() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             // Insert many elements to test bucket array size
             for (int i = 1; i <= 1000; i++) {
                 heap.insert(i, "N" + i);
@@ -569,8 +634,8 @@ public class BugCatcherTest {
 
     private static boolean testDecreaseKeyRoot() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem item = heap.insert(10, "A");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> item = heap.insert(10, "A");
             heap.insert(20, "B");
             heap.decreaseKey(item, 5); // 10 -> 5, root node
             return heap.findMin().key == 5;
@@ -582,9 +647,9 @@ public class BugCatcherTest {
 
     private static boolean testDecreaseKeyUpdatesMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
-            Heap.HeapItem item = heap.insert(20, "B");
+            Heap.HeapItem<String> item = heap.insert(20, "B");
             heap.decreaseKey(item, 15); // 20 -> 5
             return heap.findMin().key == 5;
         } catch (Exception e) {
@@ -595,8 +660,8 @@ public class BugCatcherTest {
 
     private static boolean testDecreaseKeyByZero() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem item = heap.insert(10, "A");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> item = heap.insert(10, "A");
             heap.decreaseKey(item, 0);
             return item.key == 10;
         } catch (Exception e) {
@@ -607,8 +672,8 @@ public class BugCatcherTest {
 
     private static boolean testDecreaseKeyOnChild() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem[] items = new Heap.HeapItem[8];
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String>[] items = newItemArray(8);
             for (int i = 0; i < 8; i++) {
                 items[i] = heap.insert((i + 1) * 10, "N" + i);
             }
@@ -624,13 +689,13 @@ public class BugCatcherTest {
 
     private static boolean testDecreaseKeyHeapProperty() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 20; i++) {
                 heap.insert(i * 5, "N" + i);
             }
             heap.deleteMin();
             // Multiple decrease keys
-            Heap.HeapItem item = heap.insert(200, "target");
+            Heap.HeapItem<String> item = heap.insert(200, "target");
             heap.deleteMin();
             heap.decreaseKey(item, 190);
             // Verify heap property by extracting all
@@ -652,8 +717,8 @@ public class BugCatcherTest {
 
     private static boolean testDeleteMinNode() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem min = heap.insert(5, "min");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> min = heap.insert(5, "min");
             heap.insert(10, "A");
             heap.insert(15, "B");
             heap.delete(min);
@@ -666,9 +731,9 @@ public class BugCatcherTest {
 
     private static boolean testDeleteMiddleNode() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(5, "A");
-            Heap.HeapItem mid = heap.insert(10, "B");
+            Heap.HeapItem<String> mid = heap.insert(10, "B");
             heap.insert(15, "C");
             heap.delete(mid);
             return heap.size() == 2 && heap.findMin().key == 5;
@@ -680,8 +745,8 @@ public class BugCatcherTest {
 
     private static boolean testDeleteAllNodes() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem[] items = new Heap.HeapItem[5];
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String>[] items = newItemArray(5);
             for (int i = 0; i < 5; i++) {
                 items[i] = heap.insert((i + 1) * 10, "N" + i);
             }
@@ -700,8 +765,8 @@ public class BugCatcherTest {
 
     private static boolean testDeleteWithMinValue() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem item = heap.insert(100, "A");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> item = heap.insert(100, "A");
             heap.insert(50, "B");
             // delete uses decreaseKey with Integer.MAX_VALUE
             heap.delete(item);
@@ -716,7 +781,7 @@ public class BugCatcherTest {
 
     private static boolean testParentPointerAfterLink() {
         try {
-            Heap heap = new Heap(false, true); // Non-lazy to force linking
+            Heap<String> heap = new Heap<>(false, true); // Non-lazy to force linking
             heap.insert(10, "A");
             heap.insert(20, "B");
             // After non-lazy insert, trees are linked
@@ -731,8 +796,8 @@ public class BugCatcherTest {
 
     private static boolean testParentPointerAfterCut() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem[] items = new Heap.HeapItem[8];
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String>[] items = newItemArray(8);
             for (int i = 0; i < 8; i++) {
                 items[i] = heap.insert((i + 1) * 10, "N" + i);
             }
@@ -749,7 +814,7 @@ public class BugCatcherTest {
 
     private static boolean testChildrenParentAfterDeleteMin() {
         try {
-            Heap heap = new Heap(false, true);
+            Heap<String> heap = new Heap<>(false, true);
             for (int i = 1; i <= 8; i++) {
                 heap.insert(i * 10, "N" + i);
             }
@@ -768,7 +833,7 @@ public class BugCatcherTest {
 
     private static boolean testHeadNotNullAfterInsert() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             // Can't access head directly, but numTrees should work
             return heap.numTrees() == 1;
@@ -783,7 +848,7 @@ public class BugCatcherTest {
 
     private static boolean testLastNotNullAfterInsert() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(20, "B");
             // Operations that use last pointer
@@ -800,7 +865,7 @@ public class BugCatcherTest {
 
     private static boolean testHeadUpdatedAfterDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(20, "B");
             heap.insert(30, "C");
@@ -815,7 +880,7 @@ public class BugCatcherTest {
 
     private static boolean testMinUpdatedAfterDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(20, "B");
             heap.insert(15, "C");
@@ -829,7 +894,7 @@ public class BugCatcherTest {
 
     private static boolean testMinAlwaysCorrect() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             Random rand = new Random(42);
             int actualMin = Integer.MAX_VALUE;
             for (int i = 0; i < 50; i++) {
@@ -849,7 +914,7 @@ public class BugCatcherTest {
 
     private static boolean testSizeIncreasesOnInsert() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 10; i++) {
                 heap.insert(i, "N" + i);
                 if (heap.size() != i) return false;
@@ -863,7 +928,7 @@ public class BugCatcherTest {
 
     private static boolean testSizeDecreasesOnDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 10; i++) {
                 heap.insert(i, "N" + i);
             }
@@ -880,8 +945,8 @@ public class BugCatcherTest {
 
     private static boolean testSizeAfterMeld() {
         try {
-            Heap heap1 = new Heap(true, true);
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             for (int i = 1; i <= 5; i++) {
                 heap1.insert(i, "H1-" + i);
                 heap2.insert(i + 10, "H2-" + i);
@@ -896,7 +961,7 @@ public class BugCatcherTest {
 
     private static boolean testSizeMatchesCount() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 20; i++) {
                 heap.insert(i, "N" + i);
             }
@@ -921,7 +986,7 @@ public class BugCatcherTest {
 
     private static boolean testDeleteMinNoInfiniteLoop() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 10; i++) {
                 heap.insert(i, "N" + i);
             }
@@ -939,7 +1004,7 @@ public class BugCatcherTest {
 
     private static boolean testConsolidateNoInfiniteLoop() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 100; i++) {
                 heap.insert(i, "N" + i);
             }
@@ -954,7 +1019,7 @@ public class BugCatcherTest {
 
     private static boolean testTraversalNoInfiniteLoop() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 20; i++) {
                 heap.insert(i, "N" + i);
             }
@@ -972,7 +1037,7 @@ public class BugCatcherTest {
 
     private static boolean testTotalLinksNonNegative() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 20; i++) {
                 heap.insert(i, "N" + i);
             }
@@ -986,8 +1051,8 @@ public class BugCatcherTest {
 
     private static boolean testTotalCutsNonNegative() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem[] items = new Heap.HeapItem[10];
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String>[] items = newItemArray(10);
             for (int i = 0; i < 10; i++) {
                 items[i] = heap.insert((i + 1) * 10, "N" + i);
             }
@@ -1002,7 +1067,7 @@ public class BugCatcherTest {
 
     private static boolean testNumTreesMatchesActual() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 5; i++) {
                 heap.insert(i * 10, "N" + i);
             }
@@ -1016,7 +1081,7 @@ public class BugCatcherTest {
 
     private static boolean testNumMarkedNonNegative() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 10; i++) {
                 heap.insert(i * 10, "N" + i);
             }
@@ -1032,7 +1097,7 @@ public class BugCatcherTest {
 
     private static boolean testStress100() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 100; i++) {
                 heap.insert(i, "N" + i);
             }
@@ -1049,25 +1114,25 @@ public class BugCatcherTest {
     }
 
     private static boolean testRandomOperations() {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             Random rand = new Random(123);
-            List<Heap.HeapItem> items = new ArrayList<>();
+            List<Heap.HeapItem<String>> items = new ArrayList<>();
             
             for (int i = 0; i < 500; i++) {
                 int op = rand.nextInt(3);
                 if (op == 0 || items.isEmpty()) {
                     // Insert
-                    Heap.HeapItem item = heap.insert(rand.nextInt(10000) + 1, "N" + i);
+                    Heap.HeapItem<String> item = heap.insert(rand.nextInt(10000) + 1, "N" + i);
                     items.add(item);
                 } else if (op == 1 && heap.size() > 0) {
                     // DeleteMin
-                    Heap.HeapItem minItem = heap.findMin();
+                    Heap.HeapItem<String> minItem = heap.findMin();
                     heap.deleteMin();
                     items.remove(minItem);
                     // Note: we can't track which item was removed easily
                 } else if (op == 2 && !items.isEmpty() && heap.size() > 0) {
                     // DecreaseKey
-                    Heap.HeapItem item = items.get(rand.nextInt(items.size()));
+                    Heap.HeapItem<String> item = items.get(rand.nextInt(items.size()));
                     if (item.key > 1) {
                         heap.decreaseKey(item, rand.nextInt(item.key - 1) + 1);
                     }
@@ -1079,7 +1144,7 @@ public class BugCatcherTest {
 
     private static boolean testAlternatingOperations() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 0; i < 100; i++) {
                 heap.insert(i * 2, "A" + i);
                 heap.insert(i * 2 + 1, "B" + i);
@@ -1105,7 +1170,7 @@ public class BugCatcherTest {
 
     private static boolean testHeapSortCorrectness() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             Random rand = new Random(456);
             int[] original = new int[200];
             for (int i = 0; i < 200; i++) {
@@ -1129,7 +1194,7 @@ public class BugCatcherTest {
 
     private static boolean testLazyMeldNoConsolidate() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             for (int i = 1; i <= 10; i++) {
                 heap.insert(i * 10, "N" + i);
             }
@@ -1143,7 +1208,7 @@ public class BugCatcherTest {
 
     private static boolean testNonLazyMeldConsolidates() {
         try {
-            Heap heap = new Heap(false, true);
+            Heap<String> heap = new Heap<>(false, true);
             heap.insert(10, "A");
             heap.insert(20, "B");
             // Should consolidate to 1 tree
@@ -1156,13 +1221,13 @@ public class BugCatcherTest {
 
     private static boolean testLazyDecreaseKeyUsesCuts() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem[] items = new Heap.HeapItem[8];
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String>[] items = newItemArray(8);
             for (int i = 0; i < 8; i++) {
                 items[i] = heap.insert((i + 1) * 10, "N" + i);
             }
             heap.deleteMin(); // Creates tree
-            int cutsBefore = heap.totalCuts();
+            long cutsBefore = heap.totalCuts();
             // Decrease a child node significantly
             heap.decreaseKey(items[7], items[7].key - 1);
             // If it was a child, should have cut
@@ -1175,12 +1240,12 @@ public class BugCatcherTest {
 
     private static boolean testNonLazyDecreaseKeyUsesHeapify() {
         try {
-            Heap heap = new Heap(false, false);
-            Heap.HeapItem[] items = new Heap.HeapItem[8];
+            Heap<String> heap = new Heap<>(false, false);
+            Heap.HeapItem<String>[] items = newItemArray(8);
             for (int i = 0; i < 8; i++) {
                 items[i] = heap.insert((i + 1) * 10, "N" + i);
             }
-            int cutsBefore = heap.totalCuts();
+            long cutsBefore = heap.totalCuts();
             // Decrease a child node
             heap.decreaseKey(items[7], items[7].key - 1);
             // No cuts should happen in non-lazy mode
@@ -1190,4 +1255,915 @@ public class BugCatcherTest {
             return false;
         }
     }
+
+    // ==================== NODE POOL BUG TESTS ====================
+
+    private static boolean testNodePoolReuse() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            heap.insert(10, "A");
+            heap.insert(20, "B");
+            Heap.HeapNode<String> oldNode = heap.findMin().node;
+            heap.deleteMin();
+            if (heap.nodePoolSize() != 1) {
+                logFail("testNodePoolReuse: pool size " + heap.nodePoolSize());
+                return false;
+            }
+            Heap.HeapItem<String> c = heap.insert(5, "C");
+            return c.node == oldNode && heap.nodePoolSize() == 0 && heap.nodePoolHits() == 1
+                    && heap.nodePoolHitRate() > 0.3 && heap.findMin() == c
+                    && oldNode.parent == null && oldNode.child == null && oldNode.rank == 0;
+        } catch (Exception e) {
+            logFail("testNodePoolReuse: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testStaleItemDecreaseKey() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> a = heap.insert(10, "A");
+            heap.insert(20, "B");
+            Heap.HeapNode<String> oldNode = a.node;
+            heap.deleteMin(); // a is gone, its node goes to the pool
+            Heap.HeapItem<String> c = heap.insert(30, "C"); // c takes a's old node
+            if (c.node != oldNode) {
+                logFail("testStaleItemDecreaseKey: node was not recycled");
+                return false;
+            }
+            if (heap.decreaseKey(a, 9)) {
+                logFail("testStaleItemDecreaseKey: stale handle accepted");
+                return false;
+            }
+            return !heap.contains(a) && heap.contains(c) && c.key == 30 && oldNode.item == c
+                    && heap.findMin().key == 20 && heap.size() == 2 && heap.decreaseKey(c, 25)
+                    && heap.findMin() == c;
+        } catch (Exception e) {
+            logFail("testStaleItemDecreaseKey: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testStaleItemDelete() {
+        try {
+            Heap<String> heap = new Heap<>(false, false);
+            Heap.HeapItem<String> a = heap.insert(10, "A");
+            heap.insert(20, "B");
+            heap.insert(30, "C");
+            Heap.HeapNode<String> oldNode = a.node;
+            if (!heap.delete(a)) {
+                logFail("testStaleItemDelete: live handle rejected");
+                return false;
+            }
+            Heap.HeapItem<String> d = heap.insert(40, "D");
+            if (heap.delete(a)) { // must not remove anything
+                logFail("testStaleItemDelete: stale handle accepted");
+                return false;
+            }
+            return d.node == oldNode && heap.contains(d) && heap.size() == 3 && heap.findMin().key == 20;
+        } catch (Exception e) {
+            logFail("testStaleItemDelete: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testNodePoolDisabled() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            heap.setNodePoolCapacity(0);
+            for (int i = 1; i <= 10; i++) {
+                heap.insert(i, "N" + i);
+            }
+            for (int i = 0; i < 5; i++) {
+                heap.deleteMin();
+            }
+            heap.insert(100, "X");
+            return heap.nodePoolSize() == 0 && heap.nodePoolHits() == 0 && heap.nodePoolHitRate() == 0.0;
+        } catch (Exception e) {
+            logFail("testNodePoolDisabled: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== BULK INSERT BUG TESTS ====================
+
+    private static boolean testInsertAllLazy() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            heap.insert(7, "X");
+            heap.insertAll(new int[]{30, 10, 20}, new String[]{"A", "B", "C"});
+            return heap.size() == 4 && heap.numTrees() == 4 && heap.totalLinks() == 0
+                    && heap.findMin().key == 7;
+        } catch (Exception e) {
+            logFail("testInsertAllLazy: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testInsertAllNonLazy() {
+        try {
+            Heap<String> heap = new Heap<>(false, false);
+            int[] keys = new int[100];
+            for (int i = 0; i < 100; i++) {
+                keys[i] = 100 - i;
+            }
+            heap.insertAll(keys, null);
+            // 100 = 64 + 32 + 4, built from 100 single nodes with 97 links
+            if (heap.numTrees() != 3 || heap.totalLinks() != 97 || heap.findMin().key != 1) {
+                logFail("testInsertAllNonLazy: trees=" + heap.numTrees() + " links=" + heap.totalLinks());
+                return false;
+            }
+            for (int i = 1; i <= 100; i++) {
+                if (heap.findMin().key != i) {
+                    return false;
+                }
+                heap.deleteMin();
+            }
+            return heap.size() == 0;
+        } catch (Exception e) {
+            logFail("testInsertAllNonLazy: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testInsertAllItems() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String>[] items = newItemArray(5);
+            heap.insertAll(new int[]{50, 40, 30, 20, 10}, new String[]{"A", "B", "C", "D", "E"}, items);
+            heap.deleteMin();
+            heap.decreaseKey(items[0], 45);
+            return items[0].info.equals("A") && heap.findMin() == items[0] && heap.size() == 4;
+        } catch (Exception e) {
+            logFail("testInsertAllItems: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== BATCH DELETEMIN BUG TESTS ====================
+
+    private static boolean testDeleteMinBatchOrder() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            for (int i = 50; i >= 1; i--) {
+                heap.insert(i, "N" + i);
+            }
+            Heap.HeapItem<String>[] out = newItemArray(10);
+            int n = heap.deleteMinBatch(10, out);
+            for (int i = 0; i < 10; i++) {
+                if (out[i].key != i + 1 || heap.contains(out[i])) {
+                    logFail("testDeleteMinBatchOrder: out[" + i + "]=" + out[i].key);
+                    return false;
+                }
+            }
+            return n == 10 && heap.size() == 40 && heap.findMin().key == 11;
+        } catch (Exception e) {
+            logFail("testDeleteMinBatchOrder: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testDeleteMinBatchAll() {
+        try {
+            Heap<String> heap = new Heap<>(false, false);
+            for (int i = 1; i <= 5; i++) {
+                heap.insert(i * 3, "N" + i);
+            }
+            Heap.HeapItem<String>[] out = newItemArray(5);
+            int n = heap.deleteMinBatch(100, out);
+            return n == 5 && out[4].key == 15 && heap.size() == 0 && heap.findMin() == null
+                    && heap.numTrees() == 0 && heap.deleteMinBatch(3, out) == 0;
+        } catch (Exception e) {
+            logFail("testDeleteMinBatchAll: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testDeleteMinBatchHeapValid() {
+        try {
+            boolean[][] configs = {{false, false}, {true, false}, {true, true}, {false, true}};
+            for (boolean[] config : configs) {
+                Heap<String> heap = new Heap<>(config[0], config[1]);
+                Random rand = new Random(11);
+                Heap.HeapItem<String>[] items = newItemArray(2000);
+                for (int i = 0; i < 2000; i++) {
+                    items[i] = heap.insert(rand.nextInt(100000) + 1, "");
+                }
+                Heap.HeapItem<String>[] out = newItemArray(64);
+                int prev = 0;
+                while (heap.size() > 0) {
+                    // decrease a few keys in between, never below the last extracted key
+                    for (int j = 0; j < 5; j++) {
+                        Heap.HeapItem<String> x = items[rand.nextInt(2000)];
+                        if (heap.contains(x) && x.key > prev + 1) {
+                            heap.decreaseKey(x, rand.nextInt(x.key - prev));
+                        }
+                    }
+                    int n = heap.deleteMinBatch(64, out);
+                    for (int j = 0; j < n; j++) {
+                        if (out[j].key < prev) {
+                            logFail("testDeleteMinBatchHeapValid: order broken");
+                            return false;
+                        }
+                        prev = out[j].key;
+                    }
+                }
+                if (heap.numMarkedNodes() != 0 || heap.numTrees() != 0) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            logFail("testDeleteMinBatchHeapValid: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== CASCADING CUT BUG TESTS ====================
+
+    private static boolean testMaxCascadeLength() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String>[] items = newItemArray(10);
+            for (int i = 1; i <= 9; i++) {
+                items[i] = heap.insert(i, "N" + i);
+            }
+            // consolidates 2..9 into one tree: 2 -> {3, 4 -> {5}, 6 -> {7, 8 -> {9}}}
+            heap.deleteMin();
+            heap.decreaseKey(items[7], 6); // cut 7, mark 6
+            if (heap.maxCascadeLength() != 1) {
+                return false;
+            }
+            heap.decreaseKey(items[8], 7); // cut 8, 6 is marked so cut 6 too
+            return heap.maxCascadeLength() == 2 && heap.totalCuts() == 3 && heap.numMarkedNodes() == 0;
+        } catch (Exception e) {
+            logFail("testMaxCascadeLength: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testDeepCascadeNoStackOverflow() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            Random rand = new Random(5);
+            int n = 1 << 16;
+            Heap.HeapItem<String>[] items = newItemArray(n);
+            for (int i = 0; i < n; i++) {
+                items[i] = heap.insert(n + i, "");
+            }
+            heap.insert(1, "");
+            heap.deleteMin();
+            // cut out random nodes repeatedly to build marked chains
+            for (int i = 0; i < n; i++) {
+                Heap.HeapItem<String> x = items[rand.nextInt(n)];
+                if (x.key > 1) {
+                    heap.decreaseKey(x, 1);
+                }
+            }
+            int prev = Integer.MIN_VALUE;
+            while (heap.size() > 0) {
+                if (heap.findMin().key < prev) {
+                    return false;
+                }
+                prev = heap.findMin().key;
+                heap.deleteMin();
+            }
+            return heap.maxCascadeLength() >= 1;
+        } catch (Exception | StackOverflowError e) {
+            logFail("testDeepCascadeNoStackOverflow: " + e);
+            return false;
+        }
+    }
+
+    // ==================== PARALLEL CONSOLIDATION BUG TESTS ====================
+
+    private static boolean testParallelConsolidationMatchesSerial() {
+        try {
+            int n = 50000;
+            Heap<String> serial = new Heap<>(true, true);
+            Heap<String> parallel = new Heap<>(true, true);
+            serial.setParallelConsolidationThreshold(Integer.MAX_VALUE);
+            parallel.setParallelConsolidationThreshold(2);
+            Random rand = new Random(14);
+            for (int i = 0; i < n; i++) {
+                int key = 1 + rand.nextInt(1000000);
+                serial.insert(key, "");
+                parallel.insert(key, "");
+            }
+            serial.deleteMin();
+            parallel.deleteMin();
+            if (serial.totalLinks() != parallel.totalLinks() || serial.numTrees() != parallel.numTrees()) {
+                logFail("testParallelConsolidationMatchesSerial: links " + serial.totalLinks() + " vs " + parallel.totalLinks());
+                return false;
+            }
+            while (serial.size() > 0) {
+                if (parallel.findMin().key != serial.findMin().key) {
+                    return false;
+                }
+                serial.deleteMin();
+                parallel.deleteMin();
+            }
+            return parallel.size() == 0;
+        } catch (Exception e) {
+            logFail("testParallelConsolidationMatchesSerial: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testParallelConsolidationHeapValid() {
+        try {
+            int n = 40000;
+            Heap<String> heap = new Heap<>(true, true);
+            heap.setParallelConsolidationThreshold(2);
+            Heap.HeapItem<String>[] items = newItemArray(n);
+            for (int i = 0; i < n; i++) {
+                items[i] = heap.insert(2 * n - i, "");
+            }
+            heap.deleteMin();
+            Random rand = new Random(41);
+            for (int i = 0; i < n / 2; i++) {
+                Heap.HeapItem<String> x = items[rand.nextInt(n)];
+                if (x.key > 1) {
+                    heap.decreaseKey(x, 1 + rand.nextInt(x.key - 1));
+                }
+            }
+            int prev = Integer.MIN_VALUE;
+            int count = 0;
+            while (heap.size() > 0) {
+                if (heap.findMin().key < prev) {
+                    return false;
+                }
+                prev = heap.findMin().key;
+                heap.deleteMin();
+                count++;
+            }
+            return count == n - 1;
+        } catch (Exception e) {
+            logFail("testParallelConsolidationHeapValid: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== INCREMENTAL CONSOLIDATION BUG TESTS ====================
+
+    private static boolean testIncrementalLinksCapped() {
+        try {
+            int steps = 8;
+            Heap<String> heap = new Heap<>(true, true);
+            heap.setIncrementalConsolidation(steps);
+            Random rand = new Random(15);
+            int n = 20000;
+            for (int i = 0; i < n; i++) {
+                long links = heap.totalLinks();
+                heap.insert(1 + rand.nextInt(1000000), "");
+                if (heap.totalLinks() - links > steps) {
+                    return false;
+                }
+            }
+            int prev = Integer.MIN_VALUE;
+            while (heap.size() > 0) {
+                long links = heap.totalLinks();
+                int key = heap.findMin().key;
+                if (key < prev) {
+                    return false;
+                }
+                prev = key;
+                heap.deleteMin();
+                if (heap.totalLinks() - links > steps) {
+                    logFail("testIncrementalLinksCapped: " + (heap.totalLinks() - links) + " links in one deleteMin");
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            logFail("testIncrementalLinksCapped: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testIncrementalRandomOps() {
+        try {
+            for (int mode = 0; mode < 2; mode++) {
+                Heap<String> heap = new Heap<>(true, mode == 0);
+                heap.setIncrementalConsolidation(3);
+                Random rand = new Random(150 + mode);
+                List<Heap.HeapItem<String>> items = new ArrayList<>();
+                java.util.PriorityQueue<Integer> ref = new java.util.PriorityQueue<>();
+                for (int op = 0; op < 5000; op++) {
+                    int c = rand.nextInt(10);
+                    if (c < 4) {
+                        int key = 1 + rand.nextInt(100000);
+                        items.add(heap.insert(key, ""));
+                        ref.add(key);
+                    } else if (c < 6 && !ref.isEmpty()) {
+                        ref.poll();
+                        heap.deleteMin();
+                    } else if (c < 9 && !items.isEmpty()) {
+                        Heap.HeapItem<String> x = items.get(rand.nextInt(items.size()));
+                        if (heap.contains(x) && x.key > 1) {
+                            ref.remove(x.key);
+                            heap.decreaseKey(x, 1 + rand.nextInt(x.key - 1));
+                            ref.add(x.key);
+                        }
+                    } else if (!items.isEmpty()) {
+                        Heap.HeapItem<String> x = items.get(rand.nextInt(items.size()));
+                        if (heap.contains(x)) {
+                            ref.remove(x.key);
+                            heap.delete(x);
+                        }
+                    }
+                    if (heap.size() != ref.size()) {
+                        return false;
+                    }
+                    if (!ref.isEmpty() && heap.findMin().key != ref.peek()) {
+                        logFail("testIncrementalRandomOps: min " + heap.findMin().key + " expected " + ref.peek());
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            logFail("testIncrementalRandomOps: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== STRICT FIBONACCI HEAP BUG TESTS ====================
+
+    private static boolean testStrictFibonacciMatchesQueue() {
+        try {
+            StrictFibonacciHeap<String> heap = new StrictFibonacciHeap<>();
+            PriorityQueue<Integer> expected = new PriorityQueue<>();
+            List<Heap.HeapItem<String>> items = new ArrayList<>();
+            Random rand = new Random(16);
+            for (int op = 0; op < 30000; op++) {
+                int c = rand.nextInt(10);
+                if (c < 4 || items.isEmpty()) {
+                    int key = 1 + rand.nextInt(1000);
+                    items.add(heap.insert(key, ""));
+                    expected.add(key);
+                } else if (c < 6) {
+                    Heap.HeapItem<String> x = items.get(rand.nextInt(items.size()));
+                    int diff = rand.nextInt(x.key + 1);
+                    expected.remove(x.key);
+                    heap.decreaseKey(x, diff);
+                    expected.add(x.key);
+                } else if (c < 8) {
+                    Heap.HeapItem<String> min = heap.findMin();
+                    if (min.key != expected.poll()) {
+                        return false;
+                    }
+                    heap.deleteMin();
+                    items.remove(min);
+                    if (heap.contains(min) || heap.decreaseKey(min, 0) || heap.delete(min)) {
+                        return false;
+                    }
+                } else if (c < 9) {
+                    Heap.HeapItem<String> x = items.remove(rand.nextInt(items.size()));
+                    expected.remove(x.key);
+                    if (!heap.delete(x)) {
+                        return false;
+                    }
+                } else {
+                    // the smaller side goes passive, whichever heap it is
+                    StrictFibonacciHeap<String> other = new StrictFibonacciHeap<>();
+                    int count = rand.nextInt(2) == 0 || heap.size() > 500 ? rand.nextInt(20) : heap.size() + rand.nextInt(20);
+                    for (int i = 0; i < count; i++) {
+                        int key = 1 + rand.nextInt(1000);
+                        items.add(other.insert(key, ""));
+                        expected.add(key);
+                    }
+                    heap.meld(other);
+                }
+                if (heap.size() != expected.size()
+                    || (heap.size() > 0 && heap.findMin().key != expected.peek())) {
+                    return false;
+                }
+            }
+            while (heap.size() > 0) {
+                if (heap.findMin().key != expected.poll()) {
+                    return false;
+                }
+                heap.deleteMin();
+            }
+            return expected.isEmpty() && heap.findMin() == null;
+        } catch (Exception e) {
+            logFail("testStrictFibonacciMatchesQueue: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testStrictFibonacciCosts() {
+        try {
+            // sorted inserts and a Dijkstra-like mix, where a lazy heap pays O(n) for one deleteMin
+            StrictFibonacciHeap<String> heap = new StrictFibonacciHeap<>();
+            List<Heap.HeapItem<String>> items = new ArrayList<>();
+            Random rand = new Random(61);
+            int n = 100000;
+            long maxUpdateCost = 0;
+            long maxDeleteMinCost = 0;
+            for (int i = 0; i < n; i++) {
+                long before = heap.totalLinks() + heap.totalCuts() + heap.totalHeapifyCosts();
+                items.add(heap.insert(4 * n - 2 * i, ""));
+                maxUpdateCost = Math.max(maxUpdateCost, heap.totalLinks() + heap.totalCuts() + heap.totalHeapifyCosts() - before);
+            }
+            double logN = Math.log(n) / Math.log(2);
+            while (heap.size() > n / 2) {
+                long before = heap.totalLinks() + heap.totalCuts() + heap.totalHeapifyCosts();
+                heap.deleteMin();
+                maxDeleteMinCost = Math.max(maxDeleteMinCost, heap.totalLinks() + heap.totalCuts() + heap.totalHeapifyCosts() - before);
+                for (int k = 0; k < 3; k++) {
+                    Heap.HeapItem<String> x = items.get(rand.nextInt(n));
+                    if (heap.contains(x) && x.key > 1) {
+                        before = heap.totalLinks() + heap.totalCuts() + heap.totalHeapifyCosts();
+                        heap.decreaseKey(x, 1 + rand.nextInt(x.key / 2));
+                        maxUpdateCost = Math.max(maxUpdateCost, heap.totalLinks() + heap.totalCuts() + heap.totalHeapifyCosts() - before);
+                    }
+                }
+                if (heap.numActiveRoots() > 2 * logN + 6 || heap.totalLoss() > 2 * logN + 6
+                    || heap.rootDegree() > 4 * logN + 10) {
+                    logFail("testStrictFibonacciCosts: " + heap.numActiveRoots() + " active roots, loss "
+                            + heap.totalLoss() + ", root degree " + heap.rootDegree() + " at size " + heap.size());
+                    return false;
+                }
+            }
+            // a decreaseKey does one cut, one loss reduction and ten O(1) reductions
+            if (maxUpdateCost > 30 || maxDeleteMinCost > 8 * logN) {
+                logFail("testStrictFibonacciCosts: update cost " + maxUpdateCost + ", deleteMin cost " + maxDeleteMinCost);
+                return false;
+            }
+            return heap.maxDegree() <= 4 * logN + 10;
+        } catch (Exception e) {
+            logFail("testStrictFibonacciCosts: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== INSTRUMENTATION BUG TESTS ====================
+
+    private static boolean testLogHistogramPercentiles() {
+        try {
+            LogHistogram histogram = new LogHistogram();
+            if (histogram.valueAtPercentile(99) != 0 || histogram.max() != 0) {
+                return false;
+            }
+            for (int v = 1; v <= 100000; v++) {
+                histogram.record(v);
+            }
+            long[] expected = {50000, 99000, 99900};
+            double[] percentiles = {50, 99, 99.9};
+            for (int i = 0; i < percentiles.length; i++) {
+                long value = histogram.valueAtPercentile(percentiles[i]);
+                long exact = expected[i];
+                // reported as the upper end of a bucket at most 1/16 wide
+                if (value < exact || value > exact + exact / 16) {
+                    logFail("testLogHistogramPercentiles: p" + percentiles[i] + " = " + value);
+                    return false;
+                }
+            }
+            histogram.record(Long.MAX_VALUE);
+            return histogram.max() == Long.MAX_VALUE && histogram.valueAtPercentile(100) == Long.MAX_VALUE
+                    && histogram.min() == 1 && histogram.count() == 100001;
+        } catch (Exception e) {
+            logFail("testLogHistogramPercentiles: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testHeapInstrumentation() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            if (heap.isInstrumented() || heap.latencyHistogram(Heap.OP_DELETE_MIN) != null) {
+                return false;
+            }
+            heap.setInstrumentation(true);
+            Heap.HeapItem<String>[] items = newItemArray(1000);
+            for (int i = 0; i < items.length; i++) {
+                items[i] = heap.insert(i + 1, "");
+            }
+            heap.deleteMin(); // the only consolidation: all links so far happen here
+            long linksAfterFirst = heap.totalLinks();
+            heap.delete(items[500]);
+            heap.decreaseKey(items[900], 899);
+
+            // a meld must not be charged for the other heap's own history
+            Heap<String> other = new Heap<>(true, true);
+            for (int i = 0; i < 100; i++) {
+                other.insert(5000 + i, "");
+            }
+            other.deleteMin();
+            heap.meld(other);
+
+            LogHistogram deleteMins = heap.costHistogram(Heap.OP_DELETE_MIN);
+            LogHistogram deletes = heap.costHistogram(Heap.OP_DELETE);
+            if (heap.latencyHistogram(Heap.OP_INSERT).count() != 1000
+                    || heap.costHistogram(Heap.OP_INSERT).max() != 0
+                    || deleteMins.count() != 1 || deleteMins.max() != linksAfterFirst
+                    || deletes.count() != 1
+                    || heap.costHistogram(Heap.OP_DECREASE_KEY).count() != 1
+                    || heap.costHistogram(Heap.OP_MELD).count() != 1
+                    || heap.costHistogram(Heap.OP_MELD).max() != 0) {
+                logFail("testHeapInstrumentation: " + deleteMins + " / " + deletes);
+                return false;
+            }
+            heap.setInstrumentation(false);
+            heap.deleteMin();
+            return !heap.isInstrumented() && heap.costHistogram(Heap.OP_DELETE_MIN) == null;
+        } catch (Exception e) {
+            logFail("testHeapInstrumentation: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== OBSERVER BUG TESTS ====================
+
+    private static class CountingObserver implements HeapObserver {
+        long links;
+        long[] linksByRank = new long[64];
+        long cuts;
+        long cascadeCuts;
+        long swaps;
+        long consolidations;
+        long consolidationLinks;
+        int rootsAtStart = -1;
+        boolean badRoots;
+
+        @Override
+        public void onLink(int rank) {
+            links++;
+            linksByRank[rank]++;
+        }
+
+        @Override
+        public void onCut(int rank) {
+            cuts++;
+        }
+
+        @Override
+        public void onCascadingCut(int depth) {
+            cascadeCuts += depth;
+        }
+
+        @Override
+        public void onHeapifySwap() {
+            swaps++;
+        }
+
+        @Override
+        public void onConsolidationStart(int roots) {
+            rootsAtStart = roots;
+        }
+
+        @Override
+        public void onConsolidationEnd(int roots, long links) {
+            consolidations++;
+            consolidationLinks += links;
+            if (roots + links != rootsAtStart) {
+                badRoots = true; // every link removes exactly one root
+            }
+        }
+    }
+
+    private static boolean testObserverMatchesCounters() {
+        try {
+            Random rand = new Random(23);
+            for (boolean lazyDecreaseKeys : new boolean[] {true, false}) {
+                Heap<String> heap = new Heap<>(true, lazyDecreaseKeys);
+                CountingObserver observer = new CountingObserver();
+                heap.setObserver(observer);
+                List<Heap.HeapItem<String>> items = new ArrayList<>();
+                for (int op = 0; op < 20000; op++) {
+                    int c = rand.nextInt(10);
+                    if (c < 5 || heap.size() == 0) {
+                        items.add(heap.insert(1 + rand.nextInt(1 << 20), ""));
+                    } else if (c < 7) {
+                        heap.deleteMin();
+                    } else {
+                        Heap.HeapItem<String> x = items.get(rand.nextInt(items.size()));
+                        if (heap.contains(x) && x.key > 1) {
+                            heap.decreaseKey(x, 1 + rand.nextInt(x.key - 1));
+                        }
+                    }
+                }
+                if (observer.links != heap.totalLinks() || observer.cuts != heap.totalCuts()
+                        || observer.cascadeCuts != heap.totalCuts() || observer.swaps != heap.totalHeapifyCosts()
+                        || observer.consolidationLinks != heap.totalLinks() || observer.badRoots
+                        || observer.consolidations == 0) {
+                    logFail("testObserverMatchesCounters: lazyDecreaseKeys=" + lazyDecreaseKeys);
+                    return false;
+                }
+            }
+
+            // parallel consolidation links are replayed on the calling thread
+            Heap<String> heap = new Heap<>(true, true);
+            heap.setParallelConsolidationThreshold(2);
+            CountingObserver observer = new CountingObserver();
+            heap.setObserver(observer);
+            for (int i = 0; i < 50000; i++) {
+                heap.insert(1 + rand.nextInt(1 << 20), "");
+            }
+            heap.deleteMin();
+            long links = heap.totalLinks();
+            heap.setObserver(null); // back to HeapObserver.NONE
+            heap.deleteMin();
+            return observer.consolidations == 1 && observer.consolidationLinks == links && links > 0
+                    && observer.links == links && !observer.badRoots;
+        } catch (Exception e) {
+            logFail("testObserverMatchesCounters: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testObserverParallelLinks() {
+        try {
+            Heap<String> serial = new Heap<>(true, true);
+            Heap<String> parallel = new Heap<>(true, true);
+            serial.setParallelConsolidationThreshold(Integer.MAX_VALUE);
+            parallel.setParallelConsolidationThreshold(2);
+            CountingObserver serialObserver = new CountingObserver();
+            CountingObserver parallelObserver = new CountingObserver();
+            serial.setObserver(serialObserver);
+            parallel.setObserver(parallelObserver);
+            Random rand = new Random(42);
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < 30000; i++) {
+                    int key = 1 + rand.nextInt(1 << 20);
+                    serial.insert(key, "");
+                    parallel.insert(key, "");
+                }
+                serial.deleteMin();
+                parallel.deleteMin();
+            }
+            // same links per rank as the serial pass, all seen by the observer
+            return parallel.totalLinks() > 0 && parallelObserver.links == parallel.totalLinks()
+                    && parallelObserver.consolidationLinks == parallel.totalLinks()
+                    && Arrays.equals(parallelObserver.linksByRank, serialObserver.linksByRank)
+                    && serialObserver.links == serial.totalLinks();
+        } catch (Exception e) {
+            logFail("testObserverParallelLinks: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testCountersAreLong() {
+        try {
+            Heap<String> heap = new Heap<>(false, false);
+            heap.totalLinks = Integer.MAX_VALUE;
+            heap.totalHeapifyCosts = Integer.MAX_VALUE;
+            Heap.HeapItem<String> a = heap.insert(10, "");
+            heap.insert(20, "");
+            heap.insert(30, ""); // links 10 and 20
+            heap.decreaseKey(heap.insert(40, ""), 35); // 30 and 40 link, then a swap
+            MeldableHeap<String> meldable = heap;
+            return heap.totalLinks() > Integer.MAX_VALUE && meldable.totalLinks() == heap.totalLinks()
+                    && heap.totalHeapifyCosts() > Integer.MAX_VALUE && heap.findMin() != a;
+        } catch (Exception e) {
+            logFail("testCountersAreLong: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== SNAPSHOT BUG TESTS ====================
+
+    private static boolean testSnapshotMatchesCounters() {
+        try {
+            Random rand = new Random(24);
+            for (boolean lazyMelds : new boolean[] {true, false}) {
+                Heap<String> heap = new Heap<>(lazyMelds, false);
+                List<Heap.HeapItem<String>> items = new ArrayList<>();
+                for (int op = 0; op < 20000; op++) {
+                    int c = rand.nextInt(10);
+                    if (c < 5 || heap.size() == 0) {
+                        items.add(heap.insert(1 + rand.nextInt(1 << 20), ""));
+                    } else if (c < 7) {
+                        heap.deleteMin();
+                    } else {
+                        Heap.HeapItem<String> x = items.get(rand.nextInt(items.size()));
+                        if (heap.contains(x) && x.key > 1) {
+                            heap.decreaseKey(x, 1 + rand.nextInt(x.key - 1));
+                        }
+                    }
+                }
+                heap.deleteMin();
+                HeapStats stats = heap.snapshot();
+                int roots = 0;
+                for (int count : stats.rootRankCounts) {
+                    roots += count;
+                }
+                int nodes = 0;
+                int marked = 0;
+                for (int level = 0; level <= stats.maxDepth; level++) {
+                    nodes += stats.nodesPerLevel[level];
+                    marked += stats.markedPerLevel[level];
+                }
+                if (!stats.complete || stats.nodesVisited != heap.size() || stats.rootsVisited != heap.numTrees()
+                        || roots != heap.numTrees() || nodes != heap.size() || marked != heap.numMarkedNodes()
+                        || stats.nodesPerLevel.length != stats.maxDepth + 1 || stats.rootListRatio() > 1.0) {
+                    logFail("testSnapshotMatchesCounters: lazyMelds=" + lazyMelds + "\n" + stats);
+                    return false;
+                }
+            }
+            HeapStats empty = new Heap<>(true, true).snapshot();
+            return empty.complete && empty.nodesVisited == 0 && empty.rootRankCounts.length == 0;
+        } catch (Exception e) {
+            logFail("testSnapshotMatchesCounters: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean testSnapshotBounded() {
+        try {
+            Heap<String> heap = new Heap<>(true, true);
+            for (int i = 0; i < 100000; i++) {
+                heap.insert(i + 1, "");
+            }
+            HeapStats stats = heap.snapshot(1000);
+            if (stats.complete || stats.nodesVisited != 1000 || stats.rootsVisited != 1000
+                    || stats.rootRankCounts.length != 1 || stats.numTrees != 100000 || stats.rootListRatio() < 100) {
+                logFail("testSnapshotBounded: lazy root list\n" + stats);
+                return false;
+            }
+            // 2^16 nodes consolidate into one tree, so the budget runs out inside it
+            heap = new Heap<>(true, true);
+            for (int i = 0; i <= 1 << 16; i++) {
+                heap.insert(i + 1, "");
+            }
+            heap.deleteMin();
+            stats = heap.snapshot(10);
+            HeapStats full = heap.snapshot(heap.size());
+            return !stats.complete && stats.nodesVisited == 10 && stats.rootsVisited == 1
+                    && full.complete && full.nodesVisited == heap.size() && full.maxRank == 16 && heap.numTrees() == 1;
+        } catch (Exception e) {
+            logFail("testSnapshotBounded: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== PROACTIVE CONSOLIDATION BUG TESTS ====================
+
+    private static boolean testProactiveConsolidation() {
+        try {
+            Random rand = new Random(25);
+            for (boolean lazyDecreaseKeys : new boolean[] {true, false}) {
+                Heap<String> heap = new Heap<>(true, lazyDecreaseKeys);
+                heap.setProactiveConsolidation(2.0);
+                List<Heap.HeapItem<String>> items = new ArrayList<>();
+                PriorityQueue<Integer> reference = new PriorityQueue<>();
+                int maxExcess = 0;
+                for (int op = 0; op < 50000; op++) {
+                    int c = rand.nextInt(10);
+                    if (c < 7 || heap.size() == 0) {
+                        int key = 1 + rand.nextInt(1 << 20);
+                        items.add(heap.insert(key, ""));
+                        reference.add(key);
+                    } else if (c < 8) {
+                        heap.deleteMin();
+                        reference.poll();
+                    } else {
+                        Heap.HeapItem<String> x = items.get(rand.nextInt(items.size()));
+                        if (heap.contains(x) && x.key > 1) {
+                            int diff = 1 + rand.nextInt(x.key - 1);
+                            reference.remove(x.key);
+                            reference.add(x.key - diff);
+                            heap.decreaseKey(x, diff);
+                        }
+                    }
+                    // limit from the last consolidation, which had at most the current size
+                    double limit = Math.max(2.0 * Math.log(heap.size()) / Math.log((1 + Math.sqrt(5)) / 2), 2);
+                    maxExcess = Math.max(maxExcess, heap.numTrees() - (int) limit);
+                    if (heap.size() > 0 && heap.findMin().key != reference.peek()) {
+                        logFail("testProactiveConsolidation: wrong min, lazyDecreaseKeys=" + lazyDecreaseKeys);
+                        return false;
+                    }
+                }
+                if (maxExcess > 0) {
+                    logFail("testProactiveConsolidation: " + maxExcess + " trees over the limit");
+                    return false;
+                }
+                while (heap.size() > 0) {
+                    if (heap.findMin().key != reference.poll()) {
+                        logFail("testProactiveConsolidation: wrong drain order");
+                        return false;
+                    }
+                    heap.deleteMin();
+                }
+            }
+
+            // turned off, the root list grows lazily again; consolidate() compacts it on demand
+            Heap<String> heap = new Heap<>(true, true);
+            heap.setProactiveConsolidation(3.0);
+            heap.setProactiveConsolidation(0);
+            for (int i = 0; i < 1000; i++) {
+                heap.insert(1000 - i, "");
+            }
+            if (heap.numTrees() != 1000 || heap.proactiveConsolidation() != 0) {
+                return false;
+            }
+            heap.consolidate();
+            return heap.numTrees() == Integer.bitCount(1000) && heap.findMin().key == 1;
+        } catch (Exception e) {
+            logFail("testProactiveConsolidation: " + e.getMessage());
+            return false;
+        }
+    }
 }
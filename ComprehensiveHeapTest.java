@@ -1,5 +1,9 @@
 import java.util.Random;
 import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.function.Supplier;
 
 /**
  * Comprehensive test suite for Fibonacci Heap implementation
@@ -65,6 +69,69 @@ public class ComprehensiveHeapTest {
         test("Stress test 1000 random operations", testStress1000Operations());
         test("Stress test alternating insert/delete", testStressAlternating());
 
+        // IntFibHeap Tests
+        System.out.println("\n--- IntFibHeap Tests ---");
+        test("IntFibHeap sorted extraction (all modes)", testIntFibHeapSortedExtraction());
+        test("IntFibHeap decreaseKey and delete", testIntFibHeapDecreaseKeyAndDelete());
+        test("IntFibHeap meld shifts handles", testIntFibHeapMeld());
+        test("IntFibHeap counters match Heap", testIntFibHeapMatchesHeap());
+
+        // OffHeapFibHeap Tests
+        System.out.println("\n--- OffHeapFibHeap Tests ---");
+        test("OffHeapFibHeap sorted extraction (all modes)", testOffHeapSortedExtraction());
+        test("OffHeapFibHeap reuses freed slots", testOffHeapReusesSlots());
+        test("OffHeapFibHeap close releases memory", testOffHeapClose());
+
+        // Key Type Tests
+        System.out.println("\n--- Key Type Tests ---");
+        test("LongHeap sorts keys beyond int range (all modes)", testLongHeapSorted());
+        test("DoubleHeap decreaseKey and delete (all modes)", testDoubleHeapDecreaseAndDelete());
+        test("DoubleHeap orders signed zeros, infinities and extremes", testDoubleHeapKeyOrder());
+        test("GenericHeap with comparator (all modes)", testGenericHeapComparator());
+        test("GenericHeap meld and natural order", testGenericHeapMeld());
+
+        // Payload Tests
+        System.out.println("\n--- Payload Tests ---");
+        test("Heap hands back typed payload objects", testTypedPayload());
+        test("IntFibHeap keeps long payload per handle", testIntFibHeapPayload());
+        test("Key-typed heaps hand back typed payloads, IntFibHeap meld clears stale ones", testKeyTypedPayloadAndMeld());
+
+        // Concurrent Heap Tests
+        System.out.println("\n--- Concurrent Heap Tests ---");
+        test("ConcurrentHeap drains in order after parallel inserts", testConcurrentParallelInsert());
+        test("ConcurrentHeap routes decreaseKey and delete to the owning shard", testConcurrentRouting());
+        test("Relaxed ConcurrentHeap returns every item", testConcurrentRelaxedDrain());
+        test("ConcurrentHeap mixed producers and consumers", testConcurrentMixedStress());
+
+        // MPSC Heap Tests
+        System.out.println("\n--- MPSC Heap Tests ---");
+        test("MpscHeap drains staged inserts and melds in order", testMpscSequential());
+        test("MpscHeap with concurrent producers and one consumer", testMpscProducers());
+
+        // Meldable Heap Tests
+        System.out.println("\n--- Meldable Heap Tests ---");
+        test("All MeldableHeap backends agree on a random workload", testMeldableBackendsAgree());
+        test("Pairing and rank-pairing heaps count links and cuts", testPairingCounters());
+
+        // D-ary Heap Tests
+        System.out.println("\n--- D-ary Heap Tests ---");
+        test("DaryHeap keeps order for d = 2, 4 and 8", testDaryHeapOrder());
+        test("DaryHeap handles, delete and O(n) meld", testDaryHeapHandles());
+
+        // Radix Heap Tests
+        System.out.println("\n--- Radix Heap Tests ---");
+        test("RadixHeap extracts a monotone workload in order", testRadixHeapMonotone());
+        test("RadixHeap rejects keys below the last minimum", testRadixHeapRejectsSmallKeys());
+
+        // Graph Search Tests
+        System.out.println("\n--- Graph Search Tests ---");
+        test("GraphSearch finds known distances and MST weight", testGraphSearchSmallGraph());
+        test("GraphSearch agrees across heap backends", testGraphSearchBackendsAgree());
+
+        // Background Consolidation Tests
+        System.out.println("\n--- Background Consolidation Tests ---");
+        test("Background consolidation keeps ConcurrentHeap and MpscHeap correct", testBackgroundConsolidation());
+
         // Summary
         System.out.println("\n=== TEST SUMMARY ===");
         System.out.println("Passed: " + testsPassed);
@@ -83,12 +150,17 @@ public class ComprehensiveHeapTest {
         }
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Heap.HeapItem<V>[] newItemArray(int length) {
+        return (Heap.HeapItem<V>[]) new Heap.HeapItem[length];
+    }
+
     // ==================== BASIC CRUD TESTS ====================
 
     private static boolean testInsertSingle() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem item = heap.insert(10, "A");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> item = heap.insert(10, "A");
             return item != null && heap.size() == 1;
         } catch (Exception e) {
             return false;
@@ -97,7 +169,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testInsertMultiple() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(5, "B");
             heap.insert(20, "C");
@@ -111,7 +183,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testFindMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(5, "B");
             heap.insert(20, "C");
@@ -124,7 +196,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDeleteMinBasic() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(5, "B");
             heap.insert(20, "C");
@@ -137,7 +209,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDeleteMinUntilEmpty() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(5, "B");
             heap.insert(20, "C");
@@ -154,7 +226,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testEmptyHeapFindMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             return heap.findMin() == null;
         } catch (Exception e) {
             return false;
@@ -163,7 +235,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testEmptyHeapDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.deleteMin(); // should not crash
             return heap.size() == 0;
         } catch (Exception e) {
@@ -173,7 +245,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testSingleElementHeap() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(42, "only");
             if (heap.findMin().key != 42) return false;
             heap.deleteMin();
@@ -185,7 +257,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDuplicateKeys() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(5, "A");
             heap.insert(5, "B");
             heap.insert(5, "C");
@@ -197,7 +269,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDuplicateKeysDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(5, "A");
             heap.insert(5, "B");
             heap.insert(5, "C");
@@ -213,7 +285,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testInsertAfterDeleteMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
             heap.insert(5, "B");
             heap.deleteMin();
@@ -228,9 +300,9 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDecreaseKeyBasic() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
-            Heap.HeapItem item = heap.insert(20, "B");
+            Heap.HeapItem<String> item = heap.insert(20, "B");
             heap.decreaseKey(item, 5); // 20 -> 15
             return item.key == 15;
         } catch (Exception e) {
@@ -240,9 +312,9 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDecreaseKeyToNewMin() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
-            Heap.HeapItem item = heap.insert(20, "B");
+            Heap.HeapItem<String> item = heap.insert(20, "B");
             heap.decreaseKey(item, 15); // 20 -> 5
             return heap.findMin() == item && heap.findMin().key == 5;
         } catch (Exception e) {
@@ -252,8 +324,8 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDecreaseKeyRootNode() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem min = heap.insert(10, "A");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> min = heap.insert(10, "A");
             heap.insert(20, "B");
             heap.decreaseKey(min, 5); // 10 -> 5, min stays min
             return heap.findMin().key == 5;
@@ -264,9 +336,9 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDecreaseKeyNoViolation() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(10, "A");
-            Heap.HeapItem item = heap.insert(20, "B");
+            Heap.HeapItem<String> item = heap.insert(20, "B");
             heap.insert(30, "C");
             // Force some structure by doing deleteMin
             heap.deleteMin();
@@ -283,10 +355,10 @@ public class ComprehensiveHeapTest {
     private static boolean testCascadingCut() {
         try {
             // Build a heap that will have tree structure after consolidation
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             
             // Insert nodes to build structure
-            Heap.HeapItem[] items = new Heap.HeapItem[8];
+            Heap.HeapItem<String>[] items = newItemArray(8);
             for (int i = 0; i < 8; i++) {
                 items[i] = heap.insert((i + 1) * 10, "N" + i);
             }
@@ -306,10 +378,10 @@ public class ComprehensiveHeapTest {
 
     private static boolean testMultipleCascadingCuts() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             
             // Build larger structure
-            Heap.HeapItem[] items = new Heap.HeapItem[16];
+            Heap.HeapItem<String>[] items = newItemArray(16);
             for (int i = 0; i < 16; i++) {
                 items[i] = heap.insert((i + 1) * 10, "N" + i);
             }
@@ -332,8 +404,8 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDeleteMinNode() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem min = heap.insert(5, "min");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> min = heap.insert(5, "min");
             heap.insert(10, "A");
             heap.insert(15, "B");
             heap.delete(min);
@@ -345,9 +417,9 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDeleteNonMinNode() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             heap.insert(5, "A");
-            Heap.HeapItem middle = heap.insert(10, "B");
+            Heap.HeapItem<String> middle = heap.insert(10, "B");
             heap.insert(15, "C");
             heap.delete(middle);
             return heap.findMin().key == 5 && heap.size() == 2;
@@ -358,8 +430,8 @@ public class ComprehensiveHeapTest {
 
     private static boolean testDeleteLastNode() {
         try {
-            Heap heap = new Heap(true, true);
-            Heap.HeapItem only = heap.insert(10, "only");
+            Heap<String> heap = new Heap<>(true, true);
+            Heap.HeapItem<String> only = heap.insert(10, "only");
             heap.delete(only);
             return heap.size() == 0 && heap.findMin() == null;
         } catch (Exception e) {
@@ -371,12 +443,12 @@ public class ComprehensiveHeapTest {
 
     private static boolean testMeldSameSize() {
         try {
-            Heap heap1 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
             heap1.insert(10, "A");
             heap1.insert(30, "B");
             heap1.insert(50, "C");
 
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             heap2.insert(5, "X");
             heap2.insert(25, "Y");
             heap2.insert(45, "Z");
@@ -390,11 +462,11 @@ public class ComprehensiveHeapTest {
 
     private static boolean testMeldDifferentSize() {
         try {
-            Heap heap1 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
             heap1.insert(10, "A");
             heap1.insert(30, "B");
 
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             heap2.insert(5, "X");
             heap2.insert(25, "Y");
             heap2.insert(45, "Z");
@@ -410,11 +482,11 @@ public class ComprehensiveHeapTest {
 
     private static boolean testMeldWithEmpty() {
         try {
-            Heap heap1 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
             heap1.insert(10, "A");
             heap1.insert(5, "B");
 
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             // heap2 is empty
 
             heap1.meld(heap2);
@@ -426,10 +498,10 @@ public class ComprehensiveHeapTest {
 
     private static boolean testMeldEmptyWithNonEmpty() {
         try {
-            Heap heap1 = new Heap(true, true);
+            Heap<String> heap1 = new Heap<>(true, true);
             // heap1 is empty
 
-            Heap heap2 = new Heap(true, true);
+            Heap<String> heap2 = new Heap<>(true, true);
             heap2.insert(10, "A");
             heap2.insert(5, "B");
 
@@ -444,7 +516,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testNonLazyMeld() {
         try {
-            Heap heap = new Heap(false, true); // non-lazy melds
+            Heap<String> heap = new Heap<>(false, true); // non-lazy melds
             heap.insert(10, "A");
             heap.insert(5, "B");
             heap.insert(20, "C");
@@ -458,9 +530,9 @@ public class ComprehensiveHeapTest {
 
     private static boolean testNonLazyDecreaseKey() {
         try {
-            Heap heap = new Heap(true, false); // non-lazy decrease keys
+            Heap<String> heap = new Heap<>(true, false); // non-lazy decrease keys
             heap.insert(10, "A");
-            Heap.HeapItem item = heap.insert(20, "B");
+            Heap.HeapItem<String> item = heap.insert(20, "B");
             heap.insert(5, "C");
             
             // Force structure
@@ -477,7 +549,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testStress500Elements() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             Random rand = new Random(42); // fixed seed for reproducibility
             
             int[] values = new int[500];
@@ -491,7 +563,7 @@ public class ComprehensiveHeapTest {
             
             // Extract all and verify sorted order
             for (int i = 0; i < 500; i++) {
-                Heap.HeapItem min = heap.findMin();
+                Heap.HeapItem<String> min = heap.findMin();
                 if (min == null || min.key != values[i]) {
                     return false;
                 }
@@ -507,9 +579,9 @@ public class ComprehensiveHeapTest {
 
     private static boolean testStress1000Operations() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             Random rand = new Random(123);
-            Heap.HeapItem[] items = new Heap.HeapItem[200];
+            Heap.HeapItem<String>[] items = newItemArray(200);
             int itemCount = 0;
             
             for (int i = 0; i < 100; i++) {
@@ -545,7 +617,7 @@ public class ComprehensiveHeapTest {
             // Verify heap property - extracting should give sorted order
             int prev = Integer.MIN_VALUE;
             while (heap.size() > 0) {
-                Heap.HeapItem min = heap.findMin();
+                Heap.HeapItem<String> min = heap.findMin();
                 if (min.key < prev) {
                     return false;
                 }
@@ -562,7 +634,7 @@ public class ComprehensiveHeapTest {
 
     private static boolean testStressAlternating() {
         try {
-            Heap heap = new Heap(true, true);
+            Heap<String> heap = new Heap<>(true, true);
             
             // Alternating insert and delete
             for (int i = 0; i < 100; i++) {
@@ -577,7 +649,7 @@ public class ComprehensiveHeapTest {
             // Verify they come out in sorted order
             int prev = Integer.MIN_VALUE;
             while (heap.size() > 0) {
-                Heap.HeapItem min = heap.findMin();
+                Heap.HeapItem<String> min = heap.findMin();
                 if (min.key < prev) return false;
                 prev = min.key;
                 heap.deleteMin();
@@ -589,4 +661,1012 @@ public class ComprehensiveHeapTest {
             return false;
         }
     }
+
+    // ==================== INTFIBHEAP TESTS ====================
+
+    private static boolean testIntFibHeapSortedExtraction() {
+        try {
+            boolean[][] configs = {{false, false}, {true, false}, {true, true}, {false, true}};
+            for (boolean[] config : configs) {
+                IntFibHeap heap = new IntFibHeap(config[0], config[1]);
+                Random rand = new Random(42);
+                int[] values = new int[500];
+                for (int i = 0; i < 500; i++) {
+                    values[i] = rand.nextInt(10000) + 1;
+                    heap.insert(values[i]);
+                }
+                Arrays.sort(values);
+                for (int i = 0; i < 500; i++) {
+                    if (heap.key(heap.findMin()) != values[i]) {
+                        return false;
+                    }
+                    heap.deleteMin();
+                }
+                if (heap.size() != 0 || heap.findMin() != -1) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testIntFibHeapDecreaseKeyAndDelete() {
+        try {
+            IntFibHeap heap = new IntFibHeap(true, true);
+            int[] handles = new int[20];
+            for (int i = 0; i < 20; i++) {
+                handles[i] = heap.insert((i + 1) * 10);
+            }
+            heap.deleteMin(); // key 10, consolidates into trees
+            heap.decreaseKey(handles[15], 155); // 160 -> 5
+            if (heap.findMin() != handles[15] || heap.key(handles[15]) != 5) {
+                return false;
+            }
+            heap.delete(handles[7]); // key 80
+            if (heap.contains(handles[7]) || heap.size() != 18) {
+                return false;
+            }
+            int reused = heap.insert(7); // may reuse a freed handle
+            if (heap.findMin() != handles[15] || heap.key(reused) != 7) {
+                return false;
+            }
+            int prev = Integer.MIN_VALUE;
+            while (heap.size() > 0) {
+                int key = heap.key(heap.findMin());
+                if (key < prev || key == 80) {
+                    return false;
+                }
+                prev = key;
+                heap.deleteMin();
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testIntFibHeapMeld() {
+        try {
+            IntFibHeap heap1 = new IntFibHeap(false, false);
+            IntFibHeap heap2 = new IntFibHeap(false, false);
+            for (int i = 1; i <= 10; i++) {
+                heap1.insert(i * 2);
+            }
+            int handle = -1;
+            for (int i = 1; i <= 10; i++) {
+                int h = heap2.insert(i * 2 + 1);
+                if (i == 5) {
+                    handle = h;
+                }
+            }
+            int offset = heap1.meld(heap2);
+            if (heap2.size() != 0 || heap1.size() != 20 || heap1.key(handle + offset) != 11) {
+                return false;
+            }
+            heap1.decreaseKey(handle + offset, 10);
+            return heap1.findMin() == handle + offset && heap1.key(heap1.findMin()) == 1;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testIntFibHeapMatchesHeap() {
+        try {
+            boolean[][] configs = {{false, false}, {true, false}, {true, true}, {false, true}};
+            for (boolean[] config : configs) {
+                Heap<String> heap = new Heap<>(config[0], config[1]);
+                IntFibHeap intHeap = new IntFibHeap(config[0], config[1]);
+                Random rand = new Random(7);
+                Heap.HeapItem<String>[] items = newItemArray(1000);
+                int[] handles = new int[1000];
+                for (int i = 0; i < 1000; i++) {
+                    int key = rand.nextInt(100000) + 1;
+                    items[i] = heap.insert(key, "");
+                    handles[i] = intHeap.insert(key);
+                }
+                heap.deleteMin();
+                intHeap.deleteMin();
+                for (int i = 0; i < 1000; i += 3) {
+                    if (items[i].key > 1 && intHeap.contains(handles[i])) {
+                        heap.decreaseKey(items[i], items[i].key / 2);
+                        intHeap.decreaseKey(handles[i], intHeap.key(handles[i]) / 2);
+                    }
+                }
+                heap.deleteMin();
+                intHeap.deleteMin();
+                if (heap.totalLinks() != intHeap.totalLinks() || heap.totalCuts() != intHeap.totalCuts()
+                        || heap.totalHeapifyCosts() != intHeap.totalHeapifyCosts()
+                        || heap.numTrees() != intHeap.numTrees() || heap.findMin().key != intHeap.key(intHeap.findMin())) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== OFFHEAPFIBHEAP TESTS ====================
+
+    private static boolean testOffHeapSortedExtraction() {
+        boolean[][] configs = {{false, false}, {true, false}, {true, true}, {false, true}};
+        for (boolean[] config : configs) {
+            try (OffHeapFibHeap heap = new OffHeapFibHeap(config[0], config[1])) {
+                Random rand = new Random(42);
+                int[] values = new int[500];
+                int[] handles = new int[500];
+                for (int i = 0; i < 500; i++) {
+                    values[i] = rand.nextInt(10000) + 1;
+                    handles[i] = heap.insert(values[i]);
+                }
+                // decrease every 10th key to a fresh minimum range
+                for (int i = 0; i < 500; i += 10) {
+                    heap.decreaseKey(handles[i], values[i] - 1);
+                    values[i] = 1;
+                }
+                Arrays.sort(values);
+                for (int i = 0; i < 500; i++) {
+                    if (heap.key(heap.findMin()) != values[i]) {
+                        return false;
+                    }
+                    heap.deleteMin();
+                }
+                if (heap.size() != 0 || heap.findMin() != -1) {
+                    return false;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean testOffHeapReusesSlots() {
+        try (OffHeapFibHeap heap = new OffHeapFibHeap(true, true)) {
+            for (int i = 1; i <= 1000; i++) {
+                heap.insert(i);
+            }
+            long reserved = heap.reservedBytes();
+            // churn at constant size: every deleted slot is reused by the next insert
+            for (int i = 0; i < 200000; i++) {
+                heap.deleteMin();
+                heap.insert(1001 + i);
+            }
+            return heap.size() == 1000 && heap.reservedBytes() == reserved
+                    && heap.key(heap.findMin()) == 200001;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testOffHeapClose() {
+        try {
+            OffHeapFibHeap heap = new OffHeapFibHeap(true, true);
+            heap.insert(5);
+            heap.close();
+            if (heap.reservedBytes() != 0 || heap.size() != 0) {
+                return false;
+            }
+            try {
+                heap.insert(6);
+                return false;
+            } catch (IllegalStateException expected) {
+                return true;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== KEY TYPE TESTS ====================
+
+    private static boolean testLongHeapSorted() {
+        try {
+            boolean[][] configs = {{false, false}, {true, false}, {true, true}, {false, true}};
+            for (boolean[] config : configs) {
+                LongHeap<String> heap = new LongHeap<>(config[0], config[1]);
+                Random rand = new Random(3);
+                long[] values = new long[500];
+                List<LongHeap.HeapItem<String>> items = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    values[i] = rand.nextLong();
+                    items.add(heap.insert(values[i], "N" + i));
+                }
+                heap.deleteMin();
+                // decrease a few non-min keys by a large amount, staying in range
+                for (int i = 0; i < 500; i += 7) {
+                    if (heap.contains(items.get(i)) && items.get(i).key > 0) {
+                        heap.decreaseKey(items.get(i), Long.MAX_VALUE / 2);
+                    }
+                }
+                long prev = Long.MIN_VALUE;
+                int count = 0;
+                while (heap.size() > 0) {
+                    if (heap.findMin().key < prev) {
+                        return false;
+                    }
+                    prev = heap.findMin().key;
+                    heap.deleteMin();
+                    count++;
+                }
+                if (count != 499) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testDoubleHeapDecreaseAndDelete() {
+        try {
+            boolean[][] configs = {{false, false}, {true, false}, {true, true}, {false, true}};
+            for (boolean[] config : configs) {
+                DoubleHeap<String> heap = new DoubleHeap<>(config[0], config[1]);
+                List<DoubleHeap.HeapItem<String>> items = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    items.add(heap.insert(i * 0.5 - 10.0, "N" + i));
+                }
+                heap.deleteMin(); // -10.0
+                heap.decreaseKey(items.get(90), 100.0); // 35.0 -> -65.0
+                heap.delete(items.get(50)); // 15.0, a non-root in most modes
+                heap.delete(items.get(90));
+                if (heap.contains(items.get(50)) || heap.size() != 97 || heap.findMin().key != -9.5) {
+                    return false;
+                }
+                double prev = Double.NEGATIVE_INFINITY;
+                while (heap.size() > 0) {
+                    double key = heap.findMin().key;
+                    if (key < prev || key == 15.0) {
+                        return false;
+                    }
+                    prev = key;
+                    heap.deleteMin();
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testDoubleHeapKeyOrder() {
+        try {
+            double[] sorted = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1e-300, -Double.MIN_VALUE, 0.0,
+                               Double.MIN_VALUE, 1e-300, 1.0, Double.MAX_VALUE, Double.POSITIVE_INFINITY};
+            DoubleHeap<String> heap = new DoubleHeap<>(true, true);
+            heap.insert(-0.0, "negative zero");
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                heap.insert(sorted[i], "N" + i);
+            }
+            // -0.0 and 0.0 are equal keys
+            if (heap.findMin().key != Double.NEGATIVE_INFINITY) {
+                return false;
+            }
+            for (int i = 0; i < sorted.length; i++) {
+                if (heap.findMin().key != sorted[i]) {
+                    return false;
+                }
+                heap.deleteMin();
+                if (sorted[i] == 0.0) {
+                    if (heap.findMin().key != 0.0) {
+                        return false;
+                    }
+                    heap.deleteMin();
+                }
+            }
+            DoubleHeap.HeapItem<String> item = heap.insert(2.5, "x");
+            heap.decreaseKey(item, 5.0);
+            return heap.size() == 1 && heap.findMin().key == -2.5;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testGenericHeapComparator() {
+        try {
+            boolean[][] configs = {{false, false}, {true, false}, {true, true}, {false, true}};
+            for (boolean[] config : configs) {
+                // longest string first
+                GenericHeap<String, String> heap = new GenericHeap<>(config[0], config[1],
+                        (a, b) -> Integer.compare(b.length(), a.length()));
+                GenericHeap.HeapItem<String, String> shortOne = null;
+                for (int i = 1; i <= 30; i++) {
+                    GenericHeap.HeapItem<String, String> item = heap.insert("x".repeat(i), "N" + i);
+                    if (i == 3) {
+                        shortOne = item;
+                    }
+                }
+                heap.deleteMin(); // length 30
+                heap.decreaseKey(shortOne, "y".repeat(50));
+                if (heap.findMin() != shortOne) {
+                    return false;
+                }
+                heap.deleteMin();
+                int prev = Integer.MAX_VALUE;
+                while (heap.size() > 0) {
+                    int length = heap.findMin().key.length();
+                    if (length > prev || length == 3) {
+                        return false;
+                    }
+                    prev = length;
+                    heap.deleteMin();
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testGenericHeapMeld() {
+        try {
+            GenericHeap<Integer, String> heap1 = GenericHeap.naturalOrder(true, true);
+            GenericHeap<Integer, String> heap2 = GenericHeap.naturalOrder(true, true);
+            for (int i = 1; i <= 10; i++) {
+                heap1.insert(i * 2, "A" + i);
+                heap2.insert(i * 2 - 1, "B" + i);
+            }
+            heap1.meld(heap2);
+            for (int i = 1; i <= 20; i++) {
+                if (heap1.findMin().key != i) {
+                    return false;
+                }
+                heap1.deleteMin();
+            }
+            return heap1.size() == 0 && heap1.findMin() == null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== PAYLOAD TESTS ====================
+
+    private static boolean testTypedPayload() {
+        try {
+            Heap<int[]> heap = new Heap<>(false, false);
+            int[] jobA = {1};
+            int[] jobB = {2};
+            heap.insert(20, jobA);
+            Heap.HeapItem<int[]> b = heap.insert(30, jobB);
+            heap.decreaseKey(b, 25);
+            int[] popped = heap.findMin().info;
+            heap.deleteMin();
+            return popped == jobB && heap.findMin().info == jobA;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testIntFibHeapPayload() {
+        try {
+            IntFibHeap heap = new IntFibHeap(false, false);
+            int plain = heap.insert(50);
+            for (int i = 1; i <= 40; i++) {
+                heap.insert(100 + i, 1000L * i);
+            }
+            heap.deleteMin(); // key 50, no payload
+            int moved = -1;
+            for (int h = 0; h < 41; h++) {
+                if (heap.contains(h) && heap.payload(h) == 20000L) {
+                    moved = h;
+                }
+            }
+            heap.decreaseKey(moved, 119); // heapify swaps nodes, payload follows the handle
+            if (heap.payload(heap.findMin()) != 20000L || heap.key(heap.findMin()) != 1) {
+                return false;
+            }
+            int reused = heap.insert(2); // takes the handle of the deleted item
+            return reused == plain && heap.payload(reused) == 0L;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testKeyTypedPayloadAndMeld() {
+        try {
+            LongHeap<int[]> longHeap = new LongHeap<>(true, true);
+            DoubleHeap<int[]> doubleHeap = new DoubleHeap<>(true, true);
+            GenericHeap<String, int[]> genericHeap = GenericHeap.naturalOrder(true, true);
+            for (int i = 0; i < 10; i++) {
+                longHeap.insert(10 - i, new int[] {i});
+                doubleHeap.insert(10.0 - i, new int[] {i});
+                genericHeap.insert("k" + (10 - i), new int[] {i});
+            }
+            longHeap.deleteMin();
+            doubleHeap.deleteMin();
+            genericHeap.deleteMin(); // "k1"
+            if (longHeap.findMin().info[0] != 8 || doubleHeap.findMin().info[0] != 8
+                    || genericHeap.findMin().info[0] != 0) { // "k10" sorts before "k2"
+                return false;
+            }
+
+            // a heap emptied by a meld keeps its payload array; melding in items
+            // without payloads must not expose the old values
+            IntFibHeap heap = new IntFibHeap(true, true);
+            for (int i = 1; i <= 10; i++) {
+                heap.insert(10 + i, 7L * i);
+            }
+            new IntFibHeap(true, true).meld(heap);
+            IntFibHeap plain = new IntFibHeap(true, true);
+            int h = plain.insert(5);
+            int offset = heap.meld(plain);
+            return heap.size() == 1 && heap.key(h + offset) == 5 && heap.payload(h + offset) == 0L;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== CONCURRENT HEAP TESTS ====================
+
+    private static boolean runThreads(int threads, java.util.function.IntConsumer body) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        boolean[] failed = new boolean[1];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    body.accept(id);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    failed[0] = true;
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return !failed[0];
+    }
+
+    private static boolean testConcurrentParallelInsert() {
+        try {
+            ConcurrentHeap<Integer> heap = new ConcurrentHeap<>(4, false, true, true);
+            int perThread = 2000;
+            if (!runThreads(4, id -> {
+                for (int i = 0; i < perThread; i++) {
+                    heap.insert(1 + id + 4 * i, id);
+                }
+            })) {
+                return false;
+            }
+            if (heap.size() != 4 * perThread) {
+                return false;
+            }
+            for (int expected = 1; expected <= 4 * perThread; expected++) {
+                Heap.HeapItem<Integer> item = heap.deleteMin();
+                if (item == null || item.key != expected) {
+                    return false;
+                }
+            }
+            return heap.deleteMin() == null && heap.size() == 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testConcurrentRouting() {
+        try {
+            ConcurrentHeap<String> heap = new ConcurrentHeap<>(8, false, false, false);
+            Heap.HeapItem<String>[] items = newItemArray(100);
+            for (int i = 0; i < 100; i++) {
+                items[i] = heap.insert(1000 + i, "v" + i);
+            }
+            heap.decreaseKey(items[77], 1000);
+            heap.delete(items[10]);
+            heap.delete(items[10]); // already deleted, no-op
+            if (heap.size() != 99 || heap.findMin() != items[77]) {
+                return false;
+            }
+            if (heap.deleteMin() != items[77] || heap.deleteMin() != items[0]) {
+                return false;
+            }
+            heap.decreaseKey(items[77], 1); // stale, no-op
+            return heap.findMin() == items[1] && heap.size() == 97;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testConcurrentRelaxedDrain() {
+        try {
+            ConcurrentHeap<Integer> heap = new ConcurrentHeap<>(4, true, true, true);
+            int n = 3000;
+            for (int i = 1; i <= n; i++) {
+                heap.insert(i, i);
+            }
+            boolean[] seen = new boolean[n + 1];
+            Heap.HeapItem<Integer> item;
+            int count = 0;
+            while ((item = heap.deleteMin()) != null) {
+                if (seen[item.key]) {
+                    return false;
+                }
+                seen[item.key] = true;
+                count++;
+            }
+            return count == n && heap.size() == 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testConcurrentMixedStress() {
+        try {
+            ConcurrentHeap<Integer> heap = new ConcurrentHeap<>(4, false, true, false);
+            int perThread = 5000;
+            java.util.concurrent.atomic.AtomicInteger removed = new java.util.concurrent.atomic.AtomicInteger();
+            java.util.concurrent.atomic.AtomicIntegerArray seen = new java.util.concurrent.atomic.AtomicIntegerArray(4 * perThread + 1);
+            if (!runThreads(8, id -> {
+                if (id < 4) {
+                    for (int i = 0; i < perThread; i++) {
+                        heap.insert(1 + id * perThread + i, id);
+                    }
+                } else {
+                    for (int i = 0; i < perThread; i++) {
+                        Heap.HeapItem<Integer> item = heap.deleteMin();
+                        if (item != null) {
+                            seen.incrementAndGet(item.key);
+                            removed.incrementAndGet();
+                        }
+                    }
+                }
+            })) {
+                return false;
+            }
+            Heap.HeapItem<Integer> item;
+            int last = 0;
+            while ((item = heap.deleteMin()) != null) {
+                if (item.key < last) {
+                    return false;
+                }
+                last = item.key;
+                seen.incrementAndGet(item.key);
+                removed.incrementAndGet();
+            }
+            for (int k = 1; k <= 4 * perThread; k++) {
+                if (seen.get(k) != 1) {
+                    return false;
+                }
+            }
+            return removed.get() == 4 * perThread && heap.size() == 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== MPSC HEAP TESTS ====================
+
+    private static boolean testMpscSequential() {
+        try {
+            MpscHeap<String> heap = new MpscHeap<>(true, true);
+            Heap.HeapItem<String> a = heap.insert(40, "a");
+            heap.insert(30, "b");
+            Heap<String> other = new Heap<>(true, true);
+            Heap.HeapItem<String> c = other.insert(35, "c");
+            heap.meld(other);
+            heap.meld(new Heap<>(true, true)); // empty, ignored
+            if (heap.size() != 3 || !heap.findMin().info.equals("b")) {
+                return false;
+            }
+            heap.decreaseKey(a, 20); // staged item now lives in the heap
+            heap.decreaseKey(c, 30);
+            heap.deleteMin();
+            if (!heap.findMin().info.equals("a")) {
+                return false;
+            }
+            heap.delete(a);
+            return heap.size() == 1 && heap.findMin().info.equals("b");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testMpscProducers() {
+        try {
+            MpscHeap<Integer> heap = new MpscHeap<>(true, true);
+            int perThread = 5000;
+            int[] consumed = new int[1];
+            boolean[] inOrder = {true};
+            Thread consumer = new Thread(() -> {
+                // pop whatever is visible while the producers run
+                while (consumed[0] < 2 * perThread) {
+                    Heap.HeapItem<Integer> min = heap.findMin();
+                    if (min != null) {
+                        heap.deleteMin();
+                        consumed[0]++;
+                    }
+                }
+            });
+            consumer.start();
+            if (!runThreads(4, id -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (id % 2 == 0) {
+                        heap.insert(1 + id * perThread + i, id);
+                    } else if (i % 100 == 0) {
+                        Heap<Integer> batch = new Heap<>(true, true);
+                        for (int j = 0; j < 100; j++) {
+                            batch.insert(1 + id * perThread + i + j, id);
+                        }
+                        heap.meld(batch);
+                    }
+                }
+            })) {
+                return false;
+            }
+            consumer.join();
+            int last = 0;
+            while (heap.findMin() != null) {
+                int key = heap.findMin().key;
+                inOrder[0] &= key > last;
+                last = key;
+                heap.deleteMin();
+                consumed[0]++;
+            }
+            return inOrder[0] && consumed[0] == 4 * perThread && heap.size() == 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== MELDABLE HEAP TESTS ====================
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static MeldableHeap<Integer>[] meldableBackends() {
+        return new MeldableHeap[] {new Heap<Integer>(true, true), new PairingHeap<Integer>(), new RankPairingHeap<Integer>()};
+    }
+
+    private static boolean testMeldableBackendsAgree() {
+        try {
+            MeldableHeap<Integer>[] heaps = meldableBackends();
+            MeldableHeap<Integer>[] others = meldableBackends();
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Heap.HeapItem<Integer>[][] items = new Heap.HeapItem[heaps.length][2000];
+            Random rand = new Random(17);
+            for (int i = 0; i < 2000; i++) {
+                int key = 1 + rand.nextInt(50000);
+                for (int h = 0; h < heaps.length; h++) {
+                    items[h][i] = (i % 4 == 0 ? others[h] : heaps[h]).insert(key, i);
+                }
+            }
+            for (int h = 0; h < heaps.length; h++) {
+                heaps[h].meld(others[h]);
+            }
+            for (int op = 0; op < 3000; op++) {
+                int c = rand.nextInt(3);
+                int i = rand.nextInt(2000);
+                int diff = rand.nextInt(100);
+                for (int h = 0; h < heaps.length; h++) {
+                    if (c == 0) {
+                        heaps[h].deleteMin();
+                    } else if (c == 1 && heaps[h].contains(items[h][i]) && items[h][i].key > diff) {
+                        heaps[h].decreaseKey(items[h][i], diff);
+                    } else if (c == 2) {
+                        heaps[h].delete(items[h][i]);
+                    }
+                }
+                for (int h = 1; h < heaps.length; h++) {
+                    if (heaps[h].size() != heaps[0].size()) {
+                        return false;
+                    }
+                    if (heaps[0].size() > 0 && heaps[h].findMin().key != heaps[0].findMin().key) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testPairingCounters() {
+        try {
+            PairingHeap<String> pairing = new PairingHeap<>();
+            RankPairingHeap<String> rankPairing = new RankPairingHeap<>();
+            Heap.HeapItem<String> p = null;
+            Heap.HeapItem<String> r = null;
+            for (int i = 1; i <= 8; i++) {
+                p = pairing.insert(10 * i, "");
+                r = rankPairing.insert(10 * i, "");
+            }
+            // pairing links on every insert; rank-pairing inserts lazily
+            if (pairing.totalLinks() != 7 || rankPairing.totalLinks() != 0 || rankPairing.numTrees() != 8) {
+                return false;
+            }
+            pairing.deleteMin();
+            rankPairing.deleteMin();
+            pairing.decreaseKey(p, 75);
+            rankPairing.decreaseKey(r, 75);
+            return pairing.totalCuts() == 1 && rankPairing.totalCuts() == 1
+                    && pairing.findMin() == p && rankPairing.findMin() == r
+                    && pairing.totalHeapifyCosts() == 0 && rankPairing.totalHeapifyCosts() == 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== D-ARY HEAP TESTS ====================
+
+    private static boolean testDaryHeapOrder() {
+        try {
+            for (int d : new int[] {2, 4, 8}) {
+                DaryHeap<Integer> heap = new DaryHeap<>(d);
+                Random rand = new Random(18 + d);
+                Heap.HeapItem<Integer>[] items = newItemArray(3000);
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = heap.insert(1000 + rand.nextInt(100000), i);
+                }
+                for (int i = 0; i < 1000; i++) {
+                    Heap.HeapItem<Integer> x = items[rand.nextInt(items.length)];
+                    heap.decreaseKey(x, rand.nextInt(1000));
+                }
+                int prev = Integer.MIN_VALUE;
+                while (heap.size() > 0) {
+                    Heap.HeapItem<Integer> min = heap.findMin();
+                    if (min.key < prev || items[min.info] != min) {
+                        return false;
+                    }
+                    prev = min.key;
+                    heap.deleteMin();
+                }
+                if (heap.totalHeapifyCosts() == 0 || heap.totalLinks() != 0 || heap.findMin() != null) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testDaryHeapHandles() {
+        try {
+            DaryHeap<String> heap = new DaryHeap<>();
+            DaryHeap<String> other = new DaryHeap<>();
+            Heap.HeapItem<String> a = heap.insert(50, "a");
+            Heap.HeapItem<String> b = heap.insert(40, "b");
+            Heap.HeapItem<String> c = other.insert(30, "c");
+            Heap.HeapItem<String> e = other.insert(60, "e");
+            heap.delete(b);
+            heap.delete(b); // already deleted, no-op
+            if (heap.contains(b) || heap.size() != 1) {
+                return false;
+            }
+            Heap.HeapItem<String> f = heap.insert(45, "f"); // reuses the id of b
+            heap.decreaseKey(b, 10); // stale, no-op
+            heap.meld(other);
+            if (other.size() != 0 || heap.size() != 4 || heap.findMin() != c) {
+                return false;
+            }
+            heap.decreaseKey(e, 55); // melded handles stay valid
+            if (heap.findMin() != e) {
+                return false;
+            }
+            heap.deleteMin();
+            heap.deleteMin();
+            return heap.findMin() == f && heap.contains(a) && !heap.contains(c);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== RADIX HEAP TESTS ====================
+
+    private static boolean testRadixHeapMonotone() {
+        try {
+            RadixHeap<Integer> heap = new RadixHeap<>();
+            Random rand = new Random(19);
+            PriorityQueue<Integer> expected = new PriorityQueue<>();
+            int last = 0;
+            for (int round = 0; round < 2000; round++) {
+                // Dijkstra-like: every new key is at least the last extracted one
+                for (int i = rand.nextInt(4); i > 0; i--) {
+                    int key = last + rand.nextInt(rand.nextBoolean() ? 4 : 1 << 16);
+                    Heap.HeapItem<Integer> x = heap.insert(key, key);
+                    if (rand.nextBoolean()) {
+                        heap.decreaseKey(x, rand.nextInt(key - last + 1));
+                    }
+                    expected.add(x.key);
+                }
+                if (!expected.isEmpty()) {
+                    last = expected.poll();
+                    Heap.HeapItem<Integer> min = heap.findMin();
+                    if (min.key != last) {
+                        return false;
+                    }
+                    heap.deleteMin();
+                    // with equal keys, deleteMin must remove the item findMin returned
+                    if (heap.contains(min) || heap.lastMin != last || heap.size() != expected.size()) {
+                        return false;
+                    }
+                }
+            }
+            return heap.totalBucketMoves() > 0 && heap.totalLinks() == 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testRadixHeapRejectsSmallKeys() {
+        try {
+            RadixHeap<String> heap = new RadixHeap<>();
+            heap.insert(10, "a");
+            Heap.HeapItem<String> b = heap.insert(20, "b");
+            heap.deleteMin();
+            boolean insertRejected = false;
+            try {
+                heap.insert(9, "c");
+            } catch (IllegalArgumentException e) {
+                insertRejected = true;
+            }
+            boolean decreaseRejected = false;
+            try {
+                heap.decreaseKey(b, 11);
+            } catch (IllegalArgumentException e) {
+                decreaseRejected = true;
+            }
+            heap.insert(10, "d"); // equal to the last minimum is allowed
+            heap.decreaseKey(b, 10);
+            return insertRejected && decreaseRejected && b.key == 10
+                    && heap.size() == 2 && heap.findMin().key == 10;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== GRAPH SEARCH TESTS ====================
+
+    private static boolean testGraphSearchSmallGraph() {
+        try {
+            // 0 -1- 1 -2- 2, 0 -4- 2, 2 -1- 3, and 4 on its own
+            int[] from = {0, 1, 0, 2};
+            int[] to = {1, 2, 2, 3};
+            int[] weight = {1, 2, 4, 1};
+            CsrGraph g = CsrGraph.fromEdges(5, from, to, weight, true);
+            GraphSearch search = new GraphSearch(() -> new Heap<>(true, true));
+            search.dijkstra(g, 0);
+            int[] expected = {0, 1, 3, 4, GraphSearch.UNREACHABLE};
+            if (!Arrays.equals(search.dist, expected) || search.parent[3] != 2 || search.settled != 4) {
+                return false;
+            }
+            if (search.aStar(g, 3, 0, v -> 0) != 4 || search.aStar(g, 0, 4, v -> 0) != GraphSearch.UNREACHABLE) {
+                return false;
+            }
+            // the forest keeps 0-1, 1-2 and 2-3; vertex 4 is a tree of its own
+            return search.prim(g) == 4 && search.parent[4] == GraphSearch.NO_PARENT
+                    && search.parent[2] == 1 && search.dist[2] == 2;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean testGraphSearchBackendsAgree() {
+        try {
+            CsrGraph road = CsrGraph.roadLike(40, 40, new Random(20));
+            CsrGraph random = CsrGraph.random(2000, 6, 100, new Random(20));
+            int target = road.n - 1;
+            GraphSearch reference = new GraphSearch(DaryHeap::new);
+            reference.dijkstra(road, 0);
+            int[] roadDist = reference.dist.clone();
+            long mst = reference.prim(random);
+            reference.dijkstra(random, 0);
+            int[] randomDist = reference.dist.clone();
+
+            List<Supplier<MeldableHeap<Integer>>> backends = List.of(
+                    () -> new Heap<>(false, false), () -> new Heap<>(true, true),
+                    PairingHeap::new, RankPairingHeap::new, StrictFibonacciHeap::new);
+            for (Supplier<MeldableHeap<Integer>> backend : backends) {
+                GraphSearch search = new GraphSearch(backend);
+                search.dijkstra(road, 0);
+                if (!Arrays.equals(search.dist, roadDist)
+                        || search.aStar(road, 0, target, road.euclideanHeuristic(target)) != roadDist[target]) {
+                    return false;
+                }
+                if (search.prim(random) != mst) {
+                    return false;
+                }
+                search.dijkstra(random, 0);
+                if (!Arrays.equals(search.dist, randomDist)) {
+                    return false;
+                }
+            }
+            // the radix heap only runs the monotone searches
+            GraphSearch radix = new GraphSearch(RadixHeap::new);
+            radix.dijkstra(random, 0);
+            return Arrays.equals(radix.dist, randomDist)
+                    && radix.aStar(road, 0, target, road.euclideanHeuristic(target)) == roadDist[target];
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== BACKGROUND CONSOLIDATION TESTS ====================
+
+    private static boolean testBackgroundConsolidation() {
+        try {
+            ConcurrentHeap<Integer> heap = new ConcurrentHeap<>(4, false, true, true);
+            int perThread = 20000;
+            if (!runThreads(4, id -> {
+                for (int i = 0; i < perThread; i++) {
+                    heap.insert(1 + id + 4 * i, id);
+                }
+            })) {
+                return false;
+            }
+            // nobody holds a lock, so every lazy shard is consolidated, and then none is left
+            if (heap.consolidate() != 4 || heap.consolidate() != 0) {
+                return false;
+            }
+            heap.startBackgroundConsolidation(1);
+            boolean ok = runThreads(4, id -> {
+                for (int i = perThread; i < 2 * perThread; i++) {
+                    heap.insert(1 + id + 4 * i, id);
+                }
+            });
+            heap.stopBackgroundConsolidation();
+            if (!ok) {
+                return false;
+            }
+            for (int expected = 1; expected <= 8 * perThread; expected++) {
+                Heap.HeapItem<Integer> item = heap.deleteMin();
+                if (item == null || item.key != expected) {
+                    return false;
+                }
+            }
+
+            MpscHeap<Integer> mpsc = new MpscHeap<>(true, true);
+            for (int i = 0; i < 1000; i++) {
+                mpsc.insert(1000 - i, i);
+            }
+            mpsc.consolidate(); // idle consumer
+            mpsc.setProactiveConsolidation(2.0);
+            for (int i = 0; i < 1000; i++) {
+                mpsc.insert(2000 - i, i);
+            }
+            for (int expected = 1; expected <= 2000; expected++) {
+                if (mpsc.findMin().key != expected) {
+                    return false;
+                }
+                mpsc.deleteMin();
+            }
+            return heap.size() == 0 && mpsc.size() == 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
 }
@@ -0,0 +1,409 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConcurrentHeap
+ *
+ * A thread-safe priority queue built from independent Heap shards, each
+ * guarded by its own lock. Inserts go to a random shard (skipping shards that
+ * are currently locked), and the minimum of every shard is published in a
+ * shared array so findMin/deleteMin can pick a shard without locking the rest.
+ *
+ * In strict mode deleteMin removes the smallest of all shard minimums. Without
+ * concurrent updates this is the global minimum; under concurrency it is the
+ * minimum at the time the shard minimums were read. In relaxed mode
+ * (MultiQueue style) deleteMin removes the smaller minimum of two random
+ * shards, which scales better but may return an item that is not the global
+ * minimum.
+ *
+ * Shards can consolidate proactively (setProactiveConsolidation), and a
+ * daemon thread started by startBackgroundConsolidation consolidates shards
+ * whose root list grew long while no worker holds their lock, so deleteMin
+ * finds compact forests.
+ *
+ */
+public class ConcurrentHeap<V> {
+    private static final long EMPTY = Long.MAX_VALUE;
+    private static final int PAD = 8; // one shard minimum per 64-byte cache line
+
+    public final boolean lazyMelds;
+    public final boolean lazyDecreaseKeys;
+    public final boolean relaxed;
+
+    private final Shard<V>[] shards;
+    private final AtomicLongArray shardMins; // shardMins[i * PAD] = min key of shard i, or EMPTY
+    private final LongAdder size;
+    private Thread consolidator; // background consolidation thread, or null
+
+    /**
+     * Constructor to initialize an empty heap with numShards shards.
+     *
+     * pre: numShards > 0
+     *
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ConcurrentHeap(int numShards, boolean relaxed, boolean lazyMelds, boolean lazyDecreaseKeys) {
+        this.lazyMelds = lazyMelds;
+        this.lazyDecreaseKeys = lazyDecreaseKeys;
+        this.relaxed = relaxed;
+        this.shards = new Shard[numShards];
+        this.shardMins = new AtomicLongArray(numShards * PAD);
+        this.size = new LongAdder();
+        this.consolidator = null;
+        for (int i = 0; i < numShards; i++) {
+            shards[i] = new Shard<>(i, lazyMelds, lazyDecreaseKeys);
+            shardMins.set(i * PAD, EMPTY);
+        }
+    }
+
+    /**
+     * Inserts a new item with the given key and info into a random shard and returns it.
+     *
+     * pre: key > 0
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise, plus lock waiting
+     */
+    public Heap.HeapItem<V> insert(int key, V info) {
+        Shard<V> shard = lockAnyShard();
+        try {
+            Heap.HeapItem<V> item = shard.insert(key, info);
+            publishMin(shard);
+            return item;
+        } finally {
+            shard.lock.unlock();
+            size.increment();
+        }
+    }
+
+    /**
+     * Returns the item with the smallest published shard minimum, or null if the heap is empty.
+     * The item may be removed by another thread right after it is returned.
+     *
+     * Time Complexity (WC): O(number of shards)
+     */
+    public Heap.HeapItem<V> findMin() {
+        while (true) {
+            int best = bestShard();
+            if (best < 0) {
+                return null;
+            }
+            Shard<V> shard = shards[best];
+            shard.lock.lock();
+            try {
+                Heap.HeapItem<V> min = shard.findMin();
+                if (min != null) {
+                    return min;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Deletes and returns a minimal item (see the class comment for the strict and
+     * relaxed guarantees), or null if the heap is empty.
+     *
+     * Time Complexity (WC): O(number of shards) + deleteMin of one shard, plus lock waiting
+     */
+    public Heap.HeapItem<V> deleteMin() {
+        while (true) {
+            int chosen = relaxed ? relaxedShard() : bestShard();
+            if (chosen < 0) {
+                return null;
+            }
+            long expected = shardMins.get(chosen * PAD);
+            Shard<V> shard = shards[chosen];
+            shard.lock.lock();
+            try {
+                Heap.HeapItem<V> min = shard.findMin();
+                // retry if the minimum we chose was taken or grew meanwhile
+                if (min == null || (!relaxed && min.key > expected)) {
+                    continue;
+                }
+                shard.deleteMin();
+                publishMin(shard);
+                size.decrement();
+                return min;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Decreases the key of x by diff in the shard that owns it.
+     * Returns false and does nothing if x was already deleted.
+     *
+     * pre: x was returned by this heap AND 0<=diff<=x.key
+     *
+     * Time Complexity (WC): O(log n), plus lock waiting
+     */
+    public boolean decreaseKey(Heap.HeapItem<V> x, int diff) {
+        Shard<V> shard = shards[((ShardItem<V>) x).shard];
+        shard.lock.lock();
+        try {
+            boolean found = shard.decreaseKey(x, diff);
+            publishMin(shard);
+            return found;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes x from the shard that owns it. Returns false and does nothing
+     * if x was already deleted.
+     *
+     * pre: x was returned by this heap
+     *
+     * Time Complexity (WC): O(n), plus lock waiting
+     */
+    public boolean delete(Heap.HeapItem<V> x) {
+        Shard<V> shard = shards[((ShardItem<V>) x).shard];
+        shard.lock.lock();
+        try {
+            if (!shard.delete(x)) {
+                return false;
+            }
+            publishMin(shard);
+            size.decrement();
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the proactive consolidation factor of every shard (see
+     * Heap.setProactiveConsolidation); c <= 0 turns it off.
+     *
+     * Time Complexity (WC): O(n), plus lock waiting
+     */
+    public void setProactiveConsolidation(double c) {
+        for (Shard<V> shard : shards) {
+            shard.lock.lock();
+            try {
+                shard.setProactiveConsolidation(c);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Consolidates every shard that is not locked right now and has more than
+     * twice the trees of a consolidated heap (2 * (floor(log2 n) + 1)). Never
+     * waits for a lock. Returns the number of shards consolidated.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    public int consolidate() {
+        int consolidated = 0;
+        for (Shard<V> shard : shards) {
+            if (!shard.lock.tryLock()) {
+                continue; // a worker is using it, try again next time
+            }
+            try {
+                if (shard.numTrees() > 2 * (32 - Integer.numberOfLeadingZeros(shard.size()))) {
+                    shard.consolidate();
+                    consolidated++;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return consolidated;
+    }
+
+    /**
+     * Starts a daemon thread that calls consolidate every intervalMillis ms,
+     * until stopBackgroundConsolidation. Does nothing if one is running already.
+     *
+     * pre: intervalMillis > 0
+     *
+     */
+    public synchronized void startBackgroundConsolidation(long intervalMillis) {
+        if (consolidator != null) {
+            return;
+        }
+        consolidator = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    consolidate();
+                    Thread.sleep(intervalMillis);
+                }
+            } catch (InterruptedException e) {
+                // stopped
+            }
+        }, "ConcurrentHeap-consolidator");
+        consolidator.setDaemon(true);
+        consolidator.start();
+    }
+
+    /**
+     * Stops the background consolidation thread and waits for it to finish.
+     * Does nothing if none is running.
+     *
+     */
+    public synchronized void stopBackgroundConsolidation() throws InterruptedException {
+        if (consolidator == null) {
+            return;
+        }
+        consolidator.interrupt();
+        consolidator.join();
+        consolidator = null;
+    }
+
+    /**
+     * Returns the number of elements in the heap. Exact only when no update is in progress.
+     *
+     * Time Complexity (WC): O(number of threads that updated the size)
+     */
+    public int size() {
+        return (int) size.sum();
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numShards() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the total number of links performed in all shards.
+     *
+     * Time Complexity (WC): O(number of shards)
+     */
+    public long totalLinks() {
+        long total = 0;
+        for (Shard<V> shard : shards) {
+            total += shard.totalLinks;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total number of cuts performed in all shards.
+     *
+     * Time Complexity (WC): O(number of shards)
+     */
+    public long totalCuts() {
+        long total = 0;
+        for (Shard<V> shard : shards) {
+            total += shard.totalCuts;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total heapify costs of all shards.
+     *
+     * Time Complexity (WC): O(number of shards)
+     */
+    public long totalHeapifyCosts() {
+        long total = 0;
+        for (Shard<V> shard : shards) {
+            total += shard.totalHeapifyCosts;
+        }
+        return total;
+    }
+
+    /**
+     * Locks and returns a random shard, preferring shards that are not locked already.
+     *
+     */
+    private Shard<V> lockAnyShard() {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        int start = rand.nextInt(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            Shard<V> shard = shards[(start + i) % shards.length];
+            if (shard.lock.tryLock()) {
+                return shard;
+            }
+        }
+        Shard<V> shard = shards[start];
+        shard.lock.lock();
+        return shard;
+    }
+
+    /**
+     * Returns the shard with the smallest published minimum, or -1 if all are empty.
+     *
+     */
+    private int bestShard() {
+        int best = -1;
+        long bestKey = EMPTY;
+        for (int i = 0; i < shards.length; i++) {
+            long key = shardMins.get(i * PAD);
+            if (key < bestKey) {
+                bestKey = key;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the smaller-minimum shard of two random non-empty shards, or -1 if all are empty.
+     *
+     */
+    private int relaxedShard() {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        int a = rand.nextInt(shards.length);
+        int b = rand.nextInt(shards.length);
+        long keyA = shardMins.get(a * PAD);
+        long keyB = shardMins.get(b * PAD);
+        if (keyA == EMPTY && keyB == EMPTY) {
+            return bestShard(); // fall back to a full scan, which also detects an empty heap
+        }
+        return keyA <= keyB ? a : b;
+    }
+
+    /**
+     * Publishes the current minimum of a shard. Called while holding the shard's lock.
+     *
+     */
+    private void publishMin(Shard<V> shard) {
+        Heap.HeapItem<V> min = shard.findMin();
+        shardMins.set(shard.index * PAD, min == null ? EMPTY : min.key);
+    }
+
+    /**
+     * A Heap that tags its items with its shard index.
+     *
+     */
+    private static final class Shard<V> extends Heap<V> {
+        final int index;
+        final ReentrantLock lock;
+
+        Shard(int index, boolean lazyMelds, boolean lazyDecreaseKeys) {
+            super(lazyMelds, lazyDecreaseKeys);
+            this.index = index;
+            this.lock = new ReentrantLock();
+        }
+
+        @Override
+        protected HeapItem<V> newItem(int key, V info) {
+            return new ShardItem<>(key, info, index);
+        }
+    }
+
+    /**
+     * An item that remembers which shard owns it.
+     *
+     */
+    private static final class ShardItem<V> extends Heap.HeapItem<V> {
+        final int shard;
+
+        ShardItem(int key, V info, int shard) {
+            super(key, info);
+            this.shard = shard;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * CsrGraph
+ *
+ * An immutable weighted graph in compressed sparse row (CSR) form: the
+ * out-edges of vertex v are the entries offsets[v] .. offsets[v + 1] - 1 of
+ * targets and weights. Undirected graphs store every edge in both directions.
+ * Weights are non-negative. Vertices may carry integer coordinates, which
+ * give A* its Euclidean heuristic.
+ *
+ */
+public class CsrGraph {
+    public final int n;
+    public final int[] offsets;   // length n + 1, offsets[n] = number of edges
+    public final int[] targets;
+    public final int[] weights;
+    public final int[] xs;        // x coordinate of every vertex, or null
+    public final int[] ys;        // y coordinate of every vertex, or null
+
+    /**
+     * Constructor for a graph without coordinates.
+     *
+     * pre: offsets is non-decreasing from 0 to targets.length, weights >= 0
+     *
+     */
+    public CsrGraph(int[] offsets, int[] targets, int[] weights) {
+        this(offsets, targets, weights, null, null);
+    }
+
+    /**
+     * Constructor for a graph whose vertex v lies at (xs[v], ys[v]).
+     * The arrays are used as given, not copied.
+     *
+     * pre: offsets is non-decreasing from 0 to targets.length, weights >= 0
+     *
+     * Time Complexity (WC): O(n + m)
+     */
+    public CsrGraph(int[] offsets, int[] targets, int[] weights, int[] xs, int[] ys) {
+        if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != targets.length
+                || weights.length != targets.length) {
+            throw new IllegalArgumentException("offsets, targets and weights do not form a CSR graph");
+        }
+        this.n = offsets.length - 1;
+        if ((xs == null) != (ys == null) || (xs != null && (xs.length != n || ys.length != n))) {
+            throw new IllegalArgumentException("coordinates must be given for all " + n + " vertices");
+        }
+        for (int v = 0; v < n; v++) {
+            if (offsets[v] > offsets[v + 1]) {
+                throw new IllegalArgumentException("offsets decrease at vertex " + v);
+            }
+        }
+        for (int e = 0; e < targets.length; e++) {
+            if (targets[e] < 0 || targets[e] >= n || weights[e] < 0) {
+                throw new IllegalArgumentException("bad edge " + e + ": target " + targets[e] + ", weight " + weights[e]);
+            }
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Builds a graph on n vertices from an edge list, with edge i going from
+     * from[i] to to[i]. If undirected, every edge is also added backwards.
+     *
+     * Time Complexity (WC): O(n + m)
+     */
+    public static CsrGraph fromEdges(int n, int[] from, int[] to, int[] weight, boolean undirected) {
+        return fromEdges(n, from, to, weight, from.length, undirected, null, null);
+    }
+
+    /**
+     * Returns the number of (directed) edges.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numEdges() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the out-degree of v.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Returns the rounded-down Euclidean distance to target as an A* heuristic.
+     * It is consistent whenever every edge weighs at least the Euclidean
+     * length of the edge, as in roadLike graphs.
+     *
+     * pre: the graph has coordinates
+     *
+     */
+    public IntUnaryOperator euclideanHeuristic(int target) {
+        if (xs == null) {
+            throw new IllegalStateException("the graph has no coordinates");
+        }
+        int tx = xs[target];
+        int ty = ys[target];
+        return v -> euclidean(xs[v] - tx, ys[v] - ty);
+    }
+
+    /**
+     * Generates a road-like undirected graph: a width x height grid of
+     * jittered intersections where about 10% of the streets are missing and
+     * about 5% of the blocks have a diagonal street. Every street weighs its
+     * Euclidean length times a random detour factor between 1 and 1.5.
+     *
+     * Time Complexity (WC): O(width * height)
+     */
+    public static CsrGraph roadLike(int width, int height, Random rand) {
+        int n = width * height;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                xs[r * width + c] = c * 100 + rand.nextInt(40);
+                ys[r * width + c] = r * 100 + rand.nextInt(40);
+            }
+        }
+        int maxEdges = 3 * n;
+        int[] from = new int[maxEdges];
+        int[] to = new int[maxEdges];
+        int[] weight = new int[maxEdges];
+        int m = 0;
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                int v = r * width + c;
+                if (c + 1 < width && rand.nextInt(10) != 0) {
+                    m = addStreet(v, v + 1, xs, ys, rand, from, to, weight, m);
+                }
+                if (r + 1 < height && rand.nextInt(10) != 0) {
+                    m = addStreet(v, v + width, xs, ys, rand, from, to, weight, m);
+                }
+                if (c + 1 < width && r + 1 < height && rand.nextInt(20) == 0) {
+                    m = addStreet(v, v + width + 1, xs, ys, rand, from, to, weight, m);
+                }
+            }
+        }
+        return fromEdges(n, from, to, weight, m, true, xs, ys);
+    }
+
+    /**
+     * Generates a connected random undirected graph with about n * avgDegree
+     * directed edges: a random Hamiltonian path plus uniformly random edges,
+     * with weights uniform in 1 .. maxWeight.
+     *
+     * pre: n >= 1, avgDegree >= 2, maxWeight >= 1
+     *
+     * Time Complexity (WC): O(n * avgDegree)
+     */
+    public static CsrGraph random(int n, int avgDegree, int maxWeight, Random rand) {
+        int m = n * avgDegree / 2;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+        for (int i = 0; i < m; i++) {
+            if (i < n - 1) {
+                from[i] = order[i];
+                to[i] = order[i + 1];
+            } else {
+                from[i] = rand.nextInt(n);
+                to[i] = rand.nextInt(n);
+            }
+            weight[i] = 1 + rand.nextInt(maxWeight);
+        }
+        return fromEdges(n, from, to, weight, m, true, null, null);
+    }
+
+    /**
+     * Adds the street u - v to the edge list at index m and returns m + 1.
+     *
+     */
+    private static int addStreet(int u, int v, int[] xs, int[] ys, Random rand,
+                                 int[] from, int[] to, int[] weight, int m) {
+        double length = Math.sqrt(square(xs[u] - xs[v]) + square(ys[u] - ys[v]));
+        from[m] = u;
+        to[m] = v;
+        weight[m] = (int) Math.ceil(length * (1.0 + 0.5 * rand.nextDouble()));
+        return m + 1;
+    }
+
+    /**
+     * Counting-sort construction from the first m entries of an edge list.
+     *
+     * Time Complexity (WC): O(n + m)
+     */
+    private static CsrGraph fromEdges(int n, int[] from, int[] to, int[] weight, int m,
+                                      boolean undirected, int[] xs, int[] ys) {
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[from[i] + 1]++;
+            if (undirected) {
+                offsets[to[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] fill = new int[n];
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int i = 0; i < m; i++) {
+            int e = offsets[from[i]] + fill[from[i]]++;
+            targets[e] = to[i];
+            weights[e] = weight[i];
+            if (undirected) {
+                e = offsets[to[i]] + fill[to[i]]++;
+                targets[e] = from[i];
+                weights[e] = weight[i];
+            }
+        }
+        return new CsrGraph(offsets, targets, weights, xs, ys);
+    }
+
+    private static double square(int d) {
+        return (double) d * d;
+    }
+
+    private static int euclidean(int dx, int dy) {
+        return (int) Math.sqrt(square(dx) + square(dy));
+    }
+}
@@ -0,0 +1,350 @@
+import java.util.Arrays;
+
+/**
+ * DaryHeap
+ *
+ * An implicit d-ary min-heap over positive integers stored in arrays, for
+ * workloads that never meld. The keys live in heap order in a plain int[],
+ * so sifting only touches that array and the slot-to-item index. Every item
+ * gets an id, and pos[id] is its current slot, which makes decreaseKey and
+ * delete on a HeapItem O(log_d n).
+ *
+ * Every parent/child exchange during sifting counts as one heapify cost,
+ * like Heap.swapWithParent. There are no links or cuts.
+ *
+ */
+public class DaryHeap<V> implements MeldableHeap<V> {
+    public static final int DEFAULT_ARITY = 4;
+    private static final int INITIAL_CAPACITY = 16;
+
+    public final int d;
+    public int size;
+    public long totalHeapifyCosts;
+
+    private int[] keys;               // keys[i] = key of the item in slot i
+    private int[] slotIds;            // slotIds[i] = id of the item in slot i
+    private int[] pos;                // pos[id] = slot of item id, or -1 if the id is free
+    private DaryItem<V>[] items;      // items[id] = item with that id
+    private int[] freeIds;            // stack of ids of deleted items
+    private int numFreeIds;
+    private int nextId;               // ids below nextId have been handed out
+
+    /**
+     * Constructor to initialize an empty 4-ary heap.
+     *
+     */
+    public DaryHeap() {
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * Constructor to initialize an empty d-ary heap.
+     *
+     * pre: d >= 2
+     *
+     */
+    public DaryHeap(int d) {
+        if (d < 2) {
+            throw new IllegalArgumentException("d must be at least 2: " + d);
+        }
+        this.d = d;
+        this.size = 0;
+        this.totalHeapifyCosts = 0;
+        this.keys = new int[INITIAL_CAPACITY];
+        this.slotIds = new int[INITIAL_CAPACITY];
+        this.pos = new int[INITIAL_CAPACITY];
+        this.items = newItemArray(INITIAL_CAPACITY);
+        this.freeIds = new int[INITIAL_CAPACITY];
+        this.numFreeIds = 0;
+        this.nextId = 0;
+    }
+
+    /**
+     * Inserts a new item with the given key and info into the heap and returns it.
+     *
+     * pre: key > 0
+     *
+     * Time Complexity (WC): O(log_d n), amortized because of array growth
+     */
+    public Heap.HeapItem<V> insert(int key, V info) {
+        DaryItem<V> item = new DaryItem<>(key, info);
+        add(item);
+        siftUp(size - 1);
+        return item;
+    }
+
+    /**
+     * Returns the minimal item, or null if the heap is empty.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public Heap.HeapItem<V> findMin() {
+        return size == 0 ? null : items[slotIds[0]];
+    }
+
+    /**
+     * Deletes the minimal item from the heap.
+     *
+     * Time Complexity (WC): O(d log_d n)
+     */
+    public void deleteMin() {
+        if (size > 0) {
+            removeSlot(0);
+        }
+    }
+
+    /**
+     * Decreases the key of x by diff and sifts it up.
+     * Returns false and does nothing if x was already deleted.
+     *
+     * pre: 0<=diff<=x.key
+     *
+     * Time Complexity (WC): O(log_d n)
+     */
+    public boolean decreaseKey(Heap.HeapItem<V> x, int diff) {
+        if (!contains(x)) {
+            return false;
+        }
+        x.key = x.key - diff;
+        int slot = pos[((DaryItem<V>) x).id];
+        keys[slot] = x.key;
+        siftUp(slot);
+        return true;
+    }
+
+    /**
+     * Deletes x from the heap. Returns false and does nothing if x was already deleted.
+     *
+     * Time Complexity (WC): O(d log_d n)
+     */
+    public boolean delete(Heap.HeapItem<V> x) {
+        if (!contains(x)) {
+            return false;
+        }
+        removeSlot(pos[((DaryItem<V>) x).id]);
+        return true;
+    }
+
+    /**
+     * Returns true if x is currently in the heap, false if it was deleted.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean contains(Heap.HeapItem<V> x) {
+        if (!(x instanceof DaryItem)) {
+            return false;
+        }
+        int id = ((DaryItem<V>) x).id;
+        return id >= 0 && id < nextId && items[id] == x && pos[id] >= 0;
+    }
+
+    /**
+     * Melds heap2, which must be a DaryHeap, into this heap by appending its
+     * items and rebuilding the heap bottom-up. heap2 is left empty.
+     *
+     * Time Complexity (WC): O(n + m)
+     */
+    public void meld(MeldableHeap<V> heap2) {
+        DaryHeap<V> other = (DaryHeap<V>) heap2;
+        if (other == null || other.size == 0) {
+            return;
+        }
+        for (int i = 0; i < other.size; i++) {
+            add(other.items[other.slotIds[i]]);
+        }
+        totalHeapifyCosts += other.totalHeapifyCosts;
+        other.clear();
+
+        // bottom-up heap construction
+        for (int i = (size - 2) / d; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of trees in the heap (1, or 0 if it is empty).
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numTrees() {
+        return size == 0 ? 0 : 1;
+    }
+
+    /**
+     * Returns 0, as an array heap never links.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalLinks() {
+        return 0;
+    }
+
+    /**
+     * Returns 0, as an array heap never cuts.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalCuts() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of parent/child exchanges performed so far.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalHeapifyCosts() {
+        return totalHeapifyCosts;
+    }
+
+    /**
+     * Gives item a free id and puts it in the slot after the last one.
+     *
+     * Time Complexity (WC): O(1), amortized because of array growth
+     */
+    private void add(DaryItem<V> item) {
+        int id;
+        if (numFreeIds > 0) {
+            id = freeIds[--numFreeIds];
+        } else {
+            if (nextId == items.length) {
+                int capacity = 2 * nextId;
+                pos = Arrays.copyOf(pos, capacity);
+                items = Arrays.copyOf(items, capacity);
+                freeIds = Arrays.copyOf(freeIds, capacity);
+            }
+            id = nextId++;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            slotIds = Arrays.copyOf(slotIds, 2 * size);
+        }
+        item.id = id;
+        items[id] = item;
+        keys[size] = item.key;
+        slotIds[size] = id;
+        pos[id] = size;
+        size++;
+    }
+
+    /**
+     * Removes the item in the given slot, filling it with the last item.
+     *
+     * Time Complexity (WC): O(d log_d n)
+     */
+    private void removeSlot(int slot) {
+        int id = slotIds[slot];
+        pos[id] = -1;
+        items[id] = null;
+        freeIds[numFreeIds++] = id;
+
+        size--;
+        if (slot == size) {
+            return;
+        }
+        keys[slot] = keys[size];
+        slotIds[slot] = slotIds[size];
+        pos[slotIds[slot]] = slot;
+        if (slot > 0 && keys[slot] < keys[(slot - 1) / d]) {
+            siftUp(slot);
+        } else {
+            siftDown(slot);
+        }
+    }
+
+    /**
+     * Moves the item in slot up while its key is smaller than its parent's.
+     *
+     * Time Complexity (WC): O(log_d n)
+     */
+    private void siftUp(int slot) {
+        int key = keys[slot];
+        int id = slotIds[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) / d;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[slot] = keys[parent];
+            slotIds[slot] = slotIds[parent];
+            pos[slotIds[slot]] = slot;
+            totalHeapifyCosts++;
+            slot = parent;
+        }
+        keys[slot] = key;
+        slotIds[slot] = id;
+        pos[id] = slot;
+    }
+
+    /**
+     * Moves the item in slot down while one of its children has a smaller key.
+     *
+     * Time Complexity (WC): O(d log_d n)
+     */
+    private void siftDown(int slot) {
+        int key = keys[slot];
+        int id = slotIds[slot];
+        while (true) {
+            int first = d * slot + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + d, size);
+            int best = first;
+            for (int c = first + 1; c < last; c++) {
+                if (keys[c] < keys[best]) {
+                    best = c;
+                }
+            }
+            if (keys[best] >= key) {
+                break;
+            }
+            keys[slot] = keys[best];
+            slotIds[slot] = slotIds[best];
+            pos[slotIds[slot]] = slot;
+            totalHeapifyCosts++;
+            slot = best;
+        }
+        keys[slot] = key;
+        slotIds[slot] = id;
+        pos[id] = slot;
+    }
+
+    /**
+     * Empties the heap, forgetting all items.
+     *
+     */
+    private void clear() {
+        Arrays.fill(items, 0, nextId, null);
+        size = 0;
+        numFreeIds = 0;
+        nextId = 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> DaryItem<V>[] newItemArray(int length) {
+        return (DaryItem<V>[]) new DaryItem[length];
+    }
+
+    /**
+     * An item that remembers its id in the heap's position index.
+     *
+     */
+    private static final class DaryItem<V> extends Heap.HeapItem<V> {
+        int id;
+
+        DaryItem(int key, V info) {
+            super(key, info);
+            this.id = -1;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * DoubleHeap
+ *
+ * Heap specialized for double keys, such as path costs.
+ * Same structure and lazyMelds / lazyDecreaseKeys configurations as Heap
+ * (the heap code is in KeyedHeap), with keys compared as primitives so link
+ * and heapifyUp never box. -0.0 and 0.0 are equal keys.
+ *
+ */
+public class DoubleHeap<V> extends KeyedHeap<DoubleHeap.HeapItem<V>> {
+
+    /**
+     * Constructor to initialize an empty heap.
+     *
+     */
+    public DoubleHeap(boolean lazyMelds, boolean lazyDecreaseKeys) {
+        super(lazyMelds, lazyDecreaseKeys);
+    }
+
+    /**
+     * Inserts a new item with the given key and info into the heap and returns it.
+     *
+     * pre: key is not NaN
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(logn) otherwise
+     */
+    public HeapItem<V> insert(double key, V info) {
+        HeapItem<V> nodeitem = new HeapItem<>(key, info);
+        insertItem(nodeitem);
+        return nodeitem;
+    }
+
+    /**
+     * Decreases the key of x by diff and fixes the heap.
+     * Does nothing if x was already deleted.
+     *
+     * pre: diff >= 0
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    public void decreaseKey(HeapItem<V> x, double diff) {
+        if (!contains(x)) {
+            return;
+        }
+        x.key = x.key - diff;
+        keyDecreased(x);
+    }
+
+    /**
+     * Melds the current heap with heap2. heap2 must not be used afterwards.
+     *
+     * pre: heap2.lazyMelds = this.lazyMelds AND heap2.lazyDecreaseKeys = this.lazyDecreaseKeys
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
+     */
+    public void meld(DoubleHeap<V> heap2) {
+        meldHeap(heap2);
+    }
+
+    @Override
+    protected boolean less(HeapItem<V> a, HeapItem<V> b) {
+        return a.key < b.key;
+    }
+
+    /**
+     * Class implementing an item in a DoubleHeap.
+     *
+     */
+    public static class HeapItem<V> extends KeyedHeap.Item<HeapItem<V>> {
+        public double key;
+        public V info;
+
+        public HeapItem(double key, V info) {
+            this.key = key;
+            this.info = info;
+            this.node = null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.Comparator;
+
+/**
+ * GenericHeap
+ *
+ * Heap over keys of any type, ordered by a Comparator (or by their natural
+ * ordering). Same structure and lazyMelds / lazyDecreaseKeys configurations
+ * as Heap (the heap code is in KeyedHeap). For long or double keys use
+ * LongHeap or DoubleHeap, which avoid boxing.
+ *
+ */
+public class GenericHeap<K, V> extends KeyedHeap<GenericHeap.HeapItem<K, V>> {
+    public final Comparator<? super K> comparator;
+
+    /**
+     * Returns an empty heap ordered by the natural ordering of K.
+     *
+     */
+    public static <K extends Comparable<? super K>, V> GenericHeap<K, V> naturalOrder(boolean lazyMelds,
+            boolean lazyDecreaseKeys) {
+        return new GenericHeap<>(lazyMelds, lazyDecreaseKeys, Comparator.naturalOrder());
+    }
+
+    /**
+     * Constructor to initialize an empty heap ordered by comparator.
+     *
+     */
+    public GenericHeap(boolean lazyMelds, boolean lazyDecreaseKeys, Comparator<? super K> comparator) {
+        super(lazyMelds, lazyDecreaseKeys);
+        this.comparator = comparator;
+    }
+
+    /**
+     * Inserts a new item with the given key and info into the heap and returns it.
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(logn) otherwise
+     */
+    public HeapItem<K, V> insert(K key, V info) {
+        HeapItem<K, V> nodeitem = new HeapItem<>(key, info);
+        insertItem(nodeitem);
+        return nodeitem;
+    }
+
+    /**
+     * Decreases the key of x to newKey and fixes the heap.
+     * Does nothing if x was already deleted.
+     *
+     * pre: newKey is not greater than x.key
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    public void decreaseKey(HeapItem<K, V> x, K newKey) {
+        if (!contains(x)) {
+            return;
+        }
+        x.key = newKey;
+        keyDecreased(x);
+    }
+
+    /**
+     * Melds the current heap with heap2. heap2 must not be used afterwards.
+     *
+     * pre: heap2.lazyMelds = this.lazyMelds AND heap2.lazyDecreaseKeys = this.lazyDecreaseKeys
+     *      AND heap2 orders keys the same way
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
+     */
+    public void meld(GenericHeap<K, V> heap2) {
+        meldHeap(heap2);
+    }
+
+    @Override
+    protected boolean less(HeapItem<K, V> a, HeapItem<K, V> b) {
+        return comparator.compare(a.key, b.key) < 0;
+    }
+
+    /**
+     * Class implementing an item in a GenericHeap.
+     *
+     */
+    public static class HeapItem<K, V> extends KeyedHeap.Item<HeapItem<K, V>> {
+        public K key;
+        public V info;
+
+        public HeapItem(K key, V info) {
+            this.key = key;
+            this.info = info;
+            this.node = null;
+        }
+    }
+}
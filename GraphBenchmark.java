@@ -0,0 +1,192 @@
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Graph benchmark for the heap implementations
+ * Runs Dijkstra, A* and Prim (GraphSearch) on generated road-like and random
+ * graphs of growing size with every heap type of HeapExperimentRunner, plus
+ * the monotone RadixHeap for Dijkstra and A*
+ */
+public class GraphBenchmark {
+
+    // Experimental constants
+    private static final int[] ROAD_SIDES = {100, 316, 1000};        // road grids of side x side vertices
+    private static final int[] RANDOM_SIZES = {10000, 100000, 1000000};
+    private static final int RANDOM_DEGREE = 8;
+    private static final int RANDOM_MAX_WEIGHT = 1000;
+    private static final int NUM_ITERATIONS = 3;
+
+    // heap type after the HeapExperimentRunner types
+    private static final int RADIX = HeapExperimentRunner.NUM_HEAP_TYPES;
+    private static final int NUM_HEAP_TYPES = HeapExperimentRunner.NUM_HEAP_TYPES + 1;
+
+    /**
+     * Result class to store metrics from each run
+     */
+    private static class BenchmarkResult {
+        long dijkstraTime;
+        long aStarTime;
+        long primTime;
+        long totalLinks;
+        long totalCuts;
+        long distanceSum;   // sum of the Dijkstra distances plus the A* distance, equal for all heaps
+        long treeWeight;    // weight of the minimum spanning forest, equal for all heaps that run Prim
+
+        public void add(BenchmarkResult other) {
+            this.dijkstraTime += other.dijkstraTime;
+            this.aStarTime += other.aStarTime;
+            this.primTime += other.primTime;
+            this.totalLinks += other.totalLinks;
+            this.totalCuts += other.totalCuts;
+            this.distanceSum = other.distanceSum;
+            this.treeWeight = other.treeWeight;
+        }
+
+        public void divideBy(int divisor) {
+            this.dijkstraTime /= divisor;
+            this.aStarTime /= divisor;
+            this.primTime /= divisor;
+            this.totalLinks /= divisor;
+            this.totalCuts /= divisor;
+        }
+    }
+
+    /**
+     * Creates a search engine on a fresh heap of the given type for every run
+     */
+    private static GraphSearch newSearch(int heapType) {
+        if (heapType == RADIX) {
+            return new GraphSearch(RadixHeap::new);
+        }
+        return new GraphSearch(() -> HeapExperimentRunner.<Integer>newHeap(heapType));
+    }
+
+    private static String heapName(int heapType) {
+        return heapType == RADIX ? "Radix (monotone)" : HeapExperimentRunner.HEAP_NAMES[heapType];
+    }
+
+    /**
+     * Dijkstra from vertex 0, A* from vertex 0 to the last vertex (road graphs
+     * only) and Prim (not with the monotone radix heap). Times are in ms.
+     */
+    private static BenchmarkResult runBenchmark(int heapType, CsrGraph g) {
+        BenchmarkResult result = new BenchmarkResult();
+        GraphSearch search = newSearch(heapType);
+
+        long startTime = System.nanoTime();
+        search.dijkstra(g, 0);
+        result.dijkstraTime = (System.nanoTime() - startTime) / 1000000;
+        result.totalLinks += search.heap.totalLinks();
+        result.totalCuts += search.heap.totalCuts();
+        for (int v = 0; v < g.n; v++) {
+            if (search.dist[v] != GraphSearch.UNREACHABLE) {
+                result.distanceSum += search.dist[v];
+            }
+        }
+
+        if (g.xs != null) {
+            IntUnaryOperator heuristic = g.euclideanHeuristic(g.n - 1);
+            startTime = System.nanoTime();
+            int d = search.aStar(g, 0, g.n - 1, heuristic);
+            result.aStarTime = (System.nanoTime() - startTime) / 1000000;
+            result.distanceSum += d;
+        } else {
+            result.aStarTime = -1;
+        }
+
+        if (heapType != RADIX) {
+            startTime = System.nanoTime();
+            result.treeWeight = search.prim(g);
+            result.primTime = (System.nanoTime() - startTime) / 1000000;
+            result.totalLinks += search.heap.totalLinks();
+            result.totalCuts += search.heap.totalCuts();
+        } else {
+            result.primTime = -1;
+        }
+        return result;
+    }
+
+    /**
+     * Print formatted table header
+     */
+    private static void printTableHeader() {
+        printTableFooter();
+        System.out.printf("| %-20s | %-13s | %-13s | %-13s | %-14s | %-14s |%n",
+                         "Heap Type", "Dijkstra (ms)", "A* (ms)", "Prim (ms)", "Total Links", "Total Cuts");
+        printTableFooter();
+    }
+
+    /**
+     * Print a result row, with n/a for the algorithms that were not run
+     */
+    private static void printResultRow(String heapName, BenchmarkResult result) {
+        System.out.printf("| %-20s | %13d | %13s | %13s | %14d | %14d |%n",
+                         heapName, result.dijkstraTime,
+                         result.aStarTime < 0 ? "n/a" : Long.toString(result.aStarTime),
+                         result.primTime < 0 ? "n/a" : Long.toString(result.primTime),
+                         result.totalLinks, result.totalCuts);
+    }
+
+    /**
+     * Print table footer
+     */
+    private static void printTableFooter() {
+        System.out.println("+" + "-".repeat(22) + "+" + "-".repeat(15) + "+" + "-".repeat(15) + "+"
+                         + "-".repeat(15) + "+" + "-".repeat(16) + "+" + "-".repeat(16) + "+");
+    }
+
+    /**
+     * Runs every heap type NUM_ITERATIONS times on g and prints the averages
+     */
+    private static void runGraph(String title, CsrGraph g) {
+        System.out.println();
+        System.out.println("*".repeat(104));
+        System.out.println(title + ": n = " + g.n + ", m = " + g.numEdges());
+        System.out.println("*".repeat(104));
+
+        BenchmarkResult[] avgResults = new BenchmarkResult[NUM_HEAP_TYPES];
+        for (int i = 0; i < NUM_HEAP_TYPES; i++) {
+            avgResults[i] = new BenchmarkResult();
+        }
+        for (int iter = 0; iter < NUM_ITERATIONS; iter++) {
+            for (int heapType = 0; heapType < NUM_HEAP_TYPES; heapType++) {
+                avgResults[heapType].add(runBenchmark(heapType, g));
+            }
+        }
+        printTableHeader();
+        for (int heapType = 0; heapType < NUM_HEAP_TYPES; heapType++) {
+            avgResults[heapType].divideBy(NUM_ITERATIONS);
+            printResultRow(heapName(heapType), avgResults[heapType]);
+        }
+        printTableFooter();
+
+        for (int heapType = 1; heapType < NUM_HEAP_TYPES; heapType++) {
+            if (avgResults[heapType].distanceSum != avgResults[0].distanceSum
+                    || (heapType != RADIX && avgResults[heapType].treeWeight != avgResults[0].treeWeight)) {
+                System.out.println("  WARNING: " + heapName(heapType) + " computed different results");
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        Random rand = new Random(); // Random seed for different graphs each run
+
+        System.out.println("=".repeat(104));
+        System.out.println("GRAPH BENCHMARK (Dijkstra, A*, Prim)");
+        System.out.println("Iterations = " + NUM_ITERATIONS);
+        System.out.println("=".repeat(104));
+
+        for (int side : ROAD_SIDES) {
+            runGraph("ROAD-LIKE GRID " + side + " x " + side, CsrGraph.roadLike(side, side, rand));
+        }
+        for (int n : RANDOM_SIZES) {
+            runGraph("RANDOM GRAPH, average degree " + RANDOM_DEGREE,
+                     CsrGraph.random(n, RANDOM_DEGREE, RANDOM_MAX_WEIGHT, rand));
+        }
+
+        System.out.println();
+        System.out.println("=".repeat(104));
+        System.out.println("All benchmarks completed!");
+        System.out.println("=".repeat(104));
+    }
+}
@@ -0,0 +1,187 @@
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * GraphSearch
+ *
+ * Dijkstra, A* and Prim over a CsrGraph on top of any MeldableHeap backend.
+ * The engine keeps its per-vertex arrays between runs: dist and parent hold
+ * the result of the last run, and items[v] is the heap handle of vertex v,
+ * so relaxing an edge is a table lookup plus decreaseKey and allocates
+ * nothing. The heap only allocates on the first insert of each vertex.
+ *
+ * The heaps take positive keys, so every key is the distance (or, for Prim,
+ * the edge weight) plus one. The heap of the last run is kept in heap for
+ * its link, cut and heapify counters.
+ *
+ */
+public class GraphSearch {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    public static final int NO_PARENT = -1;
+
+    public int[] dist;      // distance from the source, or weight of the edge to the parent for prim
+    public int[] parent;    // previous vertex on the path or tree edge, NO_PARENT for roots and unreached vertices
+    public int settled;     // vertices taken out of the heap in the last run
+    public MeldableHeap<Integer> heap;
+
+    private final Supplier<? extends MeldableHeap<Integer>> heapFactory;
+    private Heap.HeapItem<Integer>[] items;
+    private Integer[] vertices;     // boxed vertex ids, the info of the heap items
+
+    /**
+     * Constructor for an engine that takes a fresh heap from heapFactory for every run.
+     *
+     */
+    public GraphSearch(Supplier<? extends MeldableHeap<Integer>> heapFactory) {
+        this.heapFactory = heapFactory;
+        this.dist = new int[0];
+        this.parent = new int[0];
+        this.settled = 0;
+        this.heap = null;
+        this.items = newItemArray(0);
+        this.vertices = new Integer[0];
+    }
+
+    /**
+     * Computes the shortest distances from source to all vertices into dist,
+     * with UNREACHABLE for vertices that cannot be reached.
+     *
+     * pre: all distances fit in an int
+     *
+     * Time Complexity (WC): O(n + m) heap operations
+     */
+    public void dijkstra(CsrGraph g, int source) {
+        search(g, source, NO_PARENT, null);
+    }
+
+    /**
+     * Computes the shortest distance from source to target with A* and the
+     * given heuristic, and returns it (UNREACHABLE if there is no path). The
+     * search stops as soon as target leaves the heap; dist is exact for the
+     * settled vertices only.
+     *
+     * pre: heuristic is consistent (h(u) <= w(u, v) + h(v)) and h(target) = 0
+     *
+     * Time Complexity (WC): O(n + m) heap operations
+     */
+    public int aStar(CsrGraph g, int source, int target, IntUnaryOperator heuristic) {
+        search(g, source, target, heuristic);
+        return dist[target];
+    }
+
+    /**
+     * Computes a minimum spanning forest with Prim's algorithm, started from
+     * every vertex not yet in a tree, and returns its total weight. parent[v]
+     * is the tree neighbour of v and dist[v] the weight of that edge (0 for
+     * the root of every tree).
+     *
+     * pre: g is undirected AND the heap accepts keys below its last minimum
+     *      (not a RadixHeap)
+     *
+     * Time Complexity (WC): O(n + m) heap operations
+     */
+    public long prim(CsrGraph g) {
+        prepare(g.n);
+        MeldableHeap<Integer> h = heapFactory.get();
+        heap = h;
+        long total = 0;
+        for (int root = 0; root < g.n; root++) {
+            if (items[root] != null) {
+                continue; // already in a tree
+            }
+            dist[root] = 0;
+            items[root] = h.insert(1, vertices[root]);
+            while (h.size() > 0) {
+                int u = h.findMin().info;
+                h.deleteMin();
+                settled++;
+                total += dist[u];
+                for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                    int v = g.targets[e];
+                    int w = g.weights[e];
+                    Heap.HeapItem<Integer> x = items[v];
+                    if (x == null) {
+                        dist[v] = w;
+                        parent[v] = u;
+                        items[v] = h.insert(w + 1, vertices[v]);
+                    } else if (w < dist[v] && h.contains(x)) {
+                        h.decreaseKey(x, dist[v] - w);
+                        dist[v] = w;
+                        parent[v] = u;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Dijkstra from source, ordered by distance plus heuristic if one is given,
+     * stopping when target (if not NO_PARENT) is settled. Vertices are settled
+     * at their final distance because the heuristic is consistent, so an edge
+     * never improves a settled vertex.
+     *
+     */
+    private void search(CsrGraph g, int source, int target, IntUnaryOperator heuristic) {
+        prepare(g.n);
+        MeldableHeap<Integer> h = heapFactory.get();
+        heap = h;
+        dist[source] = 0;
+        items[source] = h.insert(estimate(heuristic, source) + 1, vertices[source]);
+        while (h.size() > 0) {
+            int u = h.findMin().info;
+            h.deleteMin();
+            settled++;
+            if (u == target) {
+                return;
+            }
+            int du = dist[u];
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int v = g.targets[e];
+                int d = du + g.weights[e];
+                if (d >= dist[v]) {
+                    continue;
+                }
+                if (dist[v] == UNREACHABLE) {
+                    items[v] = h.insert(d + estimate(heuristic, v) + 1, vertices[v]);
+                } else {
+                    h.decreaseKey(items[v], dist[v] - d); // the heuristic part of the key stays the same
+                }
+                dist[v] = d;
+                parent[v] = u;
+            }
+        }
+    }
+
+    private static int estimate(IntUnaryOperator heuristic, int v) {
+        return heuristic == null ? 0 : heuristic.applyAsInt(v);
+    }
+
+    /**
+     * Resets the per-vertex arrays for a run on n vertices, growing them if needed.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    private void prepare(int n) {
+        if (dist.length < n) {
+            dist = new int[n];
+            parent = new int[n];
+            items = newItemArray(n);
+            int old = vertices.length;
+            vertices = Arrays.copyOf(vertices, n);
+            for (int v = old; v < n; v++) {
+                vertices[v] = v;
+            }
+        }
+        Arrays.fill(dist, 0, n, UNREACHABLE);
+        Arrays.fill(parent, 0, n, NO_PARENT);
+        Arrays.fill(items, 0, n, null);
+        settled = 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Heap.HeapItem<Integer>[] newItemArray(int length) {
+        return (Heap.HeapItem<Integer>[]) new Heap.HeapItem[length];
+    }
+}
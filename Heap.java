@@ -1,3 +1,7 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 /**
  * Heap
  *
@@ -9,18 +13,70 @@
 //name1: Amit Kacen
 //name2: Dan Remeniuk
 
-public class Heap {
+public class Heap<V> implements MeldableHeap<V> {
     public final boolean lazyMelds;
     public final boolean lazyDecreaseKeys;
-    public HeapItem min;
-    public HeapItem head;
-    public HeapItem last;
+    public HeapItem<V> min;
+    public HeapItem<V> head;
+    public HeapItem<V> last;
     public int size;
     public int numTrees;
     public int numMarkedNodes;
-    public int totalLinks;
-    public int totalCuts;
-    public int totalHeapifyCosts;
+    public long totalLinks;
+    public long totalCuts;
+    public long totalHeapifyCosts;
+    public int maxCascadeLength;
+
+    private static final double PHI = (1.0 + Math.sqrt(5.0)) / 2.0;
+    private static final double LOG_PHI = Math.log(PHI);
+
+    // scratch array for succesiveLinking, reused between consolidations
+    private HeapNode<V>[] bucket;
+    private long bucketMaxSize; // largest size the current bucket array is guaranteed to fit
+    private int maxBucketRank;  // highest slot touched by the last toBucket
+
+    // root lists at least this long are consolidated in parallel chunks (off without spare cores)
+    public static final int DEFAULT_PARALLEL_CONSOLIDATION_THRESHOLD =
+            ForkJoinPool.getCommonPoolParallelism() > 1 ? 1 << 17 : Integer.MAX_VALUE;
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 13;
+    private int parallelConsolidationThreshold;
+
+    // incremental consolidation: the root list is the settled roots (exactly the
+    // non-null bucket slots, distinct ranks) followed by the pending roots from pendingStart
+    private int incrementalSteps;       // link/placement steps per operation, 0 = off
+    private HeapNode<V> pendingStart;   // first root not yet in the bucket, or null
+
+    // proactive consolidation: consolidate once numTrees exceeds proactiveLimit,
+    // c * log_phi(n) as of the last consolidation (Integer.MAX_VALUE = off)
+    private double proactiveFactor;     // c, 0 = off
+    private int proactiveLimit;
+
+    // scratch binary heap of candidate roots for deleteMinBatch, reused between calls
+    private HeapNode<V>[] candidates;
+    private int numCandidates;
+
+    // recycled nodes of deleted items, linked through next
+    public static final int DEFAULT_NODE_POOL_CAPACITY = 1024;
+    private HeapNode<V> nodePool;
+    private int nodePoolSize;
+    private int nodePoolCapacity;
+    public long nodePoolHits;
+    public long nodePoolMisses;
+
+    // per-operation instrumentation (setInstrumentation): histograms indexed by OP_*, null while off
+    public static final int OP_INSERT = 0;
+    public static final int OP_DELETE_MIN = 1;
+    public static final int OP_DECREASE_KEY = 2;
+    public static final int OP_DELETE = 3;
+    public static final int OP_MELD = 4;
+    private static final int NUM_OPS = 5;
+    private LogHistogram[] latencyHistograms; // wall time in ns
+    private LogHistogram[] costHistograms;    // links + cuts + heapify swaps
+    private long opStartTime;
+    private long opStartCost;
+
+    // receives link, cut and consolidation events (setObserver)
+    private HeapObserver observer;
 
     /**
      * Constructor to initialize an empty heap.
@@ -38,42 +94,175 @@ public class Heap {
         this.totalLinks = 0;
         this.totalCuts = 0;
         this.totalHeapifyCosts = 0;
+        this.maxCascadeLength = 0;
+        this.bucket = null;
+        this.bucketMaxSize = 0;
+        this.maxBucketRank = -1;
+        this.parallelConsolidationThreshold = DEFAULT_PARALLEL_CONSOLIDATION_THRESHOLD;
+        this.incrementalSteps = 0;
+        this.pendingStart = null;
+        this.proactiveFactor = 0;
+        this.proactiveLimit = Integer.MAX_VALUE;
+        this.candidates = null;
+        this.numCandidates = 0;
+        this.nodePool = null;
+        this.nodePoolSize = 0;
+        this.nodePoolCapacity = DEFAULT_NODE_POOL_CAPACITY;
+        this.nodePoolHits = 0;
+        this.nodePoolMisses = 0;
+        this.latencyHistograms = null;
+        this.costHistograms = null;
+        this.observer = HeapObserver.NONE;
     }
 
     /**
-     * Inserts a new item with the given key and info into the heap and returns the newly generated HeapNode.
+     * Inserts a new item with the given key and info into the heap and returns the newly generated HeapNode<V>.
      *
      * pre: key > 0
      *
      * Time Complexity (WC): O(1)
      */
-    public HeapItem insert(int key, String info) {
-        // create new node
-        HeapItem nodeitem = new HeapItem(key, info);
-        HeapNode node = new HeapNode(nodeitem, null, null, null, null, 0);
+    public HeapItem<V> insert(int key, V info) {
+        if (latencyHistograms != null) {
+            startOp();
+        }
+        HeapItem<V> nodeitem = newItem(key, info);
+        insertItem(nodeitem);
+        if (latencyHistograms != null) {
+            endOp(OP_INSERT);
+        }
+        return nodeitem;
+    }
+
+    /**
+     * Inserts an item created outside this heap (e.g. by another thread) that is
+     * not in any heap yet.
+     *
+     * pre: nodeitem.key > 0 AND nodeitem.node == null
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
+     */
+    void insertItem(HeapItem<V> nodeitem) {
+        int key = nodeitem.key;
+        // create new node, reusing a pooled one if possible
+        HeapNode<V> node = newNode(nodeitem);
         nodeitem.node = node;
         node.next = node;
         node.prev = node;
 
-        // create new heap with the node and meld
-        Heap heap2 = new Heap(this.lazyMelds, this.lazyDecreaseKeys);
-        heap2.min = nodeitem;
-        heap2.head = nodeitem;
-        heap2.last = nodeitem;
-        heap2.size = 1;
-        heap2.numTrees = 1;
+        // splice the node straight into the root list (same effect as melding a one-node heap)
+        size++;
+        addToRootList(node, node, 1);
 
-        this.meld(heap2);
-        return nodeitem;
+        // consolidate if not lazy melds (which also finds the new min), else just update min
+        if (!this.lazyMelds && numTrees > 1) {
+            succesiveLinking();
+        } else if (min == null || key < min.key) {
+            min = nodeitem;
+        }
+        if (incrementalSteps > 0) {
+            consolidateSteps(incrementalSteps);
+        }
+        consolidateIfLong();
+    }
+
+    /**
+     * Inserts keys[i] with info infos[i] for every i, linking all new nodes into
+     * the root list in one pass. Consolidates at most once (if not lazy melds).
+     *
+     * pre: all keys > 0 AND (infos == null OR infos.length >= keys.length)
+     *
+     * Time Complexity (WC): O(k) if lazyMelds is true, O(n + k) otherwise
+     */
+    public void insertAll(int[] keys, V[] infos) {
+        insertAll(keys, infos, null);
+    }
+
+    /**
+     * Same as insertAll(keys, infos), also storing the item of keys[i] in out[i]
+     * if out is not null.
+     *
+     * pre: all keys > 0 AND (infos == null OR infos.length >= keys.length)
+     *      AND (out == null OR out.length >= keys.length)
+     *
+     * Time Complexity (WC): O(k) if lazyMelds is true, O(n + k) otherwise
+     */
+    public void insertAll(int[] keys, V[] infos, HeapItem<V>[] out) {
+        if (keys.length == 0) {
+            return;
+        }
+
+        // build the new nodes as one circular list
+        HeapNode<V> first = null;
+        HeapNode<V> prev = null;
+        HeapItem<V> newMin = null;
+        for (int i = 0; i < keys.length; i++) {
+            HeapItem<V> nodeitem = newItem(keys[i], infos == null ? null : infos[i]);
+            HeapNode<V> node = newNode(nodeitem);
+            nodeitem.node = node;
+            if (first == null) {
+                first = node;
+            } else {
+                prev.next = node;
+                node.prev = prev;
+            }
+            prev = node;
+            if (newMin == null || nodeitem.key < newMin.key) {
+                newMin = nodeitem;
+            }
+            if (out != null) {
+                out[i] = nodeitem;
+            }
+        }
+        prev.next = first;
+        first.prev = prev;
 
+        // splice them in once
+        size += keys.length;
+        addToRootList(first, prev, keys.length);
+
+        // consolidate once if not lazy melds (which also finds the new min), else just update min
+        if (!this.lazyMelds && numTrees > 1) {
+            succesiveLinking();
+        } else if (min == null || newMin.key < min.key) {
+            min = newMin;
+        }
+        if (incrementalSteps > 0) {
+            consolidateSteps(incrementalSteps);
+        }
+        consolidateIfLong();
     }
 
     /**
-     * Returns the minimal HeapNode, or null if the heap is empty.
+     * Appends the circular list first..lastNode to the end of the root list.
+     * Does not touch size or min.
      *
      * Time Complexity (WC): O(1)
      */
-    public HeapItem findMin() {
+    private void addToRootList(HeapNode<V> first, HeapNode<V> lastNode, int trees) {
+        if (incrementalSteps > 0 && pendingStart == null) {
+            pendingStart = first; // new roots go to the end, so they are pending
+        }
+        if (head == null) {
+            head = first.item;
+            last = lastNode.item;
+            numTrees = trees;
+            return;
+        }
+        last.node.next = first;
+        lastNode.next = head.node;
+        head.node.prev = lastNode;
+        first.prev = last.node;
+        last = lastNode.item;
+        numTrees += trees;
+    }
+
+    /**
+     * Returns the minimal HeapNode<V>, or null if the heap is empty.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public HeapItem<V> findMin() {
         return min;
     }
 
@@ -82,11 +271,29 @@ public class Heap {
      *
      * Time Complexity (WC): O(logn), can be O(n) due to consolidation
      */
-    public void deleteMin() { // case 0 : empty heap
+    public void deleteMin() {
+        if (latencyHistograms == null) {
+            removeMin();
+            return;
+        }
+        startOp();
+        removeMin();
+        endOp(OP_DELETE_MIN);
+    }
+
+    /**
+     * Body of deleteMin, without instrumentation.
+     *
+     */
+    private void removeMin() { // case 0 : empty heap
         if (head == null) {
             return; // heap is empty
         }
         if (size == 1) {
+            if (incrementalSteps > 0) {
+                resetIncremental();
+            }
+            recycleNode(min.node);
             head = null;
             last = null;
             min = null;
@@ -94,7 +301,14 @@ public class Heap {
             numTrees = 0;
             return;
         }
-        HeapNode minNode = min.node;
+        HeapNode<V> minNode = min.node;
+        if (incrementalSteps > 0) {
+            if (minNode == pendingStart) {
+                pendingStart = last.node == minNode ? null : minNode.next;
+            } else if (isSettled(minNode)) {
+                bucket[minNode.rank] = null;
+            }
+        }
 
         // case 1 : only one tree
         if (numTrees == 1) {
@@ -116,9 +330,9 @@ public class Heap {
         this.min = null;
 
         // remove marked and parent pointer
-        HeapNode child = minNode.child;
+        HeapNode<V> child = minNode.child;
         if (child != null) {
-            HeapNode current = child;
+            HeapNode<V> current = child;
             do {
                 current.parent = null;
                 if (current.marked) {
@@ -128,37 +342,189 @@ public class Heap {
                 current = current.next;
             } while (current != child);
 
-            // create new heap with children and meld
-            Heap heap2 = new Heap(this.lazyMelds, this.lazyDecreaseKeys);
-            heap2.head = child.item;
-            heap2.last = child.prev.item;
-            heap2.size = 0; // not adding size in meld
-            heap2.min = null;
-            heap2.numTrees = minNode.rank;
-            meld(heap2);
+            // splice the children into the root list
+            addToRootList(child, child.prev, minNode.rank);
+        }
+        recycleNode(minNode);
+
+        if (incrementalSteps > 0) {
+            // bounded consolidation, then find the new min among O(logn) settled and the pending roots
+            consolidateSteps(incrementalSteps);
+            findMinRoot();
+            return;
         }
 
+        // consolidation also finds the new min
         succesiveLinking();
 
-        // update min
-        HeapNode current = head.node;
+    }
+
+    /**
+     * Deletes the min(k, size) smallest items from the heap and stores them in
+     * out[0..], smallest first. Returns the number of items deleted.
+     *
+     * The forest is consolidated once up front. The smallest items are then
+     * taken from a binary heap of candidate roots, where every deleted node
+     * adds its children as new candidates. The candidates left at the end are
+     * the new root list, which is consolidated once more.
+     *
+     * pre: out.length >= min(k, size)
+     *
+     * Time Complexity (WC): O(n) due to the first consolidation,
+     *                       O(logn + k logn) after a deleteMin
+     */
+    public int deleteMinBatch(int k, HeapItem<V>[] out) {
+        if (k > size) {
+            k = size;
+        }
+        if (k <= 0) {
+            return 0;
+        }
+        if (k == 1) {
+            out[0] = min;
+            removeMin();
+            return 1;
+        }
+
+        // one consolidation so the candidates start at O(logn) roots
+        succesiveLinking();
+
+        numCandidates = 0;
+        HeapNode<V> root = head.node;
         do {
-            if (min == null || current.item.key < min.key) {
-                min = current.item;
+            HeapNode<V> nextRoot = root.next;
+            pushCandidate(root);
+            root = nextRoot;
+        } while (root != head.node);
+
+        for (int i = 0; i < k; i++) {
+            HeapNode<V> m = popCandidate();
+            out[i] = m.item;
+
+            // promote the children of m to candidates
+            HeapNode<V> child = m.child;
+            if (child != null) {
+                HeapNode<V> current = child;
+                do {
+                    HeapNode<V> nextChild = current.next;
+                    current.parent = null;
+                    if (current.marked) {
+                        current.marked = false;
+                        numMarkedNodes--;
+                    }
+                    pushCandidate(current);
+                    current = nextChild;
+                } while (current != child);
+            }
+            recycleNode(m);
+        }
+        size -= k;
+
+        // the remaining candidates are the new roots
+        if (incrementalSteps > 0) {
+            resetIncremental();
+        }
+        head = null;
+        last = null;
+        min = null;
+        numTrees = 0;
+        for (int i = 0; i < numCandidates; i++) {
+            HeapNode<V> x = candidates[i];
+            candidates[i] = null;
+            x.next = x;
+            x.prev = x;
+            addToRootList(x, x, 1);
+        }
+        numCandidates = 0;
+        if (head == null) {
+            return k;
+        }
+
+        // consolidation also finds the new min
+        succesiveLinking();
+        return k;
+    }
+
+    /**
+     * Adds x to the candidate binary heap of deleteMinBatch.
+     *
+     * Time Complexity (WC): O(log c), amortized because of array growth
+     */
+    private void pushCandidate(HeapNode<V> x) {
+        if (candidates == null) {
+            candidates = newNodeArray(16);
+        } else if (numCandidates == candidates.length) {
+            candidates = Arrays.copyOf(candidates, numCandidates * 2);
+        }
+        int i = numCandidates++;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (candidates[parent].item.key <= x.item.key) {
+                break;
             }
-            current = current.next;
-        } while (current != head.node);
+            candidates[i] = candidates[parent];
+            i = parent;
+        }
+        candidates[i] = x;
+    }
 
+    /**
+     * Removes and returns the candidate with the smallest key.
+     *
+     * Time Complexity (WC): O(log c)
+     */
+    private HeapNode<V> popCandidate() {
+        HeapNode<V> top = candidates[0];
+        HeapNode<V> x = candidates[--numCandidates];
+        candidates[numCandidates] = null;
+        if (numCandidates > 0) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= numCandidates) {
+                    break;
+                }
+                if (child + 1 < numCandidates && candidates[child + 1].item.key < candidates[child].item.key) {
+                    child++;
+                }
+                if (x.item.key <= candidates[child].item.key) {
+                    break;
+                }
+                candidates[i] = candidates[child];
+                i = child;
+            }
+            candidates[i] = x;
+        }
+        return top;
     }
 
     /**
      * Decreases the key of x by diff and fixes the heap.
+     * Returns false and does nothing if x is no longer in the heap: it was
+     * deleted, or it is a stale handle whose node was recycled for a newer item.
      *
      * pre: 0<=diff<=x.key
      *
      * Time Complexity (WC): O(log n) 
      */
-    public void decreaseKey(HeapItem x, int diff) {
+    public boolean decreaseKey(HeapItem<V> x, int diff) {
+        if (latencyHistograms == null) {
+            return decrease(x, diff);
+        }
+        startOp();
+        boolean found = decrease(x, diff);
+        endOp(OP_DECREASE_KEY);
+        return found;
+    }
+
+    /**
+     * Body of decreaseKey, without instrumentation.
+     *
+     */
+    private boolean decrease(HeapItem<V> x, int diff) {
+        if (!contains(x)) {
+            return false; // stale item, its node may already belong to another item
+        }
         x.key = x.key - diff; // update key
         // update min if needed
         if (x.key < min.key) {
@@ -174,6 +540,21 @@ public class Heap {
         else {
             heapifyUp(x.node);
         }
+        if (incrementalSteps > 0) {
+            consolidateSteps(incrementalSteps); // settle the roots made by cuts
+        }
+        consolidateIfLong();
+        return true;
+    }
+
+    /**
+     * Returns true if x is currently in the heap, false if it was deleted.
+     * Deleted items lose their node, and a recycled node points to its new item.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean contains(HeapItem<V> x) {
+        return x != null && x.node != null && x.node.item == x;
     }
 
     /**
@@ -181,7 +562,7 @@ public class Heap {
      *
      * Time Complexity (WC): O(log n)
      */
-    private void heapifyUp(HeapNode node) {
+    private void heapifyUp(HeapNode<V> node) {
         // while node parent isnt root and node key < parent key do swap
         while (node.parent != null && node.item.key < node.parent.item.key) {
             swapWithParent(node);
@@ -199,8 +580,8 @@ public class Heap {
      *
      * Time Complexity (WC): O(1)
      */
-    private void swapWithParent(HeapNode child) {
-        HeapNode parent = child.parent;
+    private void swapWithParent(HeapNode<V> child) {
+        HeapNode<V> parent = child.parent;
 
         // nothing to do
         if (parent == null || child.item.key >= parent.item.key) {
@@ -208,11 +589,12 @@ public class Heap {
         }
 
         // swap items
-        HeapItem childItem = child.item;
-        HeapItem parentItem = parent.item;
+        HeapItem<V> childItem = child.item;
+        HeapItem<V> parentItem = parent.item;
 
         // update heapify costs and swap
-        totalHeapifyCosts++; 
+        totalHeapifyCosts++;
+        observer.onHeapifySwap();
         child.item = parentItem;
         parent.item = childItem;
 
@@ -245,29 +627,39 @@ public class Heap {
      *
      * Time Complexity (WC): O(log n)
      */
-    private void cascadingCut(HeapNode x, HeapNode y) {
-        cut(x, y);
-        // if y is not root
-        if (y.parent != null) {
+    private void cascadingCut(HeapNode<V> x, HeapNode<V> y) {
+        int cascadeLength = 0;
+        while (true) {
+            cut(x, y);
+            cascadeLength++;
+            // if y is root, stop
+            if (y.parent == null) {
+                break;
+            }
             // if unmarked, mark it and stop
             if (!y.marked) {
                 y.marked = true;
                 numMarkedNodes++;
+                break;
             }
             // else, continue cutting
-            else {
-                cascadingCut(y, y.parent);
-            }
+            x = y;
+            y = y.parent;
         }
+        if (cascadeLength > maxCascadeLength) {
+            maxCascadeLength = cascadeLength;
+        }
+        observer.onCascadingCut(cascadeLength);
     }
 
     /**
      * Cuts the link between node x and its parent y, making x a new root.
      *
-     * Time Complexity (WC): O(1)
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
      */
-    private void cut(HeapNode x, HeapNode y) {
+    private void cut(HeapNode<V> x, HeapNode<V> y) {
         totalCuts++;
+        observer.onCut(x.rank);
         // remove x from child list of y
         x.parent = null;
         if (x.marked) {
@@ -275,6 +667,14 @@ public class Heap {
         }
         x.marked = false;
         y.rank--;
+        if (incrementalSteps > 0 && y.parent == null && isSettled(y, y.rank + 1)) {
+            // a settled root lost rank, so it no longer fits its bucket slot
+            bucket[y.rank + 1] = null;
+            unlinkRoot(y);
+            y.next = y;
+            y.prev = y;
+            addToRootList(y, y, 1);
+        }
         if (x.next == x) {
             y.child = null;
         } else {
@@ -283,27 +683,38 @@ public class Heap {
             x.next.prev = x.prev;
         }
 
-        // create new heap with x and meld
+        // splice x into the root list, consolidating if not lazy melds
         x.next = x;
         x.prev = x;
-        Heap heap2 = new Heap(this.lazyMelds, this.lazyDecreaseKeys);
-        heap2.head = x.item;
-        heap2.last = x.item;
-        heap2.size = 0; // not adding size in meld
-        heap2.min = x.item;
-        heap2.numTrees = 1;
-        this.meld(heap2);
+        addToRootList(x, x, 1);
+        if (!this.lazyMelds) {
+            succesiveLinking();
+        } else if (x.item.key < min.key) {
+            min = x.item;
+        }
     }
 
     /**
      * Delete the x from the heap.
+     * Returns false and does nothing if x is no longer in the heap (deleted,
+     * or a stale handle whose node was recycled).
      *
      * Time Complexity (WC): O(n)
      */
-    public void delete(HeapItem x) {
-        // decrease key to MIN_VALUE and delete min
-        decreaseKey(x, Integer.MAX_VALUE);
-        deleteMin();
+    public boolean delete(HeapItem<V> x) {
+        if (latencyHistograms != null) {
+            startOp();
+        }
+        boolean found = contains(x);
+        if (found) {
+            // decrease key to MIN_VALUE and delete min
+            decrease(x, Integer.MAX_VALUE);
+            removeMin();
+        }
+        if (latencyHistograms != null) {
+            endOp(OP_DELETE);
+        }
+        return found;
     }
 
     /**
@@ -313,10 +724,31 @@ public class Heap {
      *
      * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
      */
-    public void meld(Heap heap2) {
+    public void meld(Heap<V> heap2) {
+        if (latencyHistograms == null) {
+            meldHeap(heap2);
+            return;
+        }
+        startOp();
+        if (heap2 != null) {
+            // heap2's past links, cuts and swaps are added to ours but are not this meld's cost
+            opStartCost += heap2.totalLinks + heap2.totalCuts + heap2.totalHeapifyCosts;
+        }
+        meldHeap(heap2);
+        endOp(OP_MELD);
+    }
+
+    /**
+     * Body of meld, without instrumentation.
+     *
+     */
+    private void meldHeap(Heap<V> heap2) {
         if (heap2 == null || heap2.head == null) {
             return; // nothing to meld
         }
+        if (incrementalSteps > 0 && pendingStart == null) {
+            pendingStart = heap2.head.node; // heap2's roots go to the end, so they are pending
+        }
         if (this.head == null) {
             // this heap is empty, so just copy heap2's fields
             this.min = heap2.min;
@@ -328,6 +760,7 @@ public class Heap {
             this.totalLinks += heap2.totalLinks;
             this.totalCuts += heap2.totalCuts;
             this.totalHeapifyCosts += heap2.totalHeapifyCosts;
+            consolidateIfLong();
             return;
         }
 
@@ -346,45 +779,102 @@ public class Heap {
         totalCuts += heap2.totalCuts;
         totalHeapifyCosts += heap2.totalHeapifyCosts;
 
-        // update min
-        if (heap2.min != null) {
+        // consolidate if not lazy melds (which also finds the new min), else just update min
+        if (!this.lazyMelds) {
+            succesiveLinking();
+        } else if (heap2.min != null) {
             if (this.min == null || heap2.min.key < this.min.key) {
                 this.min = heap2.min;
             }
         }
-
-        // consolidate if not lazy melds
-        if (!this.lazyMelds) {
-            succesiveLinking();
-        }
+        consolidateIfLong();
         return;
     }
 
     /**
-     * Consolidates the heap by linking trees of the same rank.
+     * Melds the current heap with heap2, which must be a Heap.
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
+     */
+    public void meld(MeldableHeap<V> heap2) {
+        meld((Heap<V>) heap2);
+    }
+
+    /**
+     * Consolidates the heap by linking trees of the same rank, and sets min
+     * to the smallest root.
      *
      * Time Complexity (WC): O(n)
      */
     private void succesiveLinking() {
+        if (incrementalSteps > 0) {
+            resetIncremental(); // the full pass below needs an empty bucket
+        }
 
         if (size <= 1) {
-            return; // no need to consolidate
+            min = head; // no need to consolidate
+        } else {
+            // Array size based on max possible rank: O(log_phi(n)), only grown when size passes the cached bound
+            if (size > bucketMaxSize) {
+                growBucket();
+            }
+
+            // Consolidate and rebuild root list
+            observer.onConsolidationStart(numTrees);
+            long linksBefore = totalLinks;
+            HeapNode<V> x = numTrees >= parallelConsolidationThreshold ? parallelConsolidate(bucket) : consolidate(bucket);
+            head = x.item;
+            last = x.prev.item;
+            observer.onConsolidationEnd(numTrees, totalLinks - linksBefore);
         }
 
-        // Array size based on max possible rank: O(log_phi(n))
-        double phi = (1.0 + Math.sqrt(5.0)) / 2.0;
-        int arraySize = (int) Math.ceil(Math.log(size) / Math.log(phi)) + 1;
-        HeapNode[] bucket = new HeapNode[2 * arraySize];
+        if (incrementalSteps > 0 && head != null) {
+            settleAll();
+        }
+        if (proactiveFactor > 0) {
+            proactiveLimit = proactiveLimit();
+        }
+    }
 
-        // Initialize all buckets to null
-        for (int i = 0; i < 2 * arraySize; i++) {
-            bucket[i] = null;
+    /**
+     * Consolidates if the root list is longer than the proactive consolidation limit.
+     * Costs one comparison while proactive consolidation is off.
+     *
+     * Time Complexity (WC): O(1), O(n) if it consolidates
+     */
+    private void consolidateIfLong() {
+        if (numTrees > proactiveLimit) {
+            succesiveLinking();
         }
+    }
+
+    /**
+     * Returns c * log_phi(n) for the current size, but at least 2.
+     *
+     */
+    private int proactiveLimit() {
+        double limit = size < 2 ? 0 : proactiveFactor * Math.log(size) / LOG_PHI;
+        return (int) Math.max(limit, 2);
+    }
+
+    /**
+     * Replaces the bucket array with one large enough for the current size.
+     * Outside incremental consolidation the buckets are all null, as fromBucket
+     * clears every slot it reads.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    private void growBucket() {
+        int arraySize = (int) Math.ceil(Math.log(size) / LOG_PHI) + 1;
+        // keep the settled roots of incremental consolidation
+        bucket = bucket == null ? newNodeArray(2 * arraySize) : Arrays.copyOf(bucket, 2 * arraySize);
+        // ceil(log_phi(n)) + 1 <= arraySize holds for every n <= phi^(arraySize - 1)
+        bucketMaxSize = (long) Math.floor(Math.pow(PHI, arraySize - 1));
+    }
 
-        // Consolidate and rebuild root list
-        HeapNode x = consolidate(bucket);
-        head = x.item;
-        last = x.prev.item;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> HeapNode<V>[] newNodeArray(int length) {
+        return (HeapNode<V>[]) new HeapNode[length];
     }
 
     /**
@@ -392,12 +882,12 @@ public class Heap {
      *
      * Time Complexity (WC): O(1)
      */
-    private HeapNode link(HeapNode x, HeapNode y) {
+    private HeapNode<V> link(HeapNode<V> x, HeapNode<V> y) {
         // Links two trees of same rank - smaller key becomes parent
 
         // Ensure x has smaller key
         if (x.item.key > y.item.key) {
-            HeapNode temp = x;
+            HeapNode<V> temp = x;
             x = y;
             y = temp;
         }
@@ -428,14 +918,14 @@ public class Heap {
      *
      * Time Complexity (WC): O(n)
      */
-    private void toBucket(HeapNode[] bucket) {
+    private void toBucket(HeapNode<V>[] bucket) {
         // Insert all roots into buckets by rank, linking trees of same rank
         // Break circularity of root list for traversal
         head.node.prev.next = null;
 
-        HeapNode x = head.node;
+        HeapNode<V> x = head.node;
         while (x != null) {
-            HeapNode y = x;
+            HeapNode<V> y = x;
             x = x.next; // save next before modifying y
 
             y.parent = null; // roots have no parent
@@ -444,29 +934,41 @@ public class Heap {
 
             // Link trees of same rank
             while (bucket[y.rank] != null) {
+                observer.onLink(y.rank);
                 y = link(y, bucket[y.rank]);
                 totalLinks++;
                 bucket[y.rank - 1] = null; // B[y.rank - 1] ← null
             }
 
             bucket[y.rank] = y;
+            if (y.rank > maxBucketRank) {
+                maxBucketRank = y.rank;
+            }
         }
     }
 
     /**
-     * Rebuilds the root list from the bucket array after consolidation.
+     * Rebuilds the root list from the bucket array after consolidation,
+     * clearing the touched slots so the array can be reused. Finds the new
+     * min in the same pass.
      *
      * Time Complexity (WC): O(logn)
      */
-    private HeapNode fromBucket(HeapNode[] bucket) {
+    private HeapNode<V> fromBucket(HeapNode<V>[] bucket) {
         // Rebuild root list from buckets
 
-        HeapNode x = null; // new root list head
+        HeapNode<V> x = null; // new root list head
         numTrees = 0;
+        min = null;
 
-        for (int i = 0; i < bucket.length; i++) {
+        int maxRank = maxBucketRank;
+        maxBucketRank = -1;
+        for (int i = 0; i <= maxRank; i++) {
             if (bucket[i] != null) {
                 numTrees++;
+                if (min == null || bucket[i].item.key < min.key) {
+                    min = bucket[i].item;
+                }
                 if (x == null) {
                     // first tree found - initialize root list
                     x = bucket[i];
@@ -479,6 +981,7 @@ public class Heap {
                     bucket[i].prev = x.prev;
                     x.prev = bucket[i];
                 }
+                bucket[i] = null;
             }
         }
         return x;
@@ -489,12 +992,611 @@ public class Heap {
      *
      * Time Complexity (WC): O(n)
      */
-    private HeapNode consolidate(HeapNode[] bucket) {
+    private HeapNode<V> consolidate(HeapNode<V>[] bucket) {
         // Consolidate the root list into the bucket array
         toBucket(bucket);
         return fromBucket(bucket);
     }
 
+    /**
+     * Consolidates the root list like consolidate, but links chunks of the root
+     * list on the common ForkJoinPool and then merges the per-chunk buckets.
+     * Merging two buckets works like binary addition with carries, so the
+     * resulting ranks and the number of links are the same as in the serial pass.
+     * The chunks are fixed by the root count, so the result does not depend on
+     * the number of threads.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    private HeapNode<V> parallelConsolidate(HeapNode<V>[] bucket) {
+        // Collect the roots, since chunks need random access into the root list
+        HeapNode<V>[] roots = newNodeArray(numTrees);
+        int n = 0;
+        HeapNode<V> x = head.node;
+        do {
+            if (n == roots.length) {
+                roots = Arrays.copyOf(roots, 2 * n);
+            }
+            roots[n++] = x;
+            x = x.next;
+        } while (x != head.node);
+
+        ChunkBucket<V> merged = ForkJoinPool.commonPool().invoke(new ConsolidateTask(roots, 0, n, bucket.length));
+        System.arraycopy(merged.trees, 0, bucket, 0, merged.maxRank + 1);
+        totalLinks += merged.links;
+        maxBucketRank = merged.maxRank;
+        if (observer != HeapObserver.NONE) {
+            // replay the links of the worker threads on this thread
+            for (int r = 0; r < merged.linksByRank.length; r++) {
+                for (long k = merged.linksByRank[r]; k > 0; k--) {
+                    observer.onLink(r);
+                }
+            }
+        }
+        return fromBucket(bucket);
+    }
+
+    /**
+     * Trees of distinct ranks produced by consolidating one chunk of roots.
+     *
+     */
+    private static final class ChunkBucket<V> {
+        final HeapNode<V>[] trees; // trees[r] = the tree of rank r, or null
+        final long[] linksByRank;  // linksByRank[r] = links of two trees of rank r
+        int maxRank;
+        long links;
+
+        ChunkBucket(int length) {
+            this.trees = newNodeArray(length);
+            this.linksByRank = new long[length];
+            this.maxRank = -1;
+        }
+    }
+
+    /**
+     * Consolidates roots[from..to) into a ChunkBucket, splitting large ranges in two.
+     * Only touches the nodes of its own range, so tasks never share state.
+     *
+     */
+    private final class ConsolidateTask extends RecursiveTask<ChunkBucket<V>> {
+        private static final long serialVersionUID = 1L;
+
+        private final HeapNode<V>[] roots;
+        private final int from;
+        private final int to;
+        private final int length;
+
+        ConsolidateTask(HeapNode<V>[] roots, int from, int to, int length) {
+            this.roots = roots;
+            this.from = from;
+            this.to = to;
+            this.length = length;
+        }
+
+        @Override
+        protected ChunkBucket<V> compute() {
+            if (to - from <= PARALLEL_CHUNK_SIZE) {
+                return consolidateChunk();
+            }
+            int mid = (from + to) >>> 1;
+            ConsolidateTask left = new ConsolidateTask(roots, from, mid, length);
+            left.fork();
+            ChunkBucket<V> right = new ConsolidateTask(roots, mid, to, length).compute();
+            return mergeChunks(left.join(), right);
+        }
+
+        private ChunkBucket<V> consolidateChunk() {
+            ChunkBucket<V> chunk = new ChunkBucket<>(length);
+            HeapNode<V>[] trees = chunk.trees;
+            for (int i = from; i < to; i++) {
+                HeapNode<V> y = roots[i];
+                y.parent = null; // roots have no parent
+                y.next = y;
+                y.prev = y;
+
+                // Link trees of same rank
+                while (trees[y.rank] != null) {
+                    chunk.linksByRank[y.rank]++;
+                    y = link(y, trees[y.rank]);
+                    chunk.links++;
+                    trees[y.rank - 1] = null;
+                }
+                trees[y.rank] = y;
+                if (y.rank > chunk.maxRank) {
+                    chunk.maxRank = y.rank;
+                }
+            }
+            return chunk;
+        }
+
+        /**
+         * Adds the trees of b into a rank by rank, carrying linked trees to the next rank.
+         *
+         */
+        private ChunkBucket<V> mergeChunks(ChunkBucket<V> a, ChunkBucket<V> b) {
+            HeapNode<V>[] trees = a.trees;
+            HeapNode<V> carry = null;
+            int maxRank = Math.max(a.maxRank, b.maxRank);
+            a.links += b.links;
+            for (int r = 0; r < a.linksByRank.length; r++) {
+                a.linksByRank[r] += b.linksByRank[r];
+            }
+            for (int r = 0; r <= maxRank || carry != null; r++) {
+                HeapNode<V> t = trees[r];
+                HeapNode<V> u = b.trees[r];
+                HeapNode<V> c = carry;
+                carry = null;
+                if (t != null && u != null) {
+                    carry = link(t, u);
+                    trees[r] = c;
+                    a.links++;
+                    a.linksByRank[r]++;
+                } else {
+                    HeapNode<V> one = t != null ? t : u;
+                    if (one != null && c != null) {
+                        carry = link(one, c);
+                        trees[r] = null;
+                        a.links++;
+                        a.linksByRank[r]++;
+                    } else {
+                        trees[r] = one != null ? one : c;
+                    }
+                }
+                if (trees[r] != null && r > a.maxRank) {
+                    a.maxRank = r;
+                }
+            }
+            return a;
+        }
+    }
+
+    /**
+     * Performs up to steps consolidation steps on the pending roots. A step either
+     * places the first pending root into its empty bucket slot (settling it) or
+     * links it with the settled root of the same rank. The winner of a link stays
+     * first in the pending part and is placed in later steps, so the state
+     * carries over to the next operation. Does not change the min key.
+     *
+     * Time Complexity (WC): O(steps)
+     */
+    private void consolidateSteps(int steps) {
+        while (steps > 0 && pendingStart != null) {
+            steps--;
+            HeapNode<V> p = pendingStart;
+            if (size > bucketMaxSize) {
+                growBucket();
+            }
+            HeapNode<V> q = bucket[p.rank];
+            if (q == null) {
+                // settle p
+                bucket[p.rank] = p;
+                if (p.rank > maxBucketRank) {
+                    maxBucketRank = p.rank;
+                }
+                pendingStart = last.node == p ? null : p.next;
+                continue;
+            }
+
+            bucket[p.rank] = null;
+            unlinkRoot(q);
+            HeapNode<V> loser = p;
+            if (p.item.key <= q.item.key) {
+                loser = q;
+                q = p;
+            } else {
+                // q wins and takes the place of p, the boundary of the pending part
+                if (p.next == p) {
+                    q.next = q;
+                    q.prev = q;
+                } else {
+                    q.next = p.next;
+                    q.prev = p.prev;
+                    p.prev.next = q;
+                    p.next.prev = q;
+                }
+                if (head.node == p) {
+                    head = q.item;
+                }
+                if (last.node == p) {
+                    last = q.item;
+                }
+                pendingStart = q;
+            }
+            observer.onLink(loser.rank);
+            link(q, loser);
+            totalLinks++;
+            if (min == loser.item) {
+                min = q.item; // equal keys, keep min on a root
+            }
+        }
+    }
+
+    /**
+     * Removes the root x from the root list. Does not touch size, min or the bucket.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void unlinkRoot(HeapNode<V> x) {
+        numTrees--;
+        if (x.next == x) {
+            head = null;
+            last = null;
+            return;
+        }
+        x.prev.next = x.next;
+        x.next.prev = x.prev;
+        if (head.node == x) {
+            head = x.next.item;
+        }
+        if (last.node == x) {
+            last = x.prev.item;
+        }
+    }
+
+    /**
+     * Sets min to the smallest root.
+     *
+     * Time Complexity (WC): O(number of trees)
+     */
+    private void findMinRoot() {
+        HeapNode<V> x = head.node;
+        min = x.item;
+        for (x = x.next; x != head.node; x = x.next) {
+            if (x.item.key < min.key) {
+                min = x.item;
+            }
+        }
+    }
+
+    /**
+     * Returns true if the root x is settled in the bucket slot of its rank.
+     *
+     */
+    private boolean isSettled(HeapNode<V> x) {
+        return isSettled(x, x.rank);
+    }
+
+    private boolean isSettled(HeapNode<V> x, int rank) {
+        return bucket != null && rank < bucket.length && bucket[rank] == x;
+    }
+
+    /**
+     * Empties the bucket and marks every root as pending.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    private void resetIncremental() {
+        for (int i = 0; i <= maxBucketRank; i++) {
+            bucket[i] = null;
+        }
+        maxBucketRank = -1;
+        pendingStart = null;
+    }
+
+    /**
+     * Settles every root after a full consolidation left them with distinct ranks.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    private void settleAll() {
+        HeapNode<V> x = head.node;
+        do {
+            bucket[x.rank] = x;
+            if (x.rank > maxBucketRank) {
+                maxBucketRank = x.rank;
+            }
+            x = x.next;
+        } while (x != head.node);
+        pendingStart = null;
+    }
+
+    /**
+     * Caps the consolidation work of each operation at maxSteps link or placement
+     * steps; 0 turns it off. Instead of consolidating the whole root list in
+     * deleteMin, every insert, decreaseKey and deleteMin advances a persistent
+     * consolidation by at most maxSteps steps, and deleteMin then finds the new
+     * min by scanning the roots. The scan stays short as long as maxSteps exceeds the number of roots
+     * an operation adds (about 2logn for deleteMin). Has no effect unless
+     * lazyMelds is true, since otherwise every operation consolidates right away.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    public void setIncrementalConsolidation(int maxSteps) {
+        if (!lazyMelds) {
+            return;
+        }
+        if (incrementalSteps > 0) {
+            resetIncremental();
+        }
+        incrementalSteps = Math.max(maxSteps, 0);
+        if (incrementalSteps > 0) {
+            if (size > bucketMaxSize) {
+                growBucket();
+            }
+            pendingStart = head == null ? null : head.node;
+        }
+    }
+
+    /**
+     * Returns the number of consolidation steps per operation, or 0 if incremental consolidation is off.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int incrementalConsolidation() {
+        return incrementalSteps;
+    }
+
+    /**
+     * Turns on proactive consolidation: whenever an insert, insertAll,
+     * decreaseKey or meld leaves more than c * log_phi(n) trees, the heap
+     * consolidates right away, so a deleteMin after a burst of inserts finds a
+     * short root list instead of paying for the whole burst. The limit is
+     * recomputed at every consolidation, so checking it is one comparison.
+     * c is raised to 1, as a consolidated heap already has up to log2(n) + 1
+     * trees; each consolidation then links the roots added since the last one,
+     * at most c * log_phi(n) of them. c <= 0 turns it off.
+     *
+     * Time Complexity (WC): O(n), consolidates if the root list is already too long
+     */
+    public void setProactiveConsolidation(double c) {
+        if (c <= 0) {
+            proactiveFactor = 0;
+            proactiveLimit = Integer.MAX_VALUE;
+            return;
+        }
+        proactiveFactor = Math.max(c, 1.0);
+        proactiveLimit = proactiveLimit();
+        consolidateIfLong();
+    }
+
+    /**
+     * Returns the proactive consolidation factor c, or 0 if it is off.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public double proactiveConsolidation() {
+        return proactiveFactor;
+    }
+
+    /**
+     * Consolidates the root list now, for callers that have idle time before
+     * their next deleteMin. Afterwards the heap has at most log_phi(n) + 1 trees
+     * and min is unchanged.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    public void consolidate() {
+        if (numTrees > 1) {
+            succesiveLinking();
+        }
+    }
+
+    /**
+     * Sets the root list length from which succesiveLinking consolidates in parallel;
+     * Integer.MAX_VALUE disables the parallel path.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public void setParallelConsolidationThreshold(int threshold) {
+        parallelConsolidationThreshold = Math.max(threshold, 2);
+    }
+
+    /**
+     * Turns per-operation instrumentation on or off. While it is on, every
+     * insert, deleteMin, decreaseKey, delete and meld records its wall time (ns)
+     * and its structural cost (links + cuts + heapify swaps, including any
+     * consolidation it triggers) into LogHistograms, one pair per operation type.
+     * Turning it on starts from empty histograms, turning it off drops them.
+     * insertAll and deleteMinBatch are not recorded. While it is off, each
+     * operation pays one null check.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public void setInstrumentation(boolean enabled) {
+        if (!enabled) {
+            latencyHistograms = null;
+            costHistograms = null;
+            return;
+        }
+        latencyHistograms = new LogHistogram[NUM_OPS];
+        costHistograms = new LogHistogram[NUM_OPS];
+        for (int op = 0; op < NUM_OPS; op++) {
+            latencyHistograms[op] = new LogHistogram();
+            costHistograms[op] = new LogHistogram();
+        }
+    }
+
+    /**
+     * Returns true if per-operation instrumentation is on.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean isInstrumented() {
+        return latencyHistograms != null;
+    }
+
+    /**
+     * Returns the wall-time histogram (ns) of the given operation (OP_INSERT .. OP_MELD),
+     * or null if instrumentation is off.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public LogHistogram latencyHistogram(int operation) {
+        return latencyHistograms == null ? null : latencyHistograms[operation];
+    }
+
+    /**
+     * Returns the histogram of links + cuts + heapify swaps of the given operation
+     * (OP_INSERT .. OP_MELD), or null if instrumentation is off.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public LogHistogram costHistogram(int operation) {
+        return costHistograms == null ? null : costHistograms[operation];
+    }
+
+    /**
+     * Sets the observer that is told about every link, cut, cascading cut,
+     * full consolidation and heapify swap; null removes it.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public void setObserver(HeapObserver observer) {
+        this.observer = observer == null ? HeapObserver.NONE : observer;
+    }
+
+    /**
+     * Returns a snapshot of the forest's shape: root rank histogram, max rank,
+     * max depth, nodes and marked nodes per depth, and the root list length
+     * relative to log_phi(n). Walks every node once.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    public HeapStats snapshot() {
+        return snapshot(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a snapshot that visits at most maxNodes nodes (at least 1): whole
+     * trees in root-list order, stopping inside a tree once the budget is spent.
+     * The histograms then describe the visited nodes only and complete is false.
+     * The walk is iterative, so the deep trees of cascading cuts are fine.
+     *
+     * Time Complexity (WC): O(min(n, maxNodes * logn))
+     */
+    public HeapStats snapshot(int maxNodes) {
+        maxNodes = Math.max(maxNodes, 1);
+        HeapStats stats = new HeapStats();
+        stats.size = size;
+        stats.numTrees = numTrees;
+        stats.numMarkedNodes = numMarkedNodes;
+        if (head == null) {
+            return stats;
+        }
+        // explicit depth-first stack of nodes and their depths
+        HeapNode<V>[] stack = newNodeArray(16);
+        int[] depths = new int[16];
+        HeapNode<V> root = head.node;
+        do {
+            int top = 0;
+            stack[top] = root;
+            depths[top++] = 0;
+            while (top > 0) {
+                if (stats.nodesVisited >= maxNodes) {
+                    stats.complete = false;
+                    break;
+                }
+                HeapNode<V> x = stack[--top];
+                int depth = depths[top];
+                stats.visit(x.rank, depth, x.marked);
+                HeapNode<V> child = x.child;
+                if (child == null) {
+                    continue;
+                }
+                do {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * top);
+                        depths = Arrays.copyOf(depths, 2 * top);
+                    }
+                    stack[top] = child;
+                    depths[top++] = depth + 1;
+                    child = child.next;
+                } while (child != x.child);
+            }
+            root = root.next;
+        } while (stats.complete && root != head.node);
+        stats.trim();
+        return stats;
+    }
+
+    /**
+     * Remembers the clock and the counters at the start of an instrumented operation.
+     *
+     */
+    private void startOp() {
+        opStartCost = totalLinks + totalCuts + totalHeapifyCosts;
+        opStartTime = System.nanoTime();
+    }
+
+    /**
+     * Records the time and cost since startOp for the given operation.
+     *
+     */
+    private void endOp(int operation) {
+        long elapsed = System.nanoTime() - opStartTime;
+        latencyHistograms[operation].record(elapsed);
+        costHistograms[operation].record(totalLinks + totalCuts + totalHeapifyCosts - opStartCost);
+    }
+
+    /**
+     * Creates the item for a new key. Subclasses may return a HeapItem subclass
+     * that carries extra routing data.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    protected HeapItem<V> newItem(int key, V info) {
+        return new HeapItem<>(key, info);
+    }
+
+    /**
+     * Returns a node holding item, taken from the pool if one is available.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private HeapNode<V> newNode(HeapItem<V> item) {
+        HeapNode<V> node = nodePool;
+        if (node == null) {
+            nodePoolMisses++;
+            return new HeapNode<>(item, null, null, null, null, 0);
+        }
+        nodePool = node.next;
+        nodePoolSize--;
+        nodePoolHits++;
+        node.item = item;
+        node.child = null;
+        node.next = null;
+        node.prev = null;
+        node.parent = null;
+        node.rank = 0;
+        node.marked = false;
+        return node;
+    }
+
+    /**
+     * Detaches a removed node from its item and keeps it for reuse if the pool has room.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void recycleNode(HeapNode<V> node) {
+        node.item.node = null;
+        node.item = null;
+        node.child = null;
+        node.parent = null;
+        node.prev = null;
+        if (nodePoolSize >= nodePoolCapacity) {
+            node.next = null;
+            return;
+        }
+        node.next = nodePool;
+        nodePool = node;
+        nodePoolSize++;
+    }
+
+    /**
+     * Sets how many removed nodes the heap keeps for reuse; 0 disables pooling.
+     *
+     * Time Complexity (WC): O(1) amortized
+     */
+    public void setNodePoolCapacity(int capacity) {
+        nodePoolCapacity = Math.max(capacity, 0);
+        while (nodePoolSize > nodePoolCapacity) {
+            HeapNode<V> node = nodePool;
+            nodePool = node.next;
+            node.next = null;
+            nodePoolSize--;
+        }
+    }
+
     /**
      * Returns the number of elements in the heap.
      *
@@ -527,25 +1629,62 @@ public class Heap {
      *
      * Time Complexity (WC): O(1)
      */
-    public int totalLinks() {
+    public long totalLinks() {
         return totalLinks;
     }
 
+    /**
+     * Returns the number of nodes currently waiting in the node pool.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int nodePoolSize() {
+        return nodePoolSize;
+    }
+
+    /**
+     * Returns the number of inserts that reused a pooled node.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long nodePoolHits() {
+        return nodePoolHits;
+    }
+
+    /**
+     * Returns the fraction of inserts that reused a pooled node, or 0 before the first insert.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public double nodePoolHitRate() {
+        long inserts = nodePoolHits + nodePoolMisses;
+        return inserts == 0 ? 0.0 : (double) nodePoolHits / inserts;
+    }
+
     /**
      * Returns the total number of cuts performed in the heap.
      *
      * Time Complexity (WC): O(1)
      */
-    public int totalCuts() {
+    public long totalCuts() {
         return totalCuts;
     }
 
+    /**
+     * Returns the largest number of cuts done by a single cascading cut.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int maxCascadeLength() {
+        return maxCascadeLength;
+    }
+
     /**
      * Returns the total heapify costs.
      *
      * Time Complexity (WC): O(1)
      */
-    public int totalHeapifyCosts() {
+    public long totalHeapifyCosts() {
         return totalHeapifyCosts;
     }
 
@@ -553,16 +1692,16 @@ public class Heap {
      * Class implementing a node in a Heap.
      * 
      */
-    public static class HeapNode {
-        public HeapItem item;
-        public HeapNode child;
-        public HeapNode next;
-        public HeapNode prev;
-        public HeapNode parent;
+    public static class HeapNode<V> {
+        public HeapItem<V> item;
+        public HeapNode<V> child;
+        public HeapNode<V> next;
+        public HeapNode<V> prev;
+        public HeapNode<V> parent;
         public int rank;
         public boolean marked;
 
-        public HeapNode(HeapItem item, HeapNode child, HeapNode next, HeapNode prev, HeapNode parent, int rank) {
+        public HeapNode(HeapItem<V> item, HeapNode<V> child, HeapNode<V> next, HeapNode<V> prev, HeapNode<V> parent, int rank) {
             this.item = item;
             this.child = child;
             this.next = next;
@@ -577,12 +1716,12 @@ public class Heap {
      * Class implementing an item in a Heap.
      * 
      */
-    public static class HeapItem {
-        public HeapNode node;
+    public static class HeapItem<V> {
+        public HeapNode<V> node;
         public int key;
-        public String info;
+        public V info;
 
-        public HeapItem(int key, String info) {
+        public HeapItem(int key, V info) {
             this.key = key;
             this.info = info;
             this.node = null;
@@ -0,0 +1,491 @@
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro-benchmark harness for the heap operations
+ * Measures insert, deleteMin, decreaseKey, delete and meld in ns/op for the
+ * Heap configurations of HeapExperimentRunner over several sizes and key
+ * distributions, the way a JMH run would: every benchmark runs in its own
+ * forked JVM, starts with warmup iterations that are thrown away, and each
+ * measured iteration reports its time per operation, the bytes allocated per
+ * operation and the GC count and time (the -prof gc numbers). Results are
+ * averaged over forks x iterations in floating point, with the standard
+ * deviation next to the mean, and as throughput in ops/us.
+ *
+ * Iterations are time-bounded: an iteration repeats its batch (untimed setup,
+ * then n timed operations) until the timed part adds up to at least -time ms,
+ * so small sizes run long enough for the JIT to reach C2 during warmup.
+ *
+ * Usage: java HeapBenchmark [-ops insert,deleteMin,...] [-heaps 0,2,...]
+ *        [-sizes 1000,...] [-dists random,sorted,reverse,clustered]
+ *        [-forks 2] [-warmup 5] [-iterations 5] [-time 200]
+ * -forks 0 runs everything in this JVM (only for quick checks). Give the
+ * forks enough memory for the largest size, e.g. -Xmx4g, which is passed on.
+ * Allocations made by the parallel consolidation workers (Heap.parallelConsolidate)
+ * are not on the measured thread and are not counted.
+ */
+public class HeapBenchmark {
+
+    // Default parameters
+    private static final String[] OPERATIONS = {"insert", "deleteMin", "decreaseKey", "delete", "meld"};
+    private static final int[] SIZES = {1000, 10000, 100000, 1000000, 10000000};
+    private static final String[] DISTRIBUTIONS = {"random", "sorted", "reverse", "clustered"};
+    private static final int FORKS = 2;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int ITERATION_MILLIS = 200;  // minimum timed time of one iteration
+
+    private static final int MELD_HEAP_SIZE = 16;  // the meld benchmark melds heaps of this many items
+    private static final int NUM_CLUSTERS = 64;
+
+    // results of the benchmarked operations go here so the JIT cannot drop them
+    private static volatile long sink;
+
+    /**
+     * Result class to store the measurements of one iteration
+     */
+    private static class Sample {
+        double nanosPerOp;
+        double bytesPerOp;     // -1 if the JVM cannot count allocated bytes
+        long gcCount;
+        long gcMillis;
+        long timedNanos;       // totals over the batches of the iteration
+        long ops;
+        long bytes;
+    }
+
+    /**
+     * Result class to accumulate samples across iterations and forks
+     */
+    private static class BenchmarkResult {
+        int count;
+        double sumNanos;
+        double sumSquaredNanos;
+        double sumBytes;
+        long gcCount;
+        long gcMillis;
+
+        public void add(Sample sample) {
+            count++;
+            sumNanos += sample.nanosPerOp;
+            sumSquaredNanos += sample.nanosPerOp * sample.nanosPerOp;
+            sumBytes += sample.bytesPerOp;
+            gcCount += sample.gcCount;
+            gcMillis += sample.gcMillis;
+        }
+
+        public double meanNanos() {
+            return sumNanos / count;
+        }
+
+        public double stdDevNanos() {
+            if (count < 2) {
+                return 0;
+            }
+            double mean = meanNanos();
+            return Math.sqrt(Math.max(0, (sumSquaredNanos - count * mean * mean) / (count - 1)));
+        }
+
+        public double meanBytes() {
+            return sumBytes / count;
+        }
+
+        public double opsPerMicro() {
+            return 1000.0 / meanNanos();
+        }
+    }
+
+    /**
+     * Generates n distinct keys 1..n in the given order: a random permutation,
+     * ascending, descending, or clustered (NUM_CLUSTERS runs of nearby keys,
+     * each run shuffled, in random run order)
+     */
+    static int[] generateKeys(int n, String distribution, Random rand) {
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = i + 1;
+        }
+        switch (distribution) {
+            case "random":
+                shuffle(keys, 0, n, rand);
+                break;
+            case "sorted":
+                break;
+            case "reverse":
+                for (int i = 0; i < n; i++) {
+                    keys[i] = n - i;
+                }
+                break;
+            case "clustered":
+                int clusters = Math.min(NUM_CLUSTERS, n);
+                int[] order = new int[clusters];
+                for (int c = 0; c < clusters; c++) {
+                    order[c] = c;
+                }
+                shuffle(order, 0, clusters, rand);
+                int[] result = new int[n];
+                int filled = 0;
+                for (int c : order) {
+                    // cluster c holds the keys from its share of 1..n
+                    int from = (int) ((long) n * c / clusters);
+                    int to = (int) ((long) n * (c + 1) / clusters);
+                    shuffle(keys, from, to, rand);
+                    System.arraycopy(keys, from, result, filled, to - from);
+                    filled += to - from;
+                }
+                keys = result;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown key distribution: " + distribution);
+        }
+        return keys;
+    }
+
+    private static void shuffle(int[] arr, int from, int to, Random rand) {
+        // Fisher-Yates shuffle of arr[from..to)
+        for (int i = to - 1; i > from; i--) {
+            int j = from + rand.nextInt(i - from + 1);
+            int temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        }
+    }
+
+    /**
+     * Runs one iteration of the benchmark: batches of untimed setup and timed
+     * operations until the timed parts add up to minNanos, measuring time,
+     * allocation and GC around the timed parts only
+     */
+    private static Sample runIteration(String operation, int heapType, int[] keys, long minNanos) {
+        Sample sample = new Sample();
+        sample.bytes = allocatedBytes() < 0 ? -1 : 0;
+        do {
+            runBatch(operation, heapType, keys, sample);
+        } while (sample.timedNanos < minNanos);
+
+        sample.nanosPerOp = (double) sample.timedNanos / sample.ops;
+        sample.bytesPerOp = sample.bytes < 0 ? -1 : (double) sample.bytes / sample.ops;
+        return sample;
+    }
+
+    /**
+     * Runs one batch: untimed setup, then the timed operations, adding their
+     * time, count, allocation and GC to sample
+     */
+    private static void runBatch(String operation, int heapType, int[] keys, Sample sample) {
+        int n = keys.length;
+        MeldableHeap<Object> heap = HeapExperimentRunner.newHeap(heapType);
+        Heap.HeapItem<Object>[] items = newItemArray(n);
+        int targets = n;
+        List<MeldableHeap<Object>> parts = new ArrayList<>();
+
+        // setup
+        if (operation.equals("meld")) {
+            for (int start = 0; start < n; start += MELD_HEAP_SIZE) {
+                MeldableHeap<Object> part = HeapExperimentRunner.newHeap(heapType);
+                for (int i = start; i < Math.min(start + MELD_HEAP_SIZE, n); i++) {
+                    part.insert(keys[i], null);
+                }
+                parts.add(part);
+            }
+        } else if (!operation.equals("insert")) {
+            for (int i = 0; i < n; i++) {
+                items[i] = heap.insert(keys[i], null);
+            }
+            if (!operation.equals("deleteMin")) {
+                // consolidate first, so decreaseKey and delete work on real trees,
+                // and drop the deleted min from their targets
+                Heap.HeapItem<Object> min = heap.findMin();
+                heap.deleteMin();
+                targets = 0;
+                for (int i = 0; i < n; i++) {
+                    if (items[i] != min) {
+                        items[targets++] = items[i];
+                    }
+                }
+            }
+        }
+
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long bytesBefore = allocatedBytes();
+        long startTime = System.nanoTime();
+
+        long check = 0;
+        int ops;
+        switch (operation) {
+            case "insert":
+                for (int i = 0; i < n; i++) {
+                    items[i] = heap.insert(keys[i], null);
+                }
+                ops = n;
+                break;
+            case "deleteMin":
+                for (int i = 0; i < n; i++) {
+                    heap.deleteMin();
+                }
+                ops = n;
+                break;
+            case "decreaseKey":
+                for (int i = 0; i < targets; i++) {
+                    heap.decreaseKey(items[i], items[i].key / 2);
+                }
+                ops = targets;
+                break;
+            case "delete":
+                for (int i = 0; i < targets; i++) {
+                    heap.delete(items[i]);
+                }
+                ops = targets;
+                break;
+            case "meld":
+                for (MeldableHeap<Object> part : parts) {
+                    heap.meld(part);
+                }
+                ops = parts.size();
+                break;
+            default:
+                throw new IllegalArgumentException("unknown operation: " + operation);
+        }
+        check += heap.size();
+        Heap.HeapItem<Object> min = heap.findMin();
+        check += min == null ? 0 : min.key;
+
+        long endTime = System.nanoTime();
+        long bytesAfter = allocatedBytes();
+        sink += check;
+
+        sample.timedNanos += endTime - startTime;
+        sample.ops += ops;
+        if (sample.bytes >= 0) {
+            sample.bytes += bytesAfter - bytesBefore;
+        }
+        sample.gcCount += gcCount() - gcCountBefore;
+        sample.gcMillis += gcMillis() - gcMillisBefore;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Heap.HeapItem<V>[] newItemArray(int length) {
+        return (Heap.HeapItem<V>[]) new Heap.HeapItem[length];
+    }
+
+    /**
+     * Runs the warmup and measurement iterations of one benchmark in this JVM
+     */
+    private static List<Sample> runBenchmark(String operation, int heapType, int size, String distribution,
+                                             int warmup, int iterations, int millis, Random rand) {
+        List<Sample> samples = new ArrayList<>();
+        for (int iter = 0; iter < warmup + iterations; iter++) {
+            int[] keys = generateKeys(size, distribution, rand);
+            System.gc(); // do not charge the previous iteration's garbage to this one
+            Sample sample = runIteration(operation, heapType, keys, millis * 1000000L);
+            if (iter >= warmup) {
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Runs one benchmark in a fresh JVM with the same class path and JVM options,
+     * and reads back its samples
+     */
+    private static List<Sample> runFork(String operation, int heapType, int size, String distribution,
+                                        int warmup, int iterations, int millis) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + "/bin/java");
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(HeapBenchmark.class.getName());
+        command.add("-child");
+        command.add(operation);
+        command.add(Integer.toString(heapType));
+        command.add(Integer.toString(size));
+        command.add(distribution);
+        command.add(Integer.toString(warmup));
+        command.add(Integer.toString(iterations));
+        command.add(Integer.toString(millis));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<Sample> samples = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("SINK ")) {
+                    continue;
+                }
+                if (!line.startsWith("SAMPLE ")) {
+                    System.out.println("  [fork] " + line);
+                    continue;
+                }
+                String[] parts = line.split(" ");
+                Sample sample = new Sample();
+                sample.nanosPerOp = Double.parseDouble(parts[1]);
+                sample.bytesPerOp = Double.parseDouble(parts[2]);
+                sample.gcCount = Long.parseLong(parts[3]);
+                sample.gcMillis = Long.parseLong(parts[4]);
+                samples.add(sample);
+            }
+        }
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("forked benchmark failed: " + operation + " " + heapType + " " + size + " " + distribution);
+        }
+        return samples;
+    }
+
+    /**
+     * Returns the bytes allocated so far by this thread, or -1 if the JVM cannot tell
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    /**
+     * Print formatted table header
+     */
+    private static void printTableHeader() {
+        printTableFooter();
+        System.out.printf("| %-20s | %-12s | %-10s | %-10s | %-10s | %-8s | %-8s |%n",
+                         "Heap Type", "ns/op", "stddev", "ops/us", "B/op", "GCs", "GC (ms)");
+        printTableFooter();
+    }
+
+    /**
+     * Print a result row
+     */
+    private static void printResultRow(String heapName, BenchmarkResult result) {
+        double bytes = result.meanBytes();
+        System.out.printf("| %-20s | %12.1f | %10.1f | %10.3f | %10s | %8d | %8d |%n",
+                         heapName, result.meanNanos(), result.stdDevNanos(), result.opsPerMicro(),
+                         bytes < 0 ? "n/a" : String.format("%.1f", bytes),
+                         result.gcCount, result.gcMillis);
+    }
+
+    /**
+     * Print table footer
+     */
+    private static void printTableFooter() {
+        System.out.println("+" + "-".repeat(22) + "+" + "-".repeat(14) + "+" + "-".repeat(12) + "+"
+                         + "-".repeat(12) + "+" + "-".repeat(12) + "+" + "-".repeat(10) + "+" + "-".repeat(10) + "+");
+    }
+
+    private static String[] list(String value) {
+        return value.split(",");
+    }
+
+    private static int[] intList(String value) {
+        String[] parts = list(value);
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("-child")) {
+            // forked JVM: run one benchmark and print its samples
+            List<Sample> samples = runBenchmark(args[1], Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                                                args[4], Integer.parseInt(args[5]), Integer.parseInt(args[6]),
+                                                Integer.parseInt(args[7]), new Random());
+            for (Sample sample : samples) {
+                System.out.println("SAMPLE " + sample.nanosPerOp + " " + sample.bytesPerOp + " "
+                                   + sample.gcCount + " " + sample.gcMillis);
+            }
+            System.out.println("SINK " + sink);
+            return;
+        }
+
+        String[] operations = OPERATIONS;
+        int[] heapTypes = new int[HeapExperimentRunner.NUM_HEAP_CONFIGS];
+        for (int i = 0; i < heapTypes.length; i++) {
+            heapTypes[i] = i;
+        }
+        int[] sizes = SIZES;
+        String[] distributions = DISTRIBUTIONS;
+        int forks = FORKS;
+        int warmup = WARMUP_ITERATIONS;
+        int iterations = MEASUREMENT_ITERATIONS;
+        int millis = ITERATION_MILLIS;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-ops": operations = list(args[i + 1]); break;
+                case "-heaps": heapTypes = intList(args[i + 1]); break;
+                case "-sizes": sizes = intList(args[i + 1]); break;
+                case "-dists": distributions = list(args[i + 1]); break;
+                case "-forks": forks = Integer.parseInt(args[i + 1]); break;
+                case "-warmup": warmup = Integer.parseInt(args[i + 1]); break;
+                case "-iterations": iterations = Integer.parseInt(args[i + 1]); break;
+                case "-time": millis = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+
+        System.out.println("=".repeat(90));
+        System.out.println("HEAP BENCHMARK");
+        System.out.println("Forks = " + forks + ", Warmup iterations = " + warmup
+                           + ", Measurement iterations = " + iterations + ", Iteration time >= " + millis + " ms");
+        System.out.println("=".repeat(90));
+
+        for (String operation : operations) {
+            for (int size : sizes) {
+                for (String distribution : distributions) {
+                    System.out.println();
+                    System.out.println(operation + ", n = " + size + ", keys = " + distribution);
+                    printTableHeader();
+                    for (int heapType : heapTypes) {
+                        BenchmarkResult result = new BenchmarkResult();
+                        if (forks == 0) {
+                            for (Sample sample : runBenchmark(operation, heapType, size, distribution,
+                                                              warmup, iterations, millis, new Random())) {
+                                result.add(sample);
+                            }
+                        }
+                        for (int fork = 0; fork < forks; fork++) {
+                            for (Sample sample : runFork(operation, heapType, size, distribution,
+                                                         warmup, iterations, millis)) {
+                                result.add(sample);
+                            }
+                        }
+                        printResultRow(HeapExperimentRunner.HEAP_NAMES[heapType], result);
+                    }
+                    printTableFooter();
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println("=".repeat(90));
+        System.out.println("All benchmarks completed!");
+        System.out.println("=".repeat(90));
+    }
+}
@@ -2,29 +2,75 @@ import java.util.Random;
 
 /**
  * Experimental Runner for Heap implementations
- * Tests four heap types: Regular Binomial, Lazy Binomial, Fibonacci, Binomial with Cuts
+ * Tests nine heap types: Regular Binomial, Lazy Binomial, Fibonacci, Binomial with Cuts,
+ * Fibonacci with incremental consolidation, the pairing and rank-pairing heaps,
+ * the 4-ary array heap, and the strict Fibonacci heap
+ * Times cover whole experiments; HeapBenchmark measures single operations
+ * Experiment 4 also compares Heap.deleteMinBatch with sequential deleteMin calls
  */
 public class HeapExperimentRunner {
 
     // Experimental constants
     private static final int N = 464646;
     private static final int NUM_ITERATIONS = 20;
+    private static final int BATCH_K = 1000;    // items per deleteMinBatch call in experiment 4
 
-    // Heap type configurations
+    // Heap type configurations: {lazyMelds, lazyDecreaseKeys}
     private static final boolean[][] HEAP_CONFIGS = {
         {false, false},  // Regular Binomial
         {true, false},   // Lazy Binomial
         {true, true},    // Fibonacci
-        {false, true}    // Binomial with Cuts
+        {false, true},   // Binomial with Cuts
+        {true, true}     // Incremental Fibonacci
     };
 
-    private static final String[] HEAP_NAMES = {
+    // consolidation steps per operation (Heap.setIncrementalConsolidation), 0 = off
+    private static final int[] INCREMENTAL_STEPS = {0, 0, 0, 0, 32};
+
+    // heap types 0 .. NUM_HEAP_CONFIGS - 1 are Heap configurations
+    static final int NUM_HEAP_CONFIGS = HEAP_CONFIGS.length;
+
+    // heap types after the Heap configurations
+    private static final int PAIRING = HEAP_CONFIGS.length;
+    private static final int RANK_PAIRING = HEAP_CONFIGS.length + 1;
+    private static final int D_ARY = HEAP_CONFIGS.length + 2;
+    private static final int STRICT_FIBONACCI = HEAP_CONFIGS.length + 3;
+    static final int NUM_HEAP_TYPES = HEAP_CONFIGS.length + 4;
+
+    static final String[] HEAP_NAMES = {
         "Regular Binomial",
         "Lazy Binomial",
         "Fibonacci",
-        "Binomial with Cuts"
+        "Binomial with Cuts",
+        "Incr. Fibonacci",
+        "Pairing",
+        "Rank-Pairing",
+        "4-ary Array",
+        "Strict Fibonacci"
     };
 
+    /**
+     * Creates an empty heap of the given configuration
+     */
+    static <V> MeldableHeap<V> newHeap(int heapType) {
+        if (heapType == PAIRING) {
+            return new PairingHeap<>();
+        }
+        if (heapType == RANK_PAIRING) {
+            return new RankPairingHeap<>();
+        }
+        if (heapType == D_ARY) {
+            return new DaryHeap<>(4);
+        }
+        if (heapType == STRICT_FIBONACCI) {
+            return new StrictFibonacciHeap<>();
+        }
+        boolean[] config = HEAP_CONFIGS[heapType];
+        Heap<V> heap = new Heap<>(config[0], config[1]);
+        heap.setIncrementalConsolidation(INCREMENTAL_STEPS[heapType]);
+        return heap;
+    }
+
     /**
      * Generates a random permutation of integers 1 to n
      */
@@ -47,13 +93,13 @@ public class HeapExperimentRunner {
      * Result class to store metrics from each run
      */
     private static class ExperimentResult {
-        long executionTime;
+        long executionTime;     // in ns
         int finalSize;
         int numTrees;
-        int totalLinks;
-        int totalCuts;
-        int totalHeapifyCosts;
-        int maxOperationCost;
+        long totalLinks;
+        long totalCuts;
+        long totalHeapifyCosts;
+        long maxOperationCost;
 
         public ExperimentResult() {
             this.executionTime = 0;
@@ -90,50 +136,50 @@ public class HeapExperimentRunner {
      * Helper method to calculate the cost of an operation
      * Cost = links + cuts + heapifyCosts performed during the operation
      */
-    private static int getOperationCost(int linksBefore, int cutsBefore, int heapifyBefore,
-                                         int linksAfter, int cutsAfter, int heapifyAfter) {
+    private static long getOperationCost(long linksBefore, long cutsBefore, long heapifyBefore,
+                                          long linksAfter, long cutsAfter, long heapifyAfter) {
         return (linksAfter - linksBefore) + (cutsAfter - cutsBefore) + (heapifyAfter - heapifyBefore);
     }
 
     /**
      * Experiment 1: Insert n elements in random order, then perform deleteMin() once
      */
-    private static ExperimentResult runExperiment1(boolean lazyMelds, boolean lazyDecreaseKeys, int[] permutation) {
+    private static ExperimentResult runExperiment1(int heapType, int[] permutation) {
         ExperimentResult result = new ExperimentResult();
         
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
-        Heap heap = new Heap(lazyMelds, lazyDecreaseKeys);
+        MeldableHeap<String> heap = newHeap(heapType);
         @SuppressWarnings("unused")
-        Heap.HeapItem[] nodes = new Heap.HeapItem[N + 1]; // nodes[i] points to node with key i
+        Heap.HeapItem<String>[] nodes = newItemArray(N + 1); // nodes[i] points to node with key i
         
-        int maxCost = 0;
+        long maxCost = 0;
         
         // Insert n elements
         for (int i = 0; i < N; i++) {
-            int linksBefore = heap.totalLinks;
-            int cutsBefore = heap.totalCuts;
-            int heapifyBefore = heap.totalHeapifyCosts;
+            long linksBefore = heap.totalLinks();
+            long cutsBefore = heap.totalCuts();
+            long heapifyBefore = heap.totalHeapifyCosts();
             
             nodes[permutation[i]] = heap.insert(permutation[i], "");
             
-            int cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
-                                        heap.totalLinks, heap.totalCuts, heap.totalHeapifyCosts);
+            long cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
+                                        heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
             maxCost = Math.max(maxCost, cost);
         }
         
         // Perform deleteMin once
-        int linksBefore = heap.totalLinks;
-        int cutsBefore = heap.totalCuts;
-        int heapifyBefore = heap.totalHeapifyCosts;
+        long linksBefore = heap.totalLinks();
+        long cutsBefore = heap.totalCuts();
+        long heapifyBefore = heap.totalHeapifyCosts();
         
         heap.deleteMin();
         
-        int cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
-                                    heap.totalLinks, heap.totalCuts, heap.totalHeapifyCosts);
+        long cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
+                                    heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
         maxCost = Math.max(maxCost, cost);
         
-        long endTime = System.currentTimeMillis();
+        long endTime = System.nanoTime();
         
         result.executionTime = endTime - startTime;
         result.finalSize = heap.size();
@@ -149,38 +195,38 @@ public class HeapExperimentRunner {
     /**
      * Experiment 2: Insert n elements, deleteMin, then delete max keys until 46 elements remain
      */
-    private static ExperimentResult runExperiment2(boolean lazyMelds, boolean lazyDecreaseKeys, int[] permutation) {
+    private static ExperimentResult runExperiment2(int heapType, int[] permutation) {
         ExperimentResult result = new ExperimentResult();
         
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
-        Heap heap = new Heap(lazyMelds, lazyDecreaseKeys);
-        Heap.HeapItem[] nodes = new Heap.HeapItem[N + 1]; // nodes[i] points to node with key i
+        MeldableHeap<String> heap = newHeap(heapType);
+        Heap.HeapItem<String>[] nodes = newItemArray(N + 1); // nodes[i] points to node with key i
         
-        int maxCost = 0;
+        long maxCost = 0;
         
         // Insert n elements
         for (int i = 0; i < N; i++) {
-            int linksBefore = heap.totalLinks;
-            int cutsBefore = heap.totalCuts;
-            int heapifyBefore = heap.totalHeapifyCosts;
+            long linksBefore = heap.totalLinks();
+            long cutsBefore = heap.totalCuts();
+            long heapifyBefore = heap.totalHeapifyCosts();
             
             nodes[permutation[i]] = heap.insert(permutation[i], "");
             
-            int cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
-                                        heap.totalLinks, heap.totalCuts, heap.totalHeapifyCosts);
+            long cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
+                                        heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
             maxCost = Math.max(maxCost, cost);
         }
         
         // Perform deleteMin
-        int linksBefore = heap.totalLinks;
-        int cutsBefore = heap.totalCuts;
-        int heapifyBefore = heap.totalHeapifyCosts;
+        long linksBefore = heap.totalLinks();
+        long cutsBefore = heap.totalCuts();
+        long heapifyBefore = heap.totalHeapifyCosts();
         
         heap.deleteMin();
         
-        int cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
-                                    heap.totalLinks, heap.totalCuts, heap.totalHeapifyCosts);
+        long cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
+                                    heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
         maxCost = Math.max(maxCost, cost);
         
         // Delete maximum keys until only 46 elements remain
@@ -189,29 +235,29 @@ public class HeapExperimentRunner {
         while (heap.size() > 46) {
             // Skip if this key was already deleted (key 1 was deleted by deleteMin)
             if (nodes[currentKey] != null) {
-                linksBefore = heap.totalLinks;
-                cutsBefore = heap.totalCuts;
-                heapifyBefore = heap.totalHeapifyCosts;
+                linksBefore = heap.totalLinks();
+                cutsBefore = heap.totalCuts();
+                heapifyBefore = heap.totalHeapifyCosts();
                 
                 try {
                     heap.delete(nodes[currentKey]);
                 } catch (Exception e) {
                     System.err.println("=== CRASH IN delete ===");
-                    System.err.println("lazyMelds=" + lazyMelds + ", lazyDecreaseKeys=" + lazyDecreaseKeys);
-                    System.err.println("heap.size=" + heap.size() + ", heap.numTrees=" + heap.numTrees);
+                    System.err.println("heap type=" + HEAP_NAMES[heapType]);
+                    System.err.println("heap.size=" + heap.size() + ", heap.numTrees=" + heap.numTrees());
                     System.err.println("currentKey=" + currentKey);
                     throw e;
                 }
                 nodes[currentKey] = null;
                 
                 cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
-                                        heap.totalLinks, heap.totalCuts, heap.totalHeapifyCosts);
+                                        heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
                 maxCost = Math.max(maxCost, cost);
             }
             currentKey--;
         }
         
-        long endTime = System.currentTimeMillis();
+        long endTime = System.nanoTime();
         
         result.executionTime = endTime - startTime;
         result.finalSize = heap.size();
@@ -227,39 +273,39 @@ public class HeapExperimentRunner {
     /**
      * Experiment 3: Insert n elements, deleteMin, decreaseKey for 10% largest to 0, deleteMin again
      */
-    private static ExperimentResult runExperiment3(boolean lazyMelds, boolean lazyDecreaseKeys, int[] permutation) {
+    private static ExperimentResult runExperiment3(int heapType, int[] permutation) {
         ExperimentResult result = new ExperimentResult();
         
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
-        Heap heap = new Heap(lazyMelds, lazyDecreaseKeys);
-        Heap.HeapItem[] nodes = new Heap.HeapItem[N + 1]; // nodes[i] points to node with key i
+        MeldableHeap<String> heap = newHeap(heapType);
+        Heap.HeapItem<String>[] nodes = newItemArray(N + 1); // nodes[i] points to node with key i
         
-        int maxCost = 0;
+        long maxCost = 0;
         
         // Insert n elements
         for (int i = 0; i < N; i++) {
-            int linksBefore = heap.totalLinks;
-            int cutsBefore = heap.totalCuts;
-            int heapifyBefore = heap.totalHeapifyCosts;
+            long linksBefore = heap.totalLinks();
+            long cutsBefore = heap.totalCuts();
+            long heapifyBefore = heap.totalHeapifyCosts();
             
             nodes[permutation[i]] = heap.insert(permutation[i], "");
             
-            int cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
-                                        heap.totalLinks, heap.totalCuts, heap.totalHeapifyCosts);
+            long cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
+                                        heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
             maxCost = Math.max(maxCost, cost);
         }
         
         // Perform first deleteMin
-        int linksBefore = heap.totalLinks;
-        int cutsBefore = heap.totalCuts;
-        int heapifyBefore = heap.totalHeapifyCosts;
+        long linksBefore = heap.totalLinks();
+        long cutsBefore = heap.totalCuts();
+        long heapifyBefore = heap.totalHeapifyCosts();
         
         heap.deleteMin();
         nodes[1] = null; // Key 1 was deleted
         
-        int cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
-                                    heap.totalLinks, heap.totalCuts, heap.totalHeapifyCosts);
+        long cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
+                                    heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
         maxCost = Math.max(maxCost, cost);
         
         // Decrease key to 0 for the 10% largest elements
@@ -269,31 +315,31 @@ public class HeapExperimentRunner {
         
         for (int key = startKey; key <= N; key++) {
             if (nodes[key] != null) {
-                linksBefore = heap.totalLinks;
-                cutsBefore = heap.totalCuts;
-                heapifyBefore = heap.totalHeapifyCosts;
+                linksBefore = heap.totalLinks();
+                cutsBefore = heap.totalCuts();
+                heapifyBefore = heap.totalHeapifyCosts();
                 
                 // Decrease key to 0 (decrease by the current key value)
                 heap.decreaseKey(nodes[key], nodes[key].key);
                 
                 cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
-                                        heap.totalLinks, heap.totalCuts, heap.totalHeapifyCosts);
+                                        heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
                 maxCost = Math.max(maxCost, cost);
             }
         }
         
         // Perform second deleteMin
-        linksBefore = heap.totalLinks;
-        cutsBefore = heap.totalCuts;
-        heapifyBefore = heap.totalHeapifyCosts;
+        linksBefore = heap.totalLinks();
+        cutsBefore = heap.totalCuts();
+        heapifyBefore = heap.totalHeapifyCosts();
         
         heap.deleteMin();
         
         cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
-                                heap.totalLinks, heap.totalCuts, heap.totalHeapifyCosts);
+                                heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
         maxCost = Math.max(maxCost, cost);
         
-        long endTime = System.currentTimeMillis();
+        long endTime = System.nanoTime();
         
         result.executionTime = endTime - startTime;
         result.finalSize = heap.size();
@@ -306,6 +352,82 @@ public class HeapExperimentRunner {
         return result;
     }
 
+    /**
+     * Experiment 4: Insert n elements, deleteMin(), then delete the n/10 smallest
+     * elements, either with deleteMin() one at a time or with deleteMinBatch(BATCH_K)
+     * (Heap configurations only)
+     */
+    private static ExperimentResult runExperiment4(int heapType, int[] permutation, boolean batch) {
+        ExperimentResult result = new ExperimentResult();
+        
+        long startTime = System.nanoTime();
+        
+        MeldableHeap<String> heap = newHeap(heapType);
+        Heap.HeapItem<String>[] out = newItemArray(BATCH_K);
+        
+        long maxCost = 0;
+        
+        // Insert n elements
+        for (int i = 0; i < N; i++) {
+            long linksBefore = heap.totalLinks();
+            long cutsBefore = heap.totalCuts();
+            long heapifyBefore = heap.totalHeapifyCosts();
+            
+            heap.insert(permutation[i], "");
+            
+            long cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
+                                        heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
+            maxCost = Math.max(maxCost, cost);
+        }
+        
+        // Perform deleteMin
+        long linksBefore = heap.totalLinks();
+        long cutsBefore = heap.totalCuts();
+        long heapifyBefore = heap.totalHeapifyCosts();
+        
+        heap.deleteMin();
+        
+        long cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
+                                    heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
+        maxCost = Math.max(maxCost, cost);
+        
+        // Delete the 10% smallest elements, one deleteMin or one batch per operation
+        int remaining = N / 10;
+        while (remaining > 0) {
+            linksBefore = heap.totalLinks();
+            cutsBefore = heap.totalCuts();
+            heapifyBefore = heap.totalHeapifyCosts();
+            
+            if (batch) {
+                remaining -= ((Heap<String>) heap).deleteMinBatch(Math.min(BATCH_K, remaining), out);
+            } else {
+                heap.deleteMin();
+                remaining--;
+            }
+            
+            cost = getOperationCost(linksBefore, cutsBefore, heapifyBefore,
+                                    heap.totalLinks(), heap.totalCuts(), heap.totalHeapifyCosts());
+            maxCost = Math.max(maxCost, cost);
+        }
+        
+        long endTime = System.nanoTime();
+        
+        result.executionTime = endTime - startTime;
+        result.finalSize = heap.size();
+        result.numTrees = heap.numTrees();
+        result.totalLinks = heap.totalLinks();
+        result.totalCuts = heap.totalCuts();
+        result.totalHeapifyCosts = heap.totalHeapifyCosts();
+        result.maxOperationCost = maxCost;
+        
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Heap.HeapItem<V>[] newItemArray(int length) {
+        return (Heap.HeapItem<V>[]) new Heap.HeapItem[length];
+    }
+
     /**
      * Print formatted table header
      */
@@ -325,8 +447,8 @@ public class HeapExperimentRunner {
      * Print a result row
      */
     private static void printResultRow(String heapName, ExperimentResult result) {
-        System.out.printf("| %-20s | %12d | %10d | %10d | %12d | %12d | %16d | %14d |%n",
-                         heapName, result.executionTime, result.finalSize, result.numTrees,
+        System.out.printf("| %-20s | %12.2f | %10d | %10d | %12d | %12d | %16d | %14d |%n",
+                         heapName, result.executionTime / 1e6, result.finalSize, result.numTrees,
                          result.totalLinks, result.totalCuts, result.totalHeapifyCosts, 
                          result.maxOperationCost);
     }
@@ -349,7 +471,7 @@ public class HeapExperimentRunner {
         System.out.println("=".repeat(140));
         
         // Run all experiments
-        for (int exp = 1; exp <= 3; exp++) {
+        for (int exp = 1; exp <= 4; exp++) {
             System.out.println();
             System.out.println("*".repeat(140));
             System.out.print("EXPERIMENT " + exp + ": ");
@@ -363,11 +485,17 @@ public class HeapExperimentRunner {
                 case 3:
                     System.out.println("Insert n elements, deleteMin(), decreaseKey to 0 for 10% largest, deleteMin() again");
                     break;
+                case 4:
+                    System.out.println("Insert n elements, deleteMin(), delete the 10% smallest one by one or with deleteMinBatch("
+                                       + BATCH_K + ")");
+                    break;
             }
             System.out.println("*".repeat(140));
             
-            ExperimentResult[] avgResults = new ExperimentResult[4];
-            for (int i = 0; i < 4; i++) {
+            // experiment 4 adds a deleteMinBatch row for every Heap configuration
+            int numRows = exp == 4 ? NUM_HEAP_TYPES + NUM_HEAP_CONFIGS : NUM_HEAP_TYPES;
+            ExperimentResult[] avgResults = new ExperimentResult[numRows];
+            for (int i = 0; i < numRows; i++) {
                 avgResults[i] = new ExperimentResult();
             }
             
@@ -375,25 +503,26 @@ public class HeapExperimentRunner {
             for (int iter = 0; iter < NUM_ITERATIONS; iter++) {
                 int[] permutation = generateRandomPermutation(N, rand);
                 
-                for (int heapType = 0; heapType < 4; heapType++) {
-                    boolean lazyMelds = HEAP_CONFIGS[heapType][0];
-                    boolean lazyDecreaseKeys = HEAP_CONFIGS[heapType][1];
-                    
+                for (int row = 0; row < numRows; row++) {
+                    int heapType = row < NUM_HEAP_TYPES ? row : row - NUM_HEAP_TYPES;
                     ExperimentResult result;
                     switch (exp) {
                         case 1:
-                            result = runExperiment1(lazyMelds, lazyDecreaseKeys, permutation);
+                            result = runExperiment1(heapType, permutation);
                             break;
                         case 2:
-                            result = runExperiment2(lazyMelds, lazyDecreaseKeys, permutation);
+                            result = runExperiment2(heapType, permutation);
                             break;
                         case 3:
-                            result = runExperiment3(lazyMelds, lazyDecreaseKeys, permutation);
+                            result = runExperiment3(heapType, permutation);
+                            break;
+                        case 4:
+                            result = runExperiment4(heapType, permutation, row >= NUM_HEAP_TYPES);
                             break;
                         default:
                             result = new ExperimentResult();
                     }
-                    avgResults[heapType].add(result);
+                    avgResults[row].add(result);
                 }
                 
                 // Progress indicator
@@ -403,7 +532,7 @@ public class HeapExperimentRunner {
             }
             
             // Calculate averages
-            for (int i = 0; i < 4; i++) {
+            for (int i = 0; i < numRows; i++) {
                 avgResults[i].divideBy(NUM_ITERATIONS);
             }
             
@@ -411,10 +540,18 @@ public class HeapExperimentRunner {
             System.out.println();
             System.out.println("Results (Averaged over " + NUM_ITERATIONS + " iterations):");
             printTableHeader();
-            for (int heapType = 0; heapType < 4; heapType++) {
+            for (int heapType = 0; heapType < NUM_HEAP_TYPES; heapType++) {
                 printResultRow(HEAP_NAMES[heapType], avgResults[heapType]);
             }
             printTableFooter();
+            if (numRows > NUM_HEAP_TYPES) {
+                System.out.println("With deleteMinBatch(" + BATCH_K + "):");
+                printTableHeader();
+                for (int row = NUM_HEAP_TYPES; row < numRows; row++) {
+                    printResultRow(HEAP_NAMES[row - NUM_HEAP_TYPES], avgResults[row]);
+                }
+                printTableFooter();
+            }
         }
         
         System.out.println();
@@ -0,0 +1,59 @@
+/**
+ * HeapObserver
+ *
+ * Callbacks for the structural work inside a Heap, for exporting it to a
+ * metrics system (see Heap.setObserver). Every method has an empty default,
+ * so an observer only overrides what it needs.
+ *
+ * A heap without an observer uses NONE. While NONE is the only observer class
+ * a call site has seen, the JIT inlines its empty methods and the callbacks
+ * cost nothing. The callbacks run on the thread that performs the heap
+ * operation, in the middle of it, so they must not touch the heap.
+ *
+ */
+public interface HeapObserver {
+
+    /**
+     * The observer that ignores everything.
+     */
+    HeapObserver NONE = new HeapObserver() {
+    };
+
+    /**
+     * Two trees of the given rank were linked into one of rank + 1.
+     * The links of a parallel consolidation run on worker threads; they are
+     * reported afterwards on the calling thread, grouped by rank.
+     */
+    default void onLink(int rank) {
+    }
+
+    /**
+     * A subtree whose root had the given rank was cut from its parent.
+     */
+    default void onCut(int rank) {
+    }
+
+    /**
+     * A decreaseKey finished a cascading cut that made depth cuts (at least 1).
+     */
+    default void onCascadingCut(int depth) {
+    }
+
+    /**
+     * A full consolidation of roots trees is starting.
+     */
+    default void onConsolidationStart(int roots) {
+    }
+
+    /**
+     * A full consolidation finished with roots trees after the given number of links.
+     */
+    default void onConsolidationEnd(int roots, long links) {
+    }
+
+    /**
+     * heapifyUp swapped an item with its parent's.
+     */
+    default void onHeapifySwap() {
+    }
+}
@@ -0,0 +1,133 @@
+import java.util.Arrays;
+
+/**
+ * HeapStats
+ *
+ * A snapshot of the shape of a Heap's forest, taken by Heap.snapshot: the
+ * rank histogram of the roots, the deepest node, the number of nodes and
+ * marked nodes per depth, and the length of the root list relative to
+ * log_phi(n), the most trees a fully consolidated heap can have.
+ *
+ * A bounded snapshot (Heap.snapshot(maxNodes)) walks the trees in root-list
+ * order and stops after maxNodes nodes. Its histograms then cover only the
+ * visited nodes and complete is false; size, numTrees and numMarkedNodes are
+ * always the heap's exact counters.
+ *
+ */
+public class HeapStats {
+    public int size;
+    public int numTrees;
+    public int numMarkedNodes;
+
+    public boolean complete;     // false if a bounded snapshot stopped early
+    public int nodesVisited;
+    public int rootsVisited;
+
+    public int[] rootRankCounts; // rootRankCounts[r] = visited roots of rank r
+    public int maxRank;          // highest rank among the visited nodes
+    public int maxDepth;         // deepest visited node, roots have depth 0
+    public int[] nodesPerLevel;  // visited nodes at each depth
+    public int[] markedPerLevel; // visited marked nodes at each depth
+
+    private static final double LOG_PHI = Math.log((1.0 + Math.sqrt(5.0)) / 2.0);
+
+    /**
+     * Constructor for an empty snapshot, filled in by Heap.snapshot.
+     *
+     */
+    HeapStats() {
+        this.complete = true;
+        this.rootRankCounts = new int[0];
+        this.maxRank = 0;
+        this.maxDepth = 0;
+        this.nodesPerLevel = new int[0];
+        this.markedPerLevel = new int[0];
+    }
+
+    /**
+     * Returns the fraction of visited nodes at the given depth that are marked,
+     * or 0 if none were visited there.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public double markedRatio(int level) {
+        if (level >= nodesPerLevel.length || nodesPerLevel[level] == 0) {
+            return 0.0;
+        }
+        return (double) markedPerLevel[level] / nodesPerLevel[level];
+    }
+
+    /**
+     * Returns numTrees / log_phi(size). Values well above 1 mean a long lazy
+     * root list that the next deleteMin will have to consolidate.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public double rootListRatio() {
+        if (size < 2) {
+            return numTrees;
+        }
+        return numTrees / (Math.log(size) / LOG_PHI);
+    }
+
+    /**
+     * Counts a visited node of the given rank at the given depth.
+     *
+     * Time Complexity (WC): O(1) amortized
+     */
+    void visit(int rank, int depth, boolean marked) {
+        nodesVisited++;
+        if (depth == 0) {
+            rootsVisited++;
+            if (rank >= rootRankCounts.length) {
+                rootRankCounts = Arrays.copyOf(rootRankCounts, Math.max(2 * rootRankCounts.length, rank + 1));
+            }
+            rootRankCounts[rank]++;
+        }
+        if (depth >= nodesPerLevel.length) {
+            int length = Math.max(2 * nodesPerLevel.length, depth + 1);
+            nodesPerLevel = Arrays.copyOf(nodesPerLevel, length);
+            markedPerLevel = Arrays.copyOf(markedPerLevel, length);
+        }
+        nodesPerLevel[depth]++;
+        if (marked) {
+            markedPerLevel[depth]++;
+        }
+        maxRank = Math.max(maxRank, rank);
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    /**
+     * Trims the histograms to the ranks and depths that occurred.
+     *
+     */
+    void trim() {
+        int ranks = rootRankCounts.length;
+        while (ranks > 0 && rootRankCounts[ranks - 1] == 0) {
+            ranks--;
+        }
+        rootRankCounts = Arrays.copyOf(rootRankCounts, ranks);
+        int levels = nodesVisited == 0 ? 0 : maxDepth + 1;
+        nodesPerLevel = Arrays.copyOf(nodesPerLevel, levels);
+        markedPerLevel = Arrays.copyOf(markedPerLevel, levels);
+    }
+
+    /**
+     * Returns a multi-line summary of the snapshot.
+     *
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("size=%d trees=%d (%.2f x log_phi(n)) marked=%d%n",
+                size, numTrees, rootListRatio(), numMarkedNodes));
+        sb.append(String.format("visited %d nodes, %d roots%s%n",
+                nodesVisited, rootsVisited, complete ? "" : " (bounded, incomplete)"));
+        sb.append("root ranks: ").append(Arrays.toString(rootRankCounts));
+        sb.append(String.format("%nmax rank=%d max depth=%d%n", maxRank, maxDepth));
+        for (int level = 0; level < nodesPerLevel.length; level++) {
+            sb.append(String.format("  level %d: %d nodes, %.3f marked%n", level, nodesPerLevel[level], markedRatio(level)));
+        }
+        return sb.toString();
+    }
+}
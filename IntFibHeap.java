@@ -0,0 +1,696 @@
+import java.util.Arrays;
+
+/**
+ * IntFibHeap
+ *
+ * A struct-of-arrays version of Heap over int keys. Every node is a slot in
+ * a set of parallel primitive arrays instead of a HeapNode/HeapItem pair, and
+ * items are identified by int handles instead of HeapItem references.
+ * Supports the same lazyMelds / lazyDecreaseKeys configurations as Heap.
+ *
+ * Handles and nodes are kept apart (like HeapItem and HeapNode) because the
+ * non-lazy decrease key moves items between nodes. A handle stays valid until
+ * its item is deleted, after which it may be handed out again by insert.
+ *
+ * Instead of an info object, every item can carry a primitive long payload
+ * (e.g. a job or vertex id), so popping an item needs no side lookup table.
+ *
+ */
+public class IntFibHeap {
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    public final boolean lazyMelds;
+    public final boolean lazyDecreaseKeys;
+    public int size;
+    public int numTrees;
+    public int numMarkedNodes;
+    public long totalLinks;
+    public long totalCuts;
+    public long totalHeapifyCosts;
+
+    // node-indexed arrays
+    private int[] key;
+    private byte[] rank;
+    private boolean[] marked;
+    private int[] parent;
+    private int[] child;
+    private int[] next;
+    private int[] prev;
+    private int[] item; // node -> handle stored in it
+
+    // handle-indexed arrays: handle -> node, or -(nextFreeHandle + 2) for a free handle
+    private int[] node;
+    private long[] payload; // allocated on the first insert with a payload
+
+    private int min;
+    private int head;
+    private int last;
+    private int used;         // slots handed out so far (high-water mark)
+    private int freeNode;     // free node list, threaded through next[]
+    private int freeHandle;   // free handle list, threaded through node[]
+    private int[] bucket;     // scratch array for succesiveLinking
+    private int maxBucketRank;
+
+    /**
+     * Constructor to initialize an empty heap.
+     *
+     */
+    public IntFibHeap(boolean lazyMelds, boolean lazyDecreaseKeys) {
+        this(lazyMelds, lazyDecreaseKeys, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor to initialize an empty heap with room for capacity items.
+     *
+     */
+    public IntFibHeap(boolean lazyMelds, boolean lazyDecreaseKeys, int capacity) {
+        this.lazyMelds = lazyMelds;
+        this.lazyDecreaseKeys = lazyDecreaseKeys;
+        capacity = Math.max(capacity, 1);
+        this.key = new int[capacity];
+        this.rank = new byte[capacity];
+        this.marked = new boolean[capacity];
+        this.parent = new int[capacity];
+        this.child = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.item = new int[capacity];
+        this.node = new int[capacity];
+        this.bucket = new int[0];
+        clear();
+    }
+
+    /**
+     * Inserts a new item with the given key into the heap and returns its handle.
+     *
+     * pre: key > 0
+     *
+     * Time Complexity (WC): O(1), amortized because of array growth
+     */
+    public int insert(int k) {
+        return insert(k, 0L);
+    }
+
+    /**
+     * Inserts a new item with the given key and payload into the heap and returns its handle.
+     *
+     * pre: key > 0
+     *
+     * Time Complexity (WC): O(1), amortized because of array growth
+     */
+    public int insert(int k, long value) {
+        int x = allocNode();
+        int h = allocHandle();
+        key[x] = k;
+        rank[x] = 0;
+        marked[x] = false;
+        parent[x] = NIL;
+        child[x] = NIL;
+        next[x] = x;
+        prev[x] = x;
+        item[x] = h;
+        node[h] = x;
+        if (payload != null) {
+            payload[h] = value;
+        } else if (value != 0L) {
+            payload = new long[node.length];
+            payload[h] = value;
+        }
+
+        size++;
+        addToRootList(x, x, 1);
+        if (min == NIL || k < key[min]) {
+            min = x;
+        }
+
+        // consolidate if not lazy melds
+        if (!lazyMelds && numTrees > 1) {
+            succesiveLinking();
+        }
+        return h;
+    }
+
+    /**
+     * Returns the handle of the minimal item, or -1 if the heap is empty.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int findMin() {
+        return min == NIL ? NIL : item[min];
+    }
+
+    /**
+     * Returns the current key of the item with the given handle.
+     *
+     * pre: contains(handle)
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int key(int handle) {
+        return key[node[handle]];
+    }
+
+    /**
+     * Returns the payload of the item with the given handle (0 if none was given).
+     *
+     * pre: contains(handle)
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long payload(int handle) {
+        return payload == null ? 0L : payload[handle];
+    }
+
+    /**
+     * Returns true if handle refers to an item currently in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean contains(int handle) {
+        return handle >= 0 && handle < used && node[handle] >= 0;
+    }
+
+    /**
+     * Deletes the minimal item from the heap.
+     *
+     * Time Complexity (WC): O(logn), can be O(n) due to consolidation
+     */
+    public void deleteMin() {
+        if (head == NIL) {
+            return; // heap is empty
+        }
+        int m = min;
+        if (size == 1) {
+            release(m);
+            head = NIL;
+            last = NIL;
+            min = NIL;
+            size = 0;
+            numTrees = 0;
+            return;
+        }
+
+        // remove min from the root list
+        if (numTrees == 1) {
+            head = NIL;
+            last = NIL;
+            numTrees = 0;
+        } else {
+            next[prev[m]] = next[m];
+            prev[next[m]] = prev[m];
+            if (head == m) {
+                head = next[m];
+            }
+            if (last == m) {
+                last = prev[m];
+            }
+            numTrees--;
+        }
+        size--;
+        min = NIL;
+
+        // remove marked and parent pointer of the children and promote them
+        int c = child[m];
+        if (c != NIL) {
+            int current = c;
+            do {
+                parent[current] = NIL;
+                if (marked[current]) {
+                    marked[current] = false;
+                    numMarkedNodes--;
+                }
+                current = next[current];
+            } while (current != c);
+            addToRootList(c, prev[c], rank[m]);
+        }
+        release(m);
+
+        // consolidation also finds the new min
+        succesiveLinking();
+    }
+
+    /**
+     * Decreases the key of the item with the given handle by diff and fixes the heap.
+     *
+     * pre: contains(handle) AND 0<=diff<=key(handle)
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    public void decreaseKey(int handle, int diff) {
+        int x = node[handle];
+        key[x] -= diff;
+        if (key[x] < key[min]) {
+            min = x;
+        }
+        if (lazyDecreaseKeys) {
+            if (parent[x] != NIL && key[x] < key[parent[x]]) {
+                cascadingCut(x);
+            }
+        } else {
+            heapifyUp(x);
+        }
+    }
+
+    /**
+     * Deletes the item with the given handle from the heap.
+     *
+     * pre: contains(handle)
+     *
+     * Time Complexity (WC): O(n)
+     */
+    public void delete(int handle) {
+        decreaseKey(handle, Integer.MAX_VALUE);
+        deleteMin();
+    }
+
+    /**
+     * Melds heap2 into the current heap. The nodes of heap2 are copied into this
+     * heap's arrays, so a handle h of heap2 becomes h + offset in this heap, where
+     * offset is the returned value. heap2 is left empty.
+     *
+     * pre: heap2.lazyMelds = this.lazyMelds AND heap2.lazyDecreaseKeys = this.lazyDecreaseKeys
+     *
+     * Time Complexity (WC): O(heap2 slots) to copy, plus O(n) consolidation if lazyMelds is false
+     */
+    public int meld(IntFibHeap heap2) {
+        int offset = used;
+        if (heap2 == null || heap2 == this || heap2.used == 0) {
+            return offset;
+        }
+        ensureCapacity(used + heap2.used);
+
+        // copy heap2's slots behind ours, shifting every link by offset
+        for (int i = 0; i < heap2.used; i++) {
+            int j = i + offset;
+            key[j] = heap2.key[i];
+            rank[j] = heap2.rank[i];
+            marked[j] = heap2.marked[i];
+            parent[j] = shift(heap2.parent[i], offset);
+            child[j] = shift(heap2.child[i], offset);
+            next[j] = shift(heap2.next[i], offset);
+            prev[j] = shift(heap2.prev[i], offset);
+            item[j] = shift(heap2.item[i], offset);
+            node[j] = heap2.node[i] >= 0 ? heap2.node[i] + offset : NIL;
+        }
+        if (heap2.payload != null) {
+            if (payload == null) {
+                payload = new long[node.length];
+            }
+            System.arraycopy(heap2.payload, 0, payload, offset, heap2.used);
+        } else if (payload != null) {
+            // heap2's items have no payload, so clear what earlier items left in these slots
+            Arrays.fill(payload, offset, offset + heap2.used, 0L);
+        }
+        used += heap2.used;
+
+        // reclaim heap2's free slots
+        for (int x = heap2.freeNode; x != NIL; x = heap2.next[x]) {
+            next[x + offset] = freeNode;
+            freeNode = x + offset;
+        }
+        for (int h = heap2.freeHandle; h != NIL; h = -heap2.node[h] - 2) {
+            node[h + offset] = -freeHandle - 2;
+            freeHandle = h + offset;
+        }
+
+        // splice the root lists
+        if (heap2.head != NIL) {
+            addToRootList(heap2.head + offset, heap2.last + offset, heap2.numTrees);
+            if (min == NIL || heap2.key[heap2.min] < key[min]) {
+                min = heap2.min + offset;
+            }
+        }
+        size += heap2.size;
+        numMarkedNodes += heap2.numMarkedNodes;
+        totalLinks += heap2.totalLinks;
+        totalCuts += heap2.totalCuts;
+        totalHeapifyCosts += heap2.totalHeapifyCosts;
+        heap2.clear();
+
+        // consolidate if not lazy melds
+        if (!lazyMelds) {
+            succesiveLinking();
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of trees in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numTrees() {
+        return numTrees;
+    }
+
+    /**
+     * Returns the number of marked nodes in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numMarkedNodes() {
+        return numMarkedNodes;
+    }
+
+    /**
+     * Returns the total number of links performed in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalLinks() {
+        return totalLinks;
+    }
+
+    /**
+     * Returns the total number of cuts performed in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalCuts() {
+        return totalCuts;
+    }
+
+    /**
+     * Returns the total heapify costs.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalHeapifyCosts() {
+        return totalHeapifyCosts;
+    }
+
+    /**
+     * Resets the heap to empty, keeping the allocated arrays.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void clear() {
+        min = NIL;
+        head = NIL;
+        last = NIL;
+        used = 0;
+        freeNode = NIL;
+        freeHandle = NIL;
+        maxBucketRank = -1;
+        size = 0;
+        numTrees = 0;
+        numMarkedNodes = 0;
+        totalLinks = 0;
+        totalCuts = 0;
+        totalHeapifyCosts = 0;
+    }
+
+    private static int shift(int x, int offset) {
+        return x == NIL ? NIL : x + offset;
+    }
+
+    /**
+     * Returns a free node slot, growing the arrays if needed.
+     *
+     * Time Complexity (WC): O(1) amortized
+     */
+    private int allocNode() {
+        if (freeNode != NIL) {
+            int x = freeNode;
+            freeNode = next[x];
+            return x;
+        }
+        ensureCapacity(used + 1);
+        return used; // the matching handle slot is claimed by allocHandle
+    }
+
+    /**
+     * Returns a free handle. Always called right after allocNode.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private int allocHandle() {
+        if (freeHandle != NIL) {
+            int h = freeHandle;
+            freeHandle = -node[h] - 2;
+            return h;
+        }
+        return used++;
+    }
+
+    /**
+     * Returns node x and the handle stored in it to the free lists.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void release(int x) {
+        int h = item[x];
+        node[h] = -freeHandle - 2;
+        freeHandle = h;
+        next[x] = freeNode;
+        freeNode = x;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= key.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, key.length * 2);
+        key = Arrays.copyOf(key, newCapacity);
+        rank = Arrays.copyOf(rank, newCapacity);
+        marked = Arrays.copyOf(marked, newCapacity);
+        parent = Arrays.copyOf(parent, newCapacity);
+        child = Arrays.copyOf(child, newCapacity);
+        next = Arrays.copyOf(next, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+        item = Arrays.copyOf(item, newCapacity);
+        node = Arrays.copyOf(node, newCapacity);
+        if (payload != null) {
+            payload = Arrays.copyOf(payload, newCapacity);
+        }
+    }
+
+    /**
+     * Appends the circular list first..lastNode to the end of the root list.
+     * Does not touch size or min.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void addToRootList(int first, int lastNode, int trees) {
+        if (head == NIL) {
+            head = first;
+            last = lastNode;
+            numTrees = trees;
+            return;
+        }
+        next[last] = first;
+        next[lastNode] = head;
+        prev[head] = lastNode;
+        prev[first] = last;
+        last = lastNode;
+        numTrees += trees;
+    }
+
+    /**
+     * Moves the given node up the tree until the heap property is restored.
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    private void heapifyUp(int x) {
+        while (parent[x] != NIL && key[x] < key[parent[x]]) {
+            int p = parent[x];
+            swapWithParent(x, p);
+            x = p;
+        }
+        if (key[x] < key[min]) {
+            min = x;
+        }
+    }
+
+    /**
+     * Swaps the items stored in node x and its parent p.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void swapWithParent(int x, int p) {
+        totalHeapifyCosts++;
+        int k = key[x];
+        key[x] = key[p];
+        key[p] = k;
+        int h = item[x];
+        item[x] = item[p];
+        item[p] = h;
+        node[item[x]] = x;
+        node[item[p]] = p;
+    }
+
+    /**
+     * Cuts x from its parent and keeps cutting marked ancestors.
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    private void cascadingCut(int x) {
+        int y = parent[x];
+        while (true) {
+            cut(x, y);
+            // if y is a root, stop
+            if (parent[y] == NIL) {
+                return;
+            }
+            // if unmarked, mark it and stop
+            if (!marked[y]) {
+                marked[y] = true;
+                numMarkedNodes++;
+                return;
+            }
+            // else, continue cutting
+            x = y;
+            y = parent[y];
+        }
+    }
+
+    /**
+     * Cuts the link between node x and its parent y, making x a new root.
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
+     */
+    private void cut(int x, int y) {
+        totalCuts++;
+        parent[x] = NIL;
+        if (marked[x]) {
+            numMarkedNodes--;
+        }
+        marked[x] = false;
+        rank[y]--;
+        if (next[x] == x) {
+            child[y] = NIL;
+        } else {
+            child[y] = next[x];
+            next[prev[x]] = next[x];
+            prev[next[x]] = prev[x];
+        }
+        next[x] = x;
+        prev[x] = x;
+
+        addToRootList(x, x, 1);
+        if (key[x] < key[min]) {
+            min = x;
+        }
+        if (!lazyMelds) {
+            succesiveLinking();
+        }
+    }
+
+    /**
+     * Consolidates the heap by linking trees of the same rank, and sets min
+     * to the smallest root.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    private void succesiveLinking() {
+        if (size <= 1) {
+            min = head; // no need to consolidate
+            return;
+        }
+        // max rank is O(log_phi(n)), doubled as in Heap
+        int needed = 2 * ((int) Math.ceil(Math.log(size) / Math.log((1.0 + Math.sqrt(5.0)) / 2.0)) + 1);
+        if (bucket.length < needed) {
+            bucket = new int[needed];
+            Arrays.fill(bucket, NIL);
+        }
+
+        toBucket();
+        fromBucket();
+    }
+
+    /**
+     * Links two trees of the same rank, making the tree with the smaller key the parent.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private int link(int x, int y) {
+        if (key[x] > key[y]) {
+            int temp = x;
+            x = y;
+            y = temp;
+        }
+        int c = child[x];
+        if (c == NIL) {
+            next[y] = y;
+            prev[y] = y;
+        } else {
+            next[y] = next[c];
+            prev[y] = c;
+            prev[next[c]] = y;
+            next[c] = y;
+        }
+        child[x] = y;
+        parent[y] = x;
+        rank[x]++;
+        return x;
+    }
+
+    /**
+     * Inserts all root nodes into the bucket array by rank, linking trees of the same rank.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    private void toBucket() {
+        next[prev[head]] = NIL;
+
+        int x = head;
+        while (x != NIL) {
+            int y = x;
+            x = next[x];
+
+            parent[y] = NIL;
+            next[y] = y;
+            prev[y] = y;
+
+            while (bucket[rank[y]] != NIL) {
+                y = link(y, bucket[rank[y]]);
+                totalLinks++;
+                bucket[rank[y] - 1] = NIL;
+            }
+            bucket[rank[y]] = y;
+            if (rank[y] > maxBucketRank) {
+                maxBucketRank = rank[y];
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the root list from the bucket array, clearing the touched slots.
+     * Finds the new min in the same pass.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    private void fromBucket() {
+        head = NIL;
+        last = NIL;
+        numTrees = 0;
+        min = NIL;
+        int minKey = 0;
+        int maxRank = maxBucketRank;
+        maxBucketRank = -1;
+        for (int i = 0; i <= maxRank; i++) {
+            int b = bucket[i];
+            if (b != NIL) {
+                bucket[i] = NIL;
+                int k = key[b];
+                if (min == NIL || k < minKey) {
+                    min = b;
+                    minKey = k;
+                }
+                next[b] = b;
+                prev[b] = b;
+                addToRootList(b, b, 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,517 @@
+/**
+ * KeyedHeap
+ *
+ * The Fibonacci heap of LongHeap, DoubleHeap and GenericHeap: the same
+ * structure and lazyMelds / lazyDecreaseKeys configurations as Heap, over
+ * items whose key type is left to the subclass. A subclass declares the key
+ * field on its item class, implements less() on it, and adds the insert and
+ * decreaseKey methods for its key type; linking, cutting and consolidation
+ * live here once. The primitive subclasses compare their key fields directly
+ * in less(), so link and heapifyUp never box.
+ *
+ */
+public abstract class KeyedHeap<I extends KeyedHeap.Item<I>> {
+    public final boolean lazyMelds;
+    public final boolean lazyDecreaseKeys;
+    public I min;
+    public I head;
+    public I last;
+    public int size;
+    public int numTrees;
+    public int numMarkedNodes;
+    public long totalLinks;
+    public long totalCuts;
+    public long totalHeapifyCosts;
+
+    private static final double LOG_PHI = Math.log((1.0 + Math.sqrt(5.0)) / 2.0);
+
+    // scratch array for succesiveLinking, reused between consolidations
+    private Node<I>[] bucket;
+    private int maxBucketRank;
+
+    /**
+     * Constructor to initialize an empty heap.
+     *
+     */
+    protected KeyedHeap(boolean lazyMelds, boolean lazyDecreaseKeys) {
+        this.lazyMelds = lazyMelds;
+        this.lazyDecreaseKeys = lazyDecreaseKeys;
+        this.min = null;
+        this.head = null;
+        this.last = null;
+        this.size = 0;
+        this.numTrees = 0;
+        this.numMarkedNodes = 0;
+        this.totalLinks = 0;
+        this.totalCuts = 0;
+        this.totalHeapifyCosts = 0;
+        this.bucket = newBucket(0);
+        this.maxBucketRank = -1;
+    }
+
+    /**
+     * Returns true if the key of a is smaller than the key of b.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    protected abstract boolean less(I a, I b);
+
+    /**
+     * Inserts an item that is not in any heap yet.
+     *
+     * pre: item.node == null
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(logn) otherwise
+     */
+    protected void insertItem(I item) {
+        Node<I> node = new Node<>(item);
+        item.node = node;
+
+        size++;
+        addToRootList(node, node, 1);
+
+        // consolidate if not lazy melds (which also finds the new min), else just update min
+        if (!lazyMelds && numTrees > 1) {
+            succesiveLinking();
+        } else if (min == null || less(item, min)) {
+            min = item;
+        }
+    }
+
+    /**
+     * Returns the minimal item, or null if the heap is empty.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public I findMin() {
+        return min;
+    }
+
+    /**
+     * Deletes the minimal item from the heap.
+     *
+     * Time Complexity (WC): O(logn), can be O(n) due to consolidation
+     */
+    public void deleteMin() {
+        if (head == null) {
+            return; // heap is empty
+        }
+        Node<I> minNode = min.node;
+        removeRoot(minNode);
+        min.node = null;
+        min = null;
+        size--;
+
+        // consolidation also finds the new min
+        succesiveLinking();
+    }
+
+    /**
+     * Fixes the heap after the subclass lowered the key of x.
+     *
+     * pre: contains(x)
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    protected void keyDecreased(I x) {
+        if (less(x, min)) {
+            min = x;
+        }
+        if (lazyDecreaseKeys) {
+            Node<I> parent = x.node.parent;
+            if (parent != null && less(x, parent.item)) {
+                cascadingCut(x.node, parent);
+                if (!lazyMelds) {
+                    succesiveLinking();
+                }
+            }
+        } else {
+            heapifyUp(x.node, false);
+        }
+    }
+
+    /**
+     * Deletes x from the heap. Does nothing if x was already deleted.
+     * Moves x to a root without touching its key, so any key can be deleted.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    public void delete(I x) {
+        if (!contains(x)) {
+            return;
+        }
+        if (x.node.parent != null) {
+            if (lazyDecreaseKeys) {
+                cascadingCut(x.node, x.node.parent);
+            } else {
+                heapifyUp(x.node, true);
+            }
+        }
+        min = x;
+        deleteMin();
+    }
+
+    /**
+     * Returns true if x is currently in the heap, false if it was deleted.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean contains(I x) {
+        return x != null && x.node != null && x.node.item == x;
+    }
+
+    /**
+     * Melds heap2 into the current heap. heap2 must not be used afterwards.
+     *
+     * pre: heap2.lazyMelds = this.lazyMelds AND heap2.lazyDecreaseKeys = this.lazyDecreaseKeys
+     *      AND heap2 orders keys the same way
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
+     */
+    protected void meldHeap(KeyedHeap<I> heap2) {
+        if (heap2 == null || heap2 == this || heap2.head == null) {
+            return; // nothing to meld
+        }
+        addToRootList(heap2.head.node, heap2.last.node, heap2.numTrees);
+        size += heap2.size;
+        numMarkedNodes += heap2.numMarkedNodes;
+        totalLinks += heap2.totalLinks;
+        totalCuts += heap2.totalCuts;
+        totalHeapifyCosts += heap2.totalHeapifyCosts;
+
+        // consolidate if not lazy melds (which also finds the new min), else just update min
+        if (!lazyMelds) {
+            succesiveLinking();
+        } else if (min == null || less(heap2.min, min)) {
+            min = heap2.min;
+        }
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of trees in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numTrees() {
+        return numTrees;
+    }
+
+    /**
+     * Returns the number of marked nodes in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numMarkedNodes() {
+        return numMarkedNodes;
+    }
+
+    /**
+     * Returns the total number of links performed in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalLinks() {
+        return totalLinks;
+    }
+
+    /**
+     * Returns the total number of cuts performed in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalCuts() {
+        return totalCuts;
+    }
+
+    /**
+     * Returns the total heapify costs.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalHeapifyCosts() {
+        return totalHeapifyCosts;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <I extends Item<I>> Node<I>[] newBucket(int length) {
+        return (Node<I>[]) new Node[length];
+    }
+
+    /**
+     * Removes the root x from the root list and promotes its children to roots.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    private void removeRoot(Node<I> x) {
+        if (x.next == x) {
+            head = null;
+            last = null;
+            numTrees = 0;
+        } else {
+            x.prev.next = x.next;
+            x.next.prev = x.prev;
+            if (head.node == x) {
+                head = x.next.item;
+            }
+            if (last.node == x) {
+                last = x.prev.item;
+            }
+            numTrees--;
+        }
+
+        Node<I> child = x.child;
+        if (child != null) {
+            Node<I> current = child;
+            do {
+                current.parent = null;
+                if (current.marked) {
+                    current.marked = false;
+                    numMarkedNodes--;
+                }
+                current = current.next;
+            } while (current != child);
+            addToRootList(child, child.prev, x.rank);
+        }
+        x.child = null;
+    }
+
+    /**
+     * Appends the circular list first..lastNode to the end of the root list.
+     * Does not touch size or min.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void addToRootList(Node<I> first, Node<I> lastNode, int trees) {
+        if (head == null) {
+            head = first.item;
+            last = lastNode.item;
+            numTrees = trees;
+            return;
+        }
+        last.node.next = first;
+        lastNode.next = head.node;
+        head.node.prev = lastNode;
+        first.prev = last.node;
+        last = lastNode.item;
+        numTrees += trees;
+    }
+
+    /**
+     * Moves the given node up the tree until the heap property is restored,
+     * or all the way to the root if force is true.
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    private void heapifyUp(Node<I> node, boolean force) {
+        while (node.parent != null && (force || less(node.item, node.parent.item))) {
+            swapWithParent(node);
+            node = node.parent;
+        }
+        if (less(node.item, min)) {
+            min = node.item;
+        }
+    }
+
+    /**
+     * Swaps the items of the given child node and its parent.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void swapWithParent(Node<I> child) {
+        Node<I> parent = child.parent;
+        I childItem = child.item;
+        I parentItem = parent.item;
+
+        totalHeapifyCosts++;
+        child.item = parentItem;
+        parent.item = childItem;
+        parentItem.node = child;
+        childItem.node = parent;
+
+        // head, last and min follow the nodes, as in Heap
+        if (head == childItem) {
+            head = parentItem;
+        } else if (head == parentItem) {
+            head = childItem;
+        }
+        if (last == childItem) {
+            last = parentItem;
+        } else if (last == parentItem) {
+            last = childItem;
+        }
+        if (min == childItem) {
+            min = parentItem;
+        } else if (min == parentItem) {
+            min = childItem;
+        }
+    }
+
+    /**
+     * Cuts x from its parent y and keeps cutting marked ancestors.
+     * Never consolidates; callers do that once afterwards if needed.
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    private void cascadingCut(Node<I> x, Node<I> y) {
+        while (true) {
+            cut(x, y);
+            if (y.parent == null) {
+                return;
+            }
+            if (!y.marked) {
+                y.marked = true;
+                numMarkedNodes++;
+                return;
+            }
+            x = y;
+            y = y.parent;
+        }
+    }
+
+    /**
+     * Cuts the link between node x and its parent y, making x a new root.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void cut(Node<I> x, Node<I> y) {
+        totalCuts++;
+        x.parent = null;
+        if (x.marked) {
+            x.marked = false;
+            numMarkedNodes--;
+        }
+        y.rank--;
+        if (x.next == x) {
+            y.child = null;
+        } else {
+            y.child = x.next;
+            x.prev.next = x.next;
+            x.next.prev = x.prev;
+        }
+        x.next = x;
+        x.prev = x;
+        addToRootList(x, x, 1);
+    }
+
+    /**
+     * Consolidates the heap by linking trees of the same rank, and sets min
+     * to the smallest root.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    private void succesiveLinking() {
+        if (size <= 1) {
+            min = head; // no need to consolidate
+            return;
+        }
+        int needed = 2 * ((int) Math.ceil(Math.log(size) / LOG_PHI) + 1);
+        if (bucket.length < needed) {
+            bucket = newBucket(needed);
+        }
+
+        // insert all roots into buckets by rank, linking trees of the same rank
+        head.node.prev.next = null;
+        Node<I> x = head.node;
+        while (x != null) {
+            Node<I> y = x;
+            x = x.next;
+            y.next = y;
+            y.prev = y;
+            while (bucket[y.rank] != null) {
+                y = link(y, bucket[y.rank]);
+                totalLinks++;
+                bucket[y.rank - 1] = null;
+            }
+            bucket[y.rank] = y;
+            if (y.rank > maxBucketRank) {
+                maxBucketRank = y.rank;
+            }
+        }
+
+        // rebuild the root list from the buckets, finding the new min
+        head = null;
+        last = null;
+        min = null;
+        numTrees = 0;
+        for (int i = 0; i <= maxBucketRank; i++) {
+            Node<I> b = bucket[i];
+            if (b != null) {
+                bucket[i] = null;
+                b.next = b;
+                b.prev = b;
+                addToRootList(b, b, 1);
+                if (min == null || less(b.item, min)) {
+                    min = b.item;
+                }
+            }
+        }
+        maxBucketRank = -1;
+    }
+
+    /**
+     * Links two trees of the same rank, making the tree with the smaller key the parent.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private Node<I> link(Node<I> x, Node<I> y) {
+        if (less(y.item, x.item)) {
+            Node<I> temp = x;
+            x = y;
+            y = temp;
+        }
+        if (x.child == null) {
+            y.next = y;
+            y.prev = y;
+        } else {
+            y.next = x.child.next;
+            y.prev = x.child;
+            x.child.next.prev = y;
+            x.child.next = y;
+        }
+        x.child = y;
+        y.parent = x;
+        x.rank++;
+        return x;
+    }
+
+    /**
+     * Class implementing a node in a KeyedHeap.
+     *
+     */
+    public static class Node<I extends Item<I>> {
+        public I item;
+        public Node<I> child;
+        public Node<I> next;
+        public Node<I> prev;
+        public Node<I> parent;
+        public int rank;
+        public boolean marked;
+
+        public Node(I item) {
+            this.item = item;
+            this.child = null;
+            this.next = this;
+            this.prev = this;
+            this.parent = null;
+            this.rank = 0;
+            this.marked = false;
+        }
+    }
+
+    /**
+     * Base class of the items of a KeyedHeap; subclasses add the key and the payload.
+     *
+     */
+    public abstract static class Item<I extends Item<I>> {
+        public Node<I> node;
+    }
+}
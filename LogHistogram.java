@@ -0,0 +1,173 @@
+import java.util.Arrays;
+
+/**
+ * LogHistogram
+ *
+ * A histogram of non-negative long values in log-linear buckets, in the style
+ * of HdrHistogram: values below 16 get a bucket each, and every power-of-two
+ * range [2^e, 2^(e+1)) above that is split into 16 equal sub-buckets. A value
+ * is therefore reported with a relative error below 1/16 (6.25%), and the
+ * whole long range fits in a fixed array of 976 counts, so record is O(1) and
+ * never allocates.
+ *
+ * Heap uses it for per-operation latencies (ns) and structural costs
+ * (links + cuts + heapify swaps); see Heap.setInstrumentation.
+ *
+ */
+public class LogHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    /**
+     * Constructor to initialize an empty histogram.
+     *
+     */
+    public LogHistogram() {
+        this.counts = new long[NUM_BUCKETS];
+        this.count = 0;
+        this.sum = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+    /**
+     * Records one value. Negative values are recorded as 0.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[bucketIndex(value)]++;
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Returns the value below which p percent of the recorded values lie, as
+     * the upper end of its bucket (but at most the largest recorded value),
+     * or 0 if nothing was recorded.
+     *
+     * pre: 0 <= p <= 100
+     *
+     * Time Complexity (WC): O(number of buckets)
+     */
+    public long valueAtPercentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the smallest recorded value, or 0 if nothing was recorded.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long min() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * Returns the largest recorded value (exact), or 0 if nothing was recorded.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the exact mean of the recorded values, or 0 if nothing was recorded.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public double mean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Forgets all recorded values.
+     *
+     * Time Complexity (WC): O(number of buckets)
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Returns a one-line summary with the count, mean, p50, p99, p99.9 and max.
+     *
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1f p50=%d p99=%d p99.9=%d max=%d",
+                count, mean(), valueAtPercentile(50), valueAtPercentile(99),
+                valueAtPercentile(99.9), max);
+    }
+
+    /**
+     * Returns the bucket of value: the value itself below SUB_BUCKETS, else the
+     * sub-bucket given by the SUB_BUCKET_BITS bits below the highest set bit.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest value that falls into bucket i.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private static long bucketUpperBound(int i) {
+        if (i < SUB_BUCKETS) {
+            return i;
+        }
+        int shift = i / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + i % SUB_BUCKETS) << shift;
+        return lower + ((1L << shift) - 1);
+    }
+}
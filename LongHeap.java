@@ -0,0 +1,77 @@
+/**
+ * LongHeap
+ *
+ * Heap specialized for long keys, such as nanosecond deadlines.
+ * Same structure and lazyMelds / lazyDecreaseKeys configurations as Heap
+ * (the heap code is in KeyedHeap), with keys compared as primitives so link
+ * and heapifyUp never box.
+ *
+ */
+public class LongHeap<V> extends KeyedHeap<LongHeap.HeapItem<V>> {
+
+    /**
+     * Constructor to initialize an empty heap.
+     *
+     */
+    public LongHeap(boolean lazyMelds, boolean lazyDecreaseKeys) {
+        super(lazyMelds, lazyDecreaseKeys);
+    }
+
+    /**
+     * Inserts a new item with the given key and info into the heap and returns it.
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(logn) otherwise
+     */
+    public HeapItem<V> insert(long key, V info) {
+        HeapItem<V> nodeitem = new HeapItem<>(key, info);
+        insertItem(nodeitem);
+        return nodeitem;
+    }
+
+    /**
+     * Decreases the key of x by diff and fixes the heap.
+     * Does nothing if x was already deleted.
+     *
+     * pre: diff >= 0 AND x.key - diff does not overflow
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    public void decreaseKey(HeapItem<V> x, long diff) {
+        if (!contains(x)) {
+            return;
+        }
+        x.key = x.key - diff;
+        keyDecreased(x);
+    }
+
+    /**
+     * Melds the current heap with heap2. heap2 must not be used afterwards.
+     *
+     * pre: heap2.lazyMelds = this.lazyMelds AND heap2.lazyDecreaseKeys = this.lazyDecreaseKeys
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
+     */
+    public void meld(LongHeap<V> heap2) {
+        meldHeap(heap2);
+    }
+
+    @Override
+    protected boolean less(HeapItem<V> a, HeapItem<V> b) {
+        return a.key < b.key;
+    }
+
+    /**
+     * Class implementing an item in a LongHeap.
+     *
+     */
+    public static class HeapItem<V> extends KeyedHeap.Item<HeapItem<V>> {
+        public long key;
+        public V info;
+
+        public HeapItem(long key, V info) {
+            this.key = key;
+            this.info = info;
+            this.node = null;
+        }
+    }
+}
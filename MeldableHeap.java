@@ -0,0 +1,79 @@
+/**
+ * MeldableHeap
+ *
+ * The operations shared by the meldable heaps over positive integer keys
+ * (Heap, PairingHeap, RankPairingHeap, DaryHeap and the monotone RadixHeap),
+ * so callers and experiments can switch between them without other changes.
+ * All of them hand out Heap.HeapItem handles and count their work in links,
+ * cuts and heapify swaps.
+ *
+ */
+public interface MeldableHeap<V> {
+
+    /**
+     * Inserts a new item with the given key and info into the heap and returns it.
+     *
+     * pre: key > 0
+     */
+    Heap.HeapItem<V> insert(int key, V info);
+
+    /**
+     * Returns the minimal item, or null if the heap is empty.
+     */
+    Heap.HeapItem<V> findMin();
+
+    /**
+     * Deletes the minimal item from the heap.
+     */
+    void deleteMin();
+
+    /**
+     * Decreases the key of x by diff. Returns false and does nothing if x is
+     * not in the heap (it was deleted, or its node now belongs to another item).
+     *
+     * pre: 0<=diff<=x.key
+     */
+    boolean decreaseKey(Heap.HeapItem<V> x, int diff);
+
+    /**
+     * Deletes x from the heap. Returns false and does nothing if x is not in the heap.
+     */
+    boolean delete(Heap.HeapItem<V> x);
+
+    /**
+     * Returns true if x is currently in the heap, false if it was deleted.
+     */
+    boolean contains(Heap.HeapItem<V> x);
+
+    /**
+     * Melds heap2 into this heap. heap2 must not be used afterwards.
+     *
+     * pre: heap2 has the same class (and configuration) as this heap
+     */
+    void meld(MeldableHeap<V> heap2);
+
+    /**
+     * Returns the number of elements in the heap.
+     */
+    int size();
+
+    /**
+     * Returns the number of trees in the heap.
+     */
+    int numTrees();
+
+    /**
+     * Returns the number of links performed so far.
+     */
+    long totalLinks();
+
+    /**
+     * Returns the number of cuts performed so far.
+     */
+    long totalCuts();
+
+    /**
+     * Returns the number of heapify swaps performed so far.
+     */
+    long totalHeapifyCosts();
+}
@@ -0,0 +1,225 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MpscHeap
+ *
+ * A Heap for many producer threads and a single consumer thread. insert and
+ * meld may be called from any thread without locking: they only push an entry
+ * onto a lock-free staging stack. The consumer thread owns the underlying
+ * Heap and splices all staged entries into its root list at the start of each
+ * of its operations (findMin, deleteMin, decreaseKey, delete, size and the
+ * statistics getters), so it always sees every insert that completed before
+ * the call.
+ *
+ */
+public class MpscHeap<V> {
+    public final boolean lazyMelds;
+    public final boolean lazyDecreaseKeys;
+
+    private final Heap<V> heap;                      // owned by the consumer thread
+    private final AtomicReference<Staged<V>> staged; // top of the staging stack
+
+    /**
+     * Constructor to initialize an empty heap.
+     *
+     */
+    public MpscHeap(boolean lazyMelds, boolean lazyDecreaseKeys) {
+        this.lazyMelds = lazyMelds;
+        this.lazyDecreaseKeys = lazyDecreaseKeys;
+        this.heap = new Heap<>(lazyMelds, lazyDecreaseKeys);
+        this.staged = new AtomicReference<>();
+    }
+
+    /**
+     * Stages a new item with the given key and info and returns it. Safe to call from any thread.
+     * The item becomes part of the heap at the consumer's next operation.
+     *
+     * pre: key > 0
+     *
+     * Time Complexity (WC): O(1) plus CAS retries
+     */
+    public Heap.HeapItem<V> insert(int key, V info) {
+        Heap.HeapItem<V> item = new Heap.HeapItem<>(key, info);
+        push(new Staged<>(item, null));
+        return item;
+    }
+
+    /**
+     * Stages heap2 to be melded into this heap. Safe to call from any thread.
+     * heap2 must not be used by the caller afterwards.
+     *
+     * pre: heap2 has the same lazyMelds and lazyDecreaseKeys flags as this heap
+     *
+     * Time Complexity (WC): O(1) plus CAS retries
+     */
+    public void meld(Heap<V> heap2) {
+        if (heap2 == null || heap2.size() == 0) {
+            return;
+        }
+        push(new Staged<>(null, heap2));
+    }
+
+    /**
+     * Returns the minimal item, or null if the heap is empty. Consumer thread only.
+     *
+     * Time Complexity (WC): O(k) for k staged entries (lazyMelds), O(1) otherwise
+     */
+    public Heap.HeapItem<V> findMin() {
+        drain();
+        return heap.findMin();
+    }
+
+    /**
+     * Deletes the minimal item from the heap. Consumer thread only.
+     *
+     * Time Complexity (WC): O(n + k) for k staged entries
+     */
+    public void deleteMin() {
+        drain();
+        heap.deleteMin();
+    }
+
+    /**
+     * Decreases the key of x by diff. Returns false and does nothing if x was
+     * already deleted. Consumer thread only.
+     *
+     * pre: x was inserted into (or melded into) this heap AND 0<=diff<=x.key
+     *
+     * Time Complexity (WC): O(n + k) for k staged entries
+     */
+    public boolean decreaseKey(Heap.HeapItem<V> x, int diff) {
+        drain();
+        return heap.decreaseKey(x, diff);
+    }
+
+    /**
+     * Deletes x from the heap. Returns false and does nothing if x was already
+     * deleted. Consumer thread only.
+     *
+     * Time Complexity (WC): O(n + k) for k staged entries
+     */
+    public boolean delete(Heap.HeapItem<V> x) {
+        drain();
+        return heap.delete(x);
+    }
+
+    /**
+     * Turns on proactive consolidation of the underlying heap (see
+     * Heap.setProactiveConsolidation), which then also applies while staged
+     * entries are drained. Consumer thread only.
+     *
+     * Time Complexity (WC): O(n + k) for k staged entries
+     */
+    public void setProactiveConsolidation(double c) {
+        drain();
+        heap.setProactiveConsolidation(c);
+    }
+
+    /**
+     * Drains the staged entries and consolidates the root list, so the next
+     * deleteMin finds a compact forest. Meant for a consumer that is idle, e.g.
+     * waiting for work. Consumer thread only.
+     *
+     * Time Complexity (WC): O(n + k) for k staged entries
+     */
+    public void consolidate() {
+        drain();
+        heap.consolidate();
+    }
+
+    /**
+     * Returns the number of elements in the heap, including staged ones. Consumer thread only.
+     *
+     * Time Complexity (WC): O(k) for k staged entries (lazyMelds)
+     */
+    public int size() {
+        drain();
+        return heap.size();
+    }
+
+    /**
+     * Returns the number of links performed so far. Consumer thread only.
+     *
+     * Time Complexity (WC): O(k) for k staged entries (lazyMelds)
+     */
+    public long totalLinks() {
+        drain();
+        return heap.totalLinks();
+    }
+
+    /**
+     * Returns the number of cuts performed so far. Consumer thread only.
+     *
+     * Time Complexity (WC): O(k) for k staged entries (lazyMelds)
+     */
+    public long totalCuts() {
+        drain();
+        return heap.totalCuts();
+    }
+
+    /**
+     * Returns the total heapify costs so far. Consumer thread only.
+     *
+     * Time Complexity (WC): O(k) for k staged entries (lazyMelds)
+     */
+    public long totalHeapifyCosts() {
+        drain();
+        return heap.totalHeapifyCosts();
+    }
+
+    /**
+     * Pushes an entry onto the staging stack (Treiber stack).
+     *
+     */
+    private void push(Staged<V> entry) {
+        Staged<V> top;
+        do {
+            top = staged.get();
+            entry.next = top;
+        } while (!staged.compareAndSet(top, entry));
+    }
+
+    /**
+     * Takes the whole staging stack at once and adds its entries to the heap in the
+     * order they were pushed.
+     *
+     */
+    private void drain() {
+        if (staged.get() == null) {
+            return;
+        }
+        Staged<V> entry = staged.getAndSet(null);
+
+        // reverse the stack so entries are added in push order
+        Staged<V> ordered = null;
+        while (entry != null) {
+            Staged<V> next = entry.next;
+            entry.next = ordered;
+            ordered = entry;
+            entry = next;
+        }
+
+        for (; ordered != null; ordered = ordered.next) {
+            if (ordered.item != null) {
+                heap.insertItem(ordered.item);
+            } else {
+                heap.meld(ordered.heap);
+            }
+        }
+    }
+
+    /**
+     * An entry of the staging stack: either a single item or a whole heap to meld.
+     *
+     */
+    private static final class Staged<V> {
+        final Heap.HeapItem<V> item;
+        final Heap<V> heap;
+        Staged<V> next;
+
+        Staged(Heap.HeapItem<V> item, Heap<V> heap) {
+            this.item = item;
+            this.heap = heap;
+        }
+    }
+}
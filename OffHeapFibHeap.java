@@ -0,0 +1,759 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * OffHeapFibHeap
+ *
+ * The IntFibHeap layout moved out of the Java heap: every node is a fixed-size
+ * slot in an arena of direct ByteBuffers, and links between nodes are int slot
+ * indices, so the garbage collector has nothing to trace no matter how big the
+ * heap grows. Handles and operations are the same as IntFibHeap.
+ *
+ * The arena grows one chunk at a time and is only released by close(). Deleted
+ * slots go on a free list and are reused by later inserts.
+ *
+ */
+public class OffHeapFibHeap implements AutoCloseable {
+    private static final int NIL = -1;
+
+    // slot layout (bytes)
+    private static final int KEY = 0;
+    private static final int PARENT = 4;
+    private static final int CHILD = 8;
+    private static final int NEXT = 12;
+    private static final int PREV = 16;
+    private static final int ITEM = 20;   // node -> handle stored in it
+    private static final int NODE = 24;   // handle -> node, or -(nextFreeHandle + 2) for a free handle
+    private static final int RANK = 28;
+    private static final int MARKED = 29;
+    private static final int SLOT_SHIFT = 5; // 32 bytes per slot
+
+    private static final int CHUNK_SHIFT = 16; // 65536 slots (2MB) per chunk
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    // sun.misc.Unsafe.invokeCleaner, used to free chunks without waiting for the GC
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    public final boolean lazyMelds;
+    public final boolean lazyDecreaseKeys;
+    public int size;
+    public int numTrees;
+    public int numMarkedNodes;
+    public long totalLinks;
+    public long totalCuts;
+    public long totalHeapifyCosts;
+
+    private ByteBuffer[] chunks;
+    private int numChunks;
+    private boolean closed;
+
+    private int min;
+    private int head;
+    private int last;
+    private int used;         // slots handed out so far (high-water mark)
+    private int freeNode;     // free node list, threaded through NEXT
+    private int freeHandle;   // free handle list, threaded through NODE
+    private int[] bucket;     // scratch array for succesiveLinking
+    private int maxBucketRank;
+
+    /**
+     * Constructor to initialize an empty heap. No native memory is reserved
+     * until the first insert.
+     *
+     */
+    public OffHeapFibHeap(boolean lazyMelds, boolean lazyDecreaseKeys) {
+        this.lazyMelds = lazyMelds;
+        this.lazyDecreaseKeys = lazyDecreaseKeys;
+        this.chunks = new ByteBuffer[4];
+        this.numChunks = 0;
+        this.closed = false;
+        this.bucket = new int[0];
+        clear();
+    }
+
+    /**
+     * Inserts a new item with the given key into the heap and returns its handle.
+     *
+     * pre: key > 0
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int insert(int k) {
+        checkOpen();
+        int x = allocNode();
+        int h = allocHandle();
+        setInt(x, KEY, k);
+        setByte(x, RANK, 0);
+        setByte(x, MARKED, 0);
+        setInt(x, PARENT, NIL);
+        setInt(x, CHILD, NIL);
+        setInt(x, NEXT, x);
+        setInt(x, PREV, x);
+        setInt(x, ITEM, h);
+        setInt(h, NODE, x);
+
+        size++;
+        addToRootList(x, x, 1);
+        if (min == NIL || k < getInt(min, KEY)) {
+            min = x;
+        }
+
+        // consolidate if not lazy melds
+        if (!lazyMelds && numTrees > 1) {
+            succesiveLinking();
+        }
+        return h;
+    }
+
+    /**
+     * Returns the handle of the minimal item, or -1 if the heap is empty.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int findMin() {
+        checkOpen();
+        return min == NIL ? NIL : getInt(min, ITEM);
+    }
+
+    /**
+     * Returns the current key of the item with the given handle.
+     *
+     * pre: contains(handle)
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int key(int handle) {
+        checkOpen();
+        return getInt(getInt(handle, NODE), KEY);
+    }
+
+    /**
+     * Returns true if handle refers to an item currently in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean contains(int handle) {
+        checkOpen();
+        return handle >= 0 && handle < used && getInt(handle, NODE) >= 0;
+    }
+
+    /**
+     * Deletes the minimal item from the heap.
+     *
+     * Time Complexity (WC): O(logn), can be O(n) due to consolidation
+     */
+    public void deleteMin() {
+        checkOpen();
+        if (head == NIL) {
+            return; // heap is empty
+        }
+        int m = min;
+        if (size == 1) {
+            release(m);
+            head = NIL;
+            last = NIL;
+            min = NIL;
+            size = 0;
+            numTrees = 0;
+            return;
+        }
+
+        // remove min from the root list
+        if (numTrees == 1) {
+            head = NIL;
+            last = NIL;
+            numTrees = 0;
+        } else {
+            int mNext = getInt(m, NEXT);
+            int mPrev = getInt(m, PREV);
+            setInt(mPrev, NEXT, mNext);
+            setInt(mNext, PREV, mPrev);
+            if (head == m) {
+                head = mNext;
+            }
+            if (last == m) {
+                last = mPrev;
+            }
+            numTrees--;
+        }
+        size--;
+        min = NIL;
+
+        // remove marked and parent pointer of the children and promote them
+        int c = getInt(m, CHILD);
+        if (c != NIL) {
+            int current = c;
+            do {
+                setInt(current, PARENT, NIL);
+                if (getByte(current, MARKED) != 0) {
+                    setByte(current, MARKED, 0);
+                    numMarkedNodes--;
+                }
+                current = getInt(current, NEXT);
+            } while (current != c);
+            addToRootList(c, getInt(c, PREV), getByte(m, RANK));
+        }
+        release(m);
+
+        // consolidation also finds the new min
+        succesiveLinking();
+    }
+
+    /**
+     * Decreases the key of the item with the given handle by diff and fixes the heap.
+     *
+     * pre: contains(handle) AND 0<=diff<=key(handle)
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    public void decreaseKey(int handle, int diff) {
+        checkOpen();
+        int x = getInt(handle, NODE);
+        int k = getInt(x, KEY) - diff;
+        setInt(x, KEY, k);
+        if (k < getInt(min, KEY)) {
+            min = x;
+        }
+        if (lazyDecreaseKeys) {
+            int p = getInt(x, PARENT);
+            if (p != NIL && k < getInt(p, KEY)) {
+                cascadingCut(x);
+            }
+        } else {
+            heapifyUp(x);
+        }
+    }
+
+    /**
+     * Deletes the item with the given handle from the heap.
+     *
+     * pre: contains(handle)
+     *
+     * Time Complexity (WC): O(n)
+     */
+    public void delete(int handle) {
+        decreaseKey(handle, Integer.MAX_VALUE);
+        deleteMin();
+    }
+
+    /**
+     * Melds heap2 into the current heap. The slots of heap2 are copied into this
+     * heap's arena, so a handle h of heap2 becomes h + offset in this heap, where
+     * offset is the returned value. heap2 is closed afterwards.
+     *
+     * pre: heap2.lazyMelds = this.lazyMelds AND heap2.lazyDecreaseKeys = this.lazyDecreaseKeys
+     *
+     * Time Complexity (WC): O(heap2 slots) to copy, plus O(n) consolidation if lazyMelds is false
+     */
+    public int meld(OffHeapFibHeap heap2) {
+        checkOpen();
+        int offset = used;
+        if (heap2 == null || heap2 == this || heap2.closed) {
+            return offset;
+        }
+        if (heap2.used == 0) {
+            heap2.close();
+            return offset;
+        }
+        ensureCapacity(used + heap2.used);
+
+        // copy heap2's slots behind ours, shifting every link by offset
+        for (int i = 0; i < heap2.used; i++) {
+            int j = i + offset;
+            setInt(j, KEY, heap2.getInt(i, KEY));
+            setByte(j, RANK, heap2.getByte(i, RANK));
+            setByte(j, MARKED, heap2.getByte(i, MARKED));
+            setInt(j, PARENT, shift(heap2.getInt(i, PARENT), offset));
+            setInt(j, CHILD, shift(heap2.getInt(i, CHILD), offset));
+            setInt(j, NEXT, shift(heap2.getInt(i, NEXT), offset));
+            setInt(j, PREV, shift(heap2.getInt(i, PREV), offset));
+            setInt(j, ITEM, shift(heap2.getInt(i, ITEM), offset));
+            int n = heap2.getInt(i, NODE);
+            setInt(j, NODE, n >= 0 ? n + offset : NIL);
+        }
+        used += heap2.used;
+
+        // reclaim heap2's free slots
+        for (int x = heap2.freeNode; x != NIL; x = heap2.getInt(x, NEXT)) {
+            setInt(x + offset, NEXT, freeNode);
+            freeNode = x + offset;
+        }
+        for (int h = heap2.freeHandle; h != NIL; h = -heap2.getInt(h, NODE) - 2) {
+            setInt(h + offset, NODE, -freeHandle - 2);
+            freeHandle = h + offset;
+        }
+
+        // splice the root lists
+        if (heap2.head != NIL) {
+            addToRootList(heap2.head + offset, heap2.last + offset, heap2.numTrees);
+            if (min == NIL || heap2.getInt(heap2.min, KEY) < getInt(min, KEY)) {
+                min = heap2.min + offset;
+            }
+        }
+        size += heap2.size;
+        numMarkedNodes += heap2.numMarkedNodes;
+        totalLinks += heap2.totalLinks;
+        totalCuts += heap2.totalCuts;
+        totalHeapifyCosts += heap2.totalHeapifyCosts;
+        heap2.close();
+
+        // consolidate if not lazy melds
+        if (!lazyMelds) {
+            succesiveLinking();
+        }
+        return offset;
+    }
+
+    /**
+     * Frees the native memory of the heap. The heap is empty and unusable afterwards.
+     *
+     * Time Complexity (WC): O(number of chunks)
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        for (int i = 0; i < numChunks; i++) {
+            freeChunk(chunks[i]);
+            chunks[i] = null;
+        }
+        numChunks = 0;
+        closed = true;
+        clear();
+    }
+
+    /**
+     * Returns the number of bytes of native memory reserved by the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long reservedBytes() {
+        return (long) numChunks << (CHUNK_SHIFT + SLOT_SHIFT);
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of trees in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numTrees() {
+        return numTrees;
+    }
+
+    /**
+     * Returns the number of marked nodes in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numMarkedNodes() {
+        return numMarkedNodes;
+    }
+
+    /**
+     * Returns the total number of links performed in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalLinks() {
+        return totalLinks;
+    }
+
+    /**
+     * Returns the total number of cuts performed in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalCuts() {
+        return totalCuts;
+    }
+
+    /**
+     * Returns the total heapify costs.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalHeapifyCosts() {
+        return totalHeapifyCosts;
+    }
+
+    // ==================== ARENA ====================
+
+    private int getInt(int slot, int field) {
+        return chunks[slot >>> CHUNK_SHIFT].getInt(((slot & CHUNK_MASK) << SLOT_SHIFT) + field);
+    }
+
+    private void setInt(int slot, int field, int value) {
+        chunks[slot >>> CHUNK_SHIFT].putInt(((slot & CHUNK_MASK) << SLOT_SHIFT) + field, value);
+    }
+
+    private int getByte(int slot, int field) {
+        return chunks[slot >>> CHUNK_SHIFT].get(((slot & CHUNK_MASK) << SLOT_SHIFT) + field);
+    }
+
+    private void setByte(int slot, int field, int value) {
+        chunks[slot >>> CHUNK_SHIFT].put(((slot & CHUNK_MASK) << SLOT_SHIFT) + field, (byte) value);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("heap is closed");
+        }
+    }
+
+    /**
+     * Makes sure slots [0, capacity) are backed by a chunk.
+     *
+     * Time Complexity (WC): O(number of new chunks)
+     */
+    private void ensureCapacity(int capacity) {
+        while ((long) numChunks << CHUNK_SHIFT < capacity) {
+            if (numChunks == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            chunks[numChunks++] = ByteBuffer.allocateDirect(1 << (CHUNK_SHIFT + SLOT_SHIFT))
+                    .order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Releases a direct buffer right away if the JDK allows it, otherwise leaves it to the GC.
+     *
+     */
+    private static void freeChunk(ByteBuffer chunk) {
+        if (INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, chunk);
+            } catch (ReflectiveOperationException e) {
+                // fall back to the GC-driven cleaner
+            }
+        }
+    }
+
+
+    // ==================== HEAP ====================
+
+    /**
+     * Resets the heap to empty, keeping the reserved chunks.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void clear() {
+        min = NIL;
+        head = NIL;
+        last = NIL;
+        used = 0;
+        freeNode = NIL;
+        freeHandle = NIL;
+        maxBucketRank = -1;
+        size = 0;
+        numTrees = 0;
+        numMarkedNodes = 0;
+        totalLinks = 0;
+        totalCuts = 0;
+        totalHeapifyCosts = 0;
+    }
+
+    private static int shift(int x, int offset) {
+        return x == NIL ? NIL : x + offset;
+    }
+
+    /**
+     * Returns a free node slot, reserving a new chunk if needed.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private int allocNode() {
+        if (freeNode != NIL) {
+            int x = freeNode;
+            freeNode = getInt(x, NEXT);
+            return x;
+        }
+        ensureCapacity(used + 1);
+        return used; // the matching handle slot is claimed by allocHandle
+    }
+
+    /**
+     * Returns a free handle. Always called right after allocNode.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private int allocHandle() {
+        if (freeHandle != NIL) {
+            int h = freeHandle;
+            freeHandle = -getInt(h, NODE) - 2;
+            return h;
+        }
+        return used++;
+    }
+
+    /**
+     * Returns node x and the handle stored in it to the free lists.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void release(int x) {
+        int h = getInt(x, ITEM);
+        setInt(h, NODE, -freeHandle - 2);
+        freeHandle = h;
+        setInt(x, NEXT, freeNode);
+        freeNode = x;
+    }
+
+    /**
+     * Appends the circular list first..lastNode to the end of the root list.
+     * Does not touch size or min.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void addToRootList(int first, int lastNode, int trees) {
+        if (head == NIL) {
+            head = first;
+            last = lastNode;
+            numTrees = trees;
+            return;
+        }
+        setInt(last, NEXT, first);
+        setInt(lastNode, NEXT, head);
+        setInt(head, PREV, lastNode);
+        setInt(first, PREV, last);
+        last = lastNode;
+        numTrees += trees;
+    }
+
+    /**
+     * Moves the given node up the tree until the heap property is restored.
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    private void heapifyUp(int x) {
+        int p = getInt(x, PARENT);
+        while (p != NIL && getInt(x, KEY) < getInt(p, KEY)) {
+            swapWithParent(x, p);
+            x = p;
+            p = getInt(x, PARENT);
+        }
+        if (getInt(x, KEY) < getInt(min, KEY)) {
+            min = x;
+        }
+    }
+
+    /**
+     * Swaps the items stored in node x and its parent p.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void swapWithParent(int x, int p) {
+        totalHeapifyCosts++;
+        int k = getInt(x, KEY);
+        setInt(x, KEY, getInt(p, KEY));
+        setInt(p, KEY, k);
+        int hx = getInt(x, ITEM);
+        int hp = getInt(p, ITEM);
+        setInt(x, ITEM, hp);
+        setInt(p, ITEM, hx);
+        setInt(hp, NODE, x);
+        setInt(hx, NODE, p);
+    }
+
+    /**
+     * Cuts x from its parent and keeps cutting marked ancestors.
+     *
+     * Time Complexity (WC): O(log n)
+     */
+    private void cascadingCut(int x) {
+        int y = getInt(x, PARENT);
+        while (true) {
+            cut(x, y);
+            int yParent = getInt(y, PARENT);
+            // if y is a root, stop
+            if (yParent == NIL) {
+                return;
+            }
+            // if unmarked, mark it and stop
+            if (getByte(y, MARKED) == 0) {
+                setByte(y, MARKED, 1);
+                numMarkedNodes++;
+                return;
+            }
+            // else, continue cutting
+            x = y;
+            y = yParent;
+        }
+    }
+
+    /**
+     * Cuts the link between node x and its parent y, making x a new root.
+     *
+     * Time Complexity (WC): O(1) if lazyMelds is true, O(n) otherwise
+     */
+    private void cut(int x, int y) {
+        totalCuts++;
+        setInt(x, PARENT, NIL);
+        if (getByte(x, MARKED) != 0) {
+            numMarkedNodes--;
+        }
+        setByte(x, MARKED, 0);
+        setByte(y, RANK, getByte(y, RANK) - 1);
+        int xNext = getInt(x, NEXT);
+        if (xNext == x) {
+            setInt(y, CHILD, NIL);
+        } else {
+            int xPrev = getInt(x, PREV);
+            setInt(y, CHILD, xNext);
+            setInt(xPrev, NEXT, xNext);
+            setInt(xNext, PREV, xPrev);
+        }
+        setInt(x, NEXT, x);
+        setInt(x, PREV, x);
+
+        addToRootList(x, x, 1);
+        if (getInt(x, KEY) < getInt(min, KEY)) {
+            min = x;
+        }
+        if (!lazyMelds) {
+            succesiveLinking();
+        }
+    }
+
+    /**
+     * Consolidates the heap by linking trees of the same rank, and sets min
+     * to the smallest root.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    private void succesiveLinking() {
+        if (size <= 1) {
+            min = head; // no need to consolidate
+            return;
+        }
+        // max rank is O(log_phi(n)), doubled as in Heap
+        int needed = 2 * ((int) Math.ceil(Math.log(size) / Math.log((1.0 + Math.sqrt(5.0)) / 2.0)) + 1);
+        if (bucket.length < needed) {
+            bucket = new int[needed];
+            Arrays.fill(bucket, NIL);
+        }
+
+        toBucket();
+        fromBucket();
+    }
+
+    /**
+     * Links two trees of the same rank, making the tree with the smaller key the parent.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private int link(int x, int y) {
+        if (getInt(x, KEY) > getInt(y, KEY)) {
+            int temp = x;
+            x = y;
+            y = temp;
+        }
+        int c = getInt(x, CHILD);
+        if (c == NIL) {
+            setInt(y, NEXT, y);
+            setInt(y, PREV, y);
+        } else {
+            int cNext = getInt(c, NEXT);
+            setInt(y, NEXT, cNext);
+            setInt(y, PREV, c);
+            setInt(cNext, PREV, y);
+            setInt(c, NEXT, y);
+        }
+        setInt(x, CHILD, y);
+        setInt(y, PARENT, x);
+        setByte(x, RANK, getByte(x, RANK) + 1);
+        return x;
+    }
+
+    /**
+     * Inserts all root nodes into the bucket array by rank, linking trees of the same rank.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    private void toBucket() {
+        setInt(getInt(head, PREV), NEXT, NIL);
+
+        int x = head;
+        while (x != NIL) {
+            int y = x;
+            x = getInt(x, NEXT);
+
+            setInt(y, PARENT, NIL);
+            setInt(y, NEXT, y);
+            setInt(y, PREV, y);
+
+            int r = getByte(y, RANK);
+            while (bucket[r] != NIL) {
+                y = link(y, bucket[r]);
+                totalLinks++;
+                bucket[r] = NIL;
+                r++;
+            }
+            bucket[r] = y;
+            if (r > maxBucketRank) {
+                maxBucketRank = r;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the root list from the bucket array, clearing the touched slots.
+     * Finds the new min in the same pass.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    private void fromBucket() {
+        head = NIL;
+        last = NIL;
+        numTrees = 0;
+        min = NIL;
+        int minKey = 0;
+        int maxRank = maxBucketRank;
+        maxBucketRank = -1;
+        for (int i = 0; i <= maxRank; i++) {
+            int b = bucket[i];
+            if (b != NIL) {
+                bucket[i] = NIL;
+                int k = getInt(b, KEY);
+                if (min == NIL || k < minKey) {
+                    min = b;
+                    minKey = k;
+                }
+                setInt(b, NEXT, b);
+                setInt(b, PREV, b);
+                addToRootList(b, b, 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/**
+ * PairingHeap
+ *
+ * A two-pass pairing heap over positive integers. The heap is a single
+ * heap-ordered tree whose children are kept in a sibling list; deleteMin
+ * pairs up the children of the root left to right and then melds the pairs
+ * right to left.
+ *
+ * The nodes are Heap.HeapNode objects with child = leftmost child,
+ * next = right sibling and prev = left sibling (or the parent for a leftmost
+ * child); parent, rank and marked are unused. Every comparison-based merge of
+ * two trees counts as a link, and every decreaseKey or delete that detaches a
+ * subtree counts as a cut.
+ *
+ */
+public class PairingHeap<V> implements MeldableHeap<V> {
+    public Heap.HeapNode<V> root;
+    public int size;
+    public long totalLinks;
+    public long totalCuts;
+
+    /**
+     * Constructor to initialize an empty heap.
+     *
+     */
+    public PairingHeap() {
+        this.root = null;
+        this.size = 0;
+        this.totalLinks = 0;
+        this.totalCuts = 0;
+    }
+
+    /**
+     * Inserts a new item with the given key and info into the heap and returns it.
+     *
+     * pre: key > 0
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public Heap.HeapItem<V> insert(int key, V info) {
+        Heap.HeapItem<V> item = new Heap.HeapItem<>(key, info);
+        Heap.HeapNode<V> node = new Heap.HeapNode<>(item, null, null, null, null, 0);
+        item.node = node;
+        root = root == null ? node : link(root, node);
+        size++;
+        return item;
+    }
+
+    /**
+     * Returns the minimal item, or null if the heap is empty.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public Heap.HeapItem<V> findMin() {
+        return root == null ? null : root.item;
+    }
+
+    /**
+     * Deletes the minimal item from the heap.
+     *
+     * Time Complexity (WC): O(n), amortized O(logn)
+     */
+    public void deleteMin() {
+        if (root == null) {
+            return;
+        }
+        Heap.HeapNode<V> oldRoot = root;
+        root = mergePairs(oldRoot.child);
+        oldRoot.item.node = null;
+        oldRoot.child = null;
+        size--;
+    }
+
+    /**
+     * Decreases the key of x by diff, cutting its subtree off and linking it with the root.
+     * Returns false and does nothing if x was already deleted.
+     *
+     * pre: 0<=diff<=x.key
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean decreaseKey(Heap.HeapItem<V> x, int diff) {
+        if (!contains(x)) {
+            return false;
+        }
+        x.key = x.key - diff;
+        Heap.HeapNode<V> node = x.node;
+        if (node == root || diff == 0) {
+            return true;
+        }
+        detach(node);
+        root = link(root, node);
+        return true;
+    }
+
+    /**
+     * Deletes x from the heap. Returns false and does nothing if x was already deleted.
+     *
+     * Time Complexity (WC): O(n), amortized O(logn)
+     */
+    public boolean delete(Heap.HeapItem<V> x) {
+        if (!contains(x)) {
+            return false;
+        }
+        Heap.HeapNode<V> node = x.node;
+        if (node == root) {
+            deleteMin();
+            return true;
+        }
+        // cut the subtree of x, then put the children of x back
+        detach(node);
+        Heap.HeapNode<V> rest = mergePairs(node.child);
+        if (rest != null) {
+            root = link(root, rest);
+        }
+        x.node = null;
+        node.child = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns true if x is currently in the heap, false if it was deleted.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean contains(Heap.HeapItem<V> x) {
+        return x != null && x.node != null && x.node.item == x;
+    }
+
+    /**
+     * Melds heap2, which must be a PairingHeap, into this heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public void meld(MeldableHeap<V> heap2) {
+        PairingHeap<V> other = (PairingHeap<V>) heap2;
+        if (other == null || other.root == null) {
+            return;
+        }
+        root = root == null ? other.root : link(root, other.root);
+        size += other.size;
+        totalLinks += other.totalLinks;
+        totalCuts += other.totalCuts;
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of trees in the heap (1, or 0 if it is empty).
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numTrees() {
+        return root == null ? 0 : 1;
+    }
+
+    /**
+     * Returns the number of links performed so far.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalLinks() {
+        return totalLinks;
+    }
+
+    /**
+     * Returns the number of cuts performed so far.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalCuts() {
+        return totalCuts;
+    }
+
+    /**
+     * Returns 0, as a pairing heap never swaps items.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalHeapifyCosts() {
+        return 0;
+    }
+
+    /**
+     * Links two trees, making the root with the smaller key the parent.
+     * Both arguments must be detached roots.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private Heap.HeapNode<V> link(Heap.HeapNode<V> a, Heap.HeapNode<V> b) {
+        totalLinks++;
+        if (b.item.key < a.item.key) {
+            Heap.HeapNode<V> temp = a;
+            a = b;
+            b = temp;
+        }
+        // b becomes the leftmost child of a
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        b.prev = a;
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Removes the subtree of node from its sibling list.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void detach(Heap.HeapNode<V> node) {
+        totalCuts++;
+        if (node.prev.child == node) {
+            node.prev.child = node.next; // node was the leftmost child
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.next = null;
+        node.prev = null;
+    }
+
+    /**
+     * Two-pass pairing of the sibling list starting at first. Returns the merged tree, or null.
+     *
+     * Time Complexity (WC): O(length of the list)
+     */
+    private Heap.HeapNode<V> mergePairs(Heap.HeapNode<V> first) {
+        // first pass: link pairs left to right, stacking the results through next
+        Heap.HeapNode<V> pairs = null;
+        Heap.HeapNode<V> x = first;
+        while (x != null) {
+            Heap.HeapNode<V> a = x;
+            Heap.HeapNode<V> b = x.next;
+            x = b == null ? null : b.next;
+            a.next = null;
+            a.prev = null;
+            if (b != null) {
+                b.next = null;
+                b.prev = null;
+                a = link(a, b);
+            }
+            a.next = pairs;
+            pairs = a;
+        }
+
+        // second pass: meld the pairs right to left
+        if (pairs == null) {
+            return null;
+        }
+        Heap.HeapNode<V> result = pairs;
+        pairs = pairs.next;
+        result.next = null;
+        while (pairs != null) {
+            Heap.HeapNode<V> next = pairs.next;
+            pairs.next = null;
+            result = link(pairs, result);
+            pairs = next;
+        }
+        return result;
+    }
+}
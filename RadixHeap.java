@@ -0,0 +1,332 @@
+/**
+ * RadixHeap
+ *
+ * A monotone priority queue over non-negative integers: the keys inserted
+ * (or decreased to) must never be smaller than the last deleted minimum, as
+ * in Dijkstra's algorithm with non-negative edge weights. Such keys are
+ * rejected with an IllegalArgumentException.
+ *
+ * Items are kept in 33 buckets by the highest bit in which their key differs
+ * from the last deleted minimum (bucket 0 holds keys equal to it). When
+ * bucket 0 runs empty, deleteMin moves the items of the lowest non-empty
+ * bucket into lower buckets relative to their new minimum, so every item
+ * moves at most O(log C) times for keys up to C.
+ *
+ * The nodes are Heap.HeapNode objects linked through next and prev inside
+ * their bucket, with rank = bucket index; child, parent and marked are unused.
+ * There are no links, cuts or heapify swaps; the bucket moves are counted in
+ * totalBucketMoves instead.
+ *
+ */
+public class RadixHeap<V> implements MeldableHeap<V> {
+    private static final int NUM_BUCKETS = 33;
+
+    public int size;
+    public int lastMin;           // the last deleted minimum, 0 before the first deleteMin
+    public long totalBucketMoves;
+
+    private final Heap.HeapNode<V>[] buckets; // buckets[i] = first node of bucket i, or null
+    private long nonEmpty;                    // bit i is set iff bucket i is not empty
+    private Heap.HeapItem<V> min;             // cached minimal item, or null if not known
+
+    /**
+     * Constructor to initialize an empty heap.
+     *
+     */
+    public RadixHeap() {
+        this.size = 0;
+        this.lastMin = 0;
+        this.totalBucketMoves = 0;
+        this.buckets = newNodeArray(NUM_BUCKETS);
+        this.nonEmpty = 0;
+        this.min = null;
+    }
+
+    /**
+     * Inserts a new item with the given key and info into the heap and returns it.
+     *
+     * pre: key >= lastMin
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public Heap.HeapItem<V> insert(int key, V info) {
+        checkKey(key);
+        Heap.HeapItem<V> item = new Heap.HeapItem<>(key, info);
+        Heap.HeapNode<V> node = new Heap.HeapNode<>(item, null, null, null, null, 0);
+        item.node = node;
+        addToBucket(node);
+        size++;
+        if (min != null && key < min.key) {
+            min = item;
+        }
+        return item;
+    }
+
+    /**
+     * Returns the minimal item, or null if the heap is empty.
+     *
+     * Time Complexity (WC): O(1) if bucket 0 is not empty, else O(size of the lowest bucket)
+     */
+    public Heap.HeapItem<V> findMin() {
+        if (size == 0) {
+            return null;
+        }
+        if (min == null) {
+            int i = Long.numberOfTrailingZeros(nonEmpty);
+            Heap.HeapNode<V> best = buckets[i];
+            for (Heap.HeapNode<V> x = best.next; x != null; x = x.next) {
+                if (x.item.key < best.item.key) {
+                    best = x;
+                }
+            }
+            min = best.item;
+        }
+        return min;
+    }
+
+    /**
+     * Deletes the minimal item from the heap.
+     *
+     * Time Complexity (WC): O(size of the lowest bucket), amortized O(log C)
+     */
+    public void deleteMin() {
+        if (size == 0) {
+            return;
+        }
+        if (buckets[0] == null) {
+            redistribute();
+        }
+        Heap.HeapNode<V> node = findMin().node; // among equal keys, the one findMin returned
+        removeFromBucket(node);
+        node.item.node = null;
+        size--;
+        min = buckets[0] == null ? null : buckets[0].item;
+    }
+
+    /**
+     * Decreases the key of x by diff. Returns false and does nothing if x was already deleted.
+     *
+     * pre: 0<=diff AND x.key - diff >= lastMin
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean decreaseKey(Heap.HeapItem<V> x, int diff) {
+        if (!contains(x)) {
+            return false;
+        }
+        int key = x.key - diff;
+        checkKey(key);
+        x.key = key;
+        Heap.HeapNode<V> node = x.node;
+        int bucket = bucketIndex(key);
+        if (bucket != node.rank) {
+            removeFromBucket(node);
+            addToBucket(node);
+        }
+        if (min != null && key < min.key) {
+            min = x;
+        }
+        return true;
+    }
+
+    /**
+     * Deletes x from the heap. Returns false and does nothing if x was already deleted.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean delete(Heap.HeapItem<V> x) {
+        if (!contains(x)) {
+            return false;
+        }
+        removeFromBucket(x.node);
+        x.node = null;
+        size--;
+        if (min == x) {
+            min = null;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if x is currently in the heap, false if it was deleted.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean contains(Heap.HeapItem<V> x) {
+        return x != null && x.node != null && x.node.item == x;
+    }
+
+    /**
+     * Melds heap2, which must be a RadixHeap, into this heap by moving its
+     * items into this heap's buckets. heap2 is left empty.
+     *
+     * pre: all keys of heap2 >= lastMin
+     *
+     * Time Complexity (WC): O(m)
+     */
+    public void meld(MeldableHeap<V> heap2) {
+        RadixHeap<V> other = (RadixHeap<V>) heap2;
+        if (other == null || other.size == 0) {
+            return;
+        }
+        Heap.HeapItem<V> otherMin = other.findMin();
+        checkKey(otherMin.key);
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            Heap.HeapNode<V> x = other.buckets[i];
+            other.buckets[i] = null;
+            while (x != null) {
+                Heap.HeapNode<V> next = x.next;
+                addToBucket(x);
+                x = next;
+            }
+        }
+        if (min != null && otherMin.key < min.key) {
+            min = otherMin;
+        }
+        size += other.size;
+        totalBucketMoves += other.totalBucketMoves;
+        other.size = 0;
+        other.nonEmpty = 0;
+        other.min = null;
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of non-empty buckets.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numTrees() {
+        return Long.bitCount(nonEmpty);
+    }
+
+    /**
+     * Returns 0, as a radix heap never links.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalLinks() {
+        return 0;
+    }
+
+    /**
+     * Returns 0, as a radix heap never cuts.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalCuts() {
+        return 0;
+    }
+
+    /**
+     * Returns 0, as a radix heap never swaps items.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalHeapifyCosts() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of times deleteMin moved an item to a lower bucket.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalBucketMoves() {
+        return totalBucketMoves;
+    }
+
+    /**
+     * Returns the bucket of key: 0 if it equals lastMin, else one more than the
+     * index of the highest bit in which it differs from lastMin.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private int bucketIndex(int key) {
+        return key == lastMin ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ lastMin);
+    }
+
+    /**
+     * Rejects keys below the last deleted minimum.
+     *
+     */
+    private void checkKey(int key) {
+        if (key < lastMin) {
+            throw new IllegalArgumentException("key " + key + " is below the last deleted minimum " + lastMin);
+        }
+    }
+
+    /**
+     * Makes the minimum of the lowest non-empty bucket the new lastMin and moves
+     * that bucket's items into lower buckets. Afterwards bucket 0 is not empty.
+     *
+     * pre: size > 0 AND bucket 0 is empty
+     *
+     * Time Complexity (WC): O(size of the bucket)
+     */
+    private void redistribute() {
+        int i = Long.numberOfTrailingZeros(nonEmpty);
+        Heap.HeapNode<V> x = buckets[i];
+        lastMin = findMin().key;
+        buckets[i] = null;
+        nonEmpty &= ~(1L << i);
+        while (x != null) {
+            Heap.HeapNode<V> next = x.next;
+            addToBucket(x);
+            totalBucketMoves++;
+            x = next;
+        }
+    }
+
+    /**
+     * Pushes node onto the front of the bucket of its key.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void addToBucket(Heap.HeapNode<V> node) {
+        int i = bucketIndex(node.item.key);
+        node.rank = i;
+        node.prev = null;
+        node.next = buckets[i];
+        if (buckets[i] != null) {
+            buckets[i].prev = node;
+        }
+        buckets[i] = node;
+        nonEmpty |= 1L << i;
+    }
+
+    /**
+     * Unlinks node from its bucket.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void removeFromBucket(Heap.HeapNode<V> node) {
+        int i = node.rank;
+        if (node.prev == null) {
+            buckets[i] = node.next;
+            if (node.next == null) {
+                nonEmpty &= ~(1L << i);
+            }
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.next = null;
+        node.prev = null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Heap.HeapNode<V>[] newNodeArray(int length) {
+        return (Heap.HeapNode<V>[]) new Heap.HeapNode[length];
+    }
+}
@@ -0,0 +1,374 @@
+/**
+ * RankPairingHeap
+ *
+ * A type-1 rank-pairing heap over positive integers: a list of heap-ordered
+ * half-trees (a root with a left subtree only) kept lazily like the root
+ * list of a lazy Fibonacci heap. deleteMin turns the right spine of the
+ * deleted root's left child into new half-trees and links them in one pass,
+ * linking each pair of equal rank once. decreaseKey cuts the node with its
+ * left subtree into a new half-tree and restores the ranks on the path up.
+ *
+ * The nodes are Heap.HeapNode objects with child = left child, parent and
+ * rank used as in the half-tree, and next = right child for inner nodes.
+ * Roots have no right child, so roots use next and prev for the circular
+ * root list. The rank rule (type 1): a root has rank(left) + 1; an inner
+ * node has rank max(r(left), r(right)) if the two differ and r + 1 if both
+ * are r, where a missing child has rank -1.
+ *
+ */
+public class RankPairingHeap<V> implements MeldableHeap<V> {
+    public Heap.HeapNode<V> min;   // the minimal root, part of the circular root list
+    public int size;
+    public int numTrees;
+    public long totalLinks;
+    public long totalCuts;
+
+    private Heap.HeapNode<V>[] bucket; // scratch array for deleteMin, reused between calls
+
+    /**
+     * Constructor to initialize an empty heap.
+     *
+     */
+    public RankPairingHeap() {
+        this.min = null;
+        this.size = 0;
+        this.numTrees = 0;
+        this.totalLinks = 0;
+        this.totalCuts = 0;
+        this.bucket = null;
+    }
+
+    /**
+     * Inserts a new item with the given key and info into the heap and returns it.
+     *
+     * pre: key > 0
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public Heap.HeapItem<V> insert(int key, V info) {
+        Heap.HeapItem<V> item = new Heap.HeapItem<>(key, info);
+        Heap.HeapNode<V> node = new Heap.HeapNode<>(item, null, null, null, null, 0);
+        item.node = node;
+        addRoot(node);
+        size++;
+        return item;
+    }
+
+    /**
+     * Returns the minimal item, or null if the heap is empty.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public Heap.HeapItem<V> findMin() {
+        return min == null ? null : min.item;
+    }
+
+    /**
+     * Deletes the minimal item from the heap.
+     *
+     * Time Complexity (WC): O(n), amortized O(logn)
+     */
+    public void deleteMin() {
+        if (min == null) {
+            return;
+        }
+        Heap.HeapNode<V> oldMin = min;
+        Heap.HeapNode<V> rest = removeRoot(oldMin);
+
+        // the right spine of the left child becomes new half-trees
+        Heap.HeapNode<V> x = oldMin.child;
+        while (x != null) {
+            Heap.HeapNode<V> next = x.next;
+            x.next = null;
+            x.parent = null;
+            x.rank = x.child == null ? 0 : x.child.rank + 1;
+            rest = pushRoot(rest, x);
+            x = next;
+        }
+        oldMin.item.node = null;
+        oldMin.child = null;
+        size--;
+
+        onePassLink(rest);
+    }
+
+    /**
+     * Decreases the key of x by diff. A non-root is cut off with its left subtree
+     * as a new half-tree, and the ranks above it are reduced.
+     * Returns false and does nothing if x was already deleted.
+     *
+     * pre: 0<=diff<=x.key
+     *
+     * Time Complexity (WC): O(logn), amortized O(1)
+     */
+    public boolean decreaseKey(Heap.HeapItem<V> x, int diff) {
+        if (!contains(x)) {
+            return false;
+        }
+        x.key = x.key - diff;
+        Heap.HeapNode<V> node = x.node;
+        if (node.parent == null) {
+            // already a root
+            if (x.key < min.item.key) {
+                min = node;
+            }
+            return true;
+        }
+
+        // the right child of node takes its place
+        totalCuts++;
+        Heap.HeapNode<V> parent = node.parent;
+        Heap.HeapNode<V> right = node.next;
+        if (parent.child == node) {
+            parent.child = right;
+        } else {
+            parent.next = right;
+        }
+        if (right != null) {
+            right.parent = parent;
+        }
+        node.next = null;
+        node.parent = null;
+        node.rank = node.child == null ? 0 : node.child.rank + 1;
+        addRoot(node);
+
+        // restore the rank rule on the path up
+        Heap.HeapNode<V> y = parent;
+        while (y != null) {
+            int newRank;
+            if (y.parent == null) {
+                newRank = y.child == null ? 0 : y.child.rank + 1;
+            } else {
+                int r1 = y.child == null ? -1 : y.child.rank;
+                int r2 = y.next == null ? -1 : y.next.rank;
+                newRank = r1 == r2 ? r1 + 1 : Math.max(r1, r2);
+            }
+            if (newRank >= y.rank) {
+                break;
+            }
+            y.rank = newRank;
+            y = y.parent;
+        }
+        return true;
+    }
+
+    /**
+     * Deletes x from the heap. Returns false and does nothing if x was already deleted.
+     *
+     * Time Complexity (WC): O(n), amortized O(logn)
+     */
+    public boolean delete(Heap.HeapItem<V> x) {
+        if (!contains(x)) {
+            return false;
+        }
+        // decrease key to MIN_VALUE and delete min
+        decreaseKey(x, Integer.MAX_VALUE);
+        deleteMin();
+        return true;
+    }
+
+    /**
+     * Returns true if x is currently in the heap, false if it was deleted.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean contains(Heap.HeapItem<V> x) {
+        return x != null && x.node != null && x.node.item == x;
+    }
+
+    /**
+     * Melds heap2, which must be a RankPairingHeap, into this heap by joining the root lists.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public void meld(MeldableHeap<V> heap2) {
+        RankPairingHeap<V> other = (RankPairingHeap<V>) heap2;
+        if (other == null || other.min == null) {
+            return;
+        }
+        if (min == null) {
+            min = other.min;
+        } else {
+            // splice the two circular lists together
+            Heap.HeapNode<V> a = min.next;
+            Heap.HeapNode<V> b = other.min.prev;
+            min.next = other.min;
+            other.min.prev = min;
+            b.next = a;
+            a.prev = b;
+            if (other.min.item.key < min.item.key) {
+                min = other.min;
+            }
+        }
+        size += other.size;
+        numTrees += other.numTrees;
+        totalLinks += other.totalLinks;
+        totalCuts += other.totalCuts;
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of half-trees in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numTrees() {
+        return numTrees;
+    }
+
+    /**
+     * Returns the number of links performed so far.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalLinks() {
+        return totalLinks;
+    }
+
+    /**
+     * Returns the number of cuts performed so far.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalCuts() {
+        return totalCuts;
+    }
+
+    /**
+     * Returns 0, as a rank-pairing heap never swaps items.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalHeapifyCosts() {
+        return 0;
+    }
+
+    /**
+     * Adds a detached half-tree root to the root list and updates min.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void addRoot(Heap.HeapNode<V> node) {
+        numTrees++;
+        if (min == null) {
+            node.next = node;
+            node.prev = node;
+            min = node;
+            return;
+        }
+        node.next = min.next;
+        node.prev = min;
+        min.next.prev = node;
+        min.next = node;
+        if (node.item.key < min.item.key) {
+            min = node;
+        }
+    }
+
+    /**
+     * Removes root from the root list and returns the rest of the list
+     * as a null-terminated list linked through next, or null.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private Heap.HeapNode<V> removeRoot(Heap.HeapNode<V> root) {
+        numTrees--;
+        Heap.HeapNode<V> rest = null;
+        if (root.next != root) {
+            rest = root.next;
+            root.prev.next = null; // break the circle just before root
+        }
+        root.next = null;
+        root.prev = null;
+        min = null;
+        return rest;
+    }
+
+    /**
+     * Pushes a detached root onto a null-terminated list linked through next.
+     *
+     */
+    private Heap.HeapNode<V> pushRoot(Heap.HeapNode<V> list, Heap.HeapNode<V> x) {
+        x.next = list;
+        return x;
+    }
+
+    /**
+     * Links two half-tree roots of equal rank, making the one with the smaller
+     * key the root. The other becomes its left child, taking the old left
+     * subtree as its right subtree.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private Heap.HeapNode<V> link(Heap.HeapNode<V> x, Heap.HeapNode<V> y) {
+        totalLinks++;
+        if (y.item.key < x.item.key) {
+            Heap.HeapNode<V> temp = x;
+            x = y;
+            y = temp;
+        }
+        y.next = x.child;
+        if (x.child != null) {
+            x.child.parent = y;
+        }
+        y.parent = x;
+        x.child = y;
+        x.rank++;
+        return x;
+    }
+
+    /**
+     * Rebuilds the root list from the null-terminated list of half-trees, linking
+     * every two half-trees that meet in the same rank slot once (one-pass linking),
+     * and finds the new min.
+     *
+     * Time Complexity (WC): O(number of half-trees + max rank)
+     */
+    private void onePassLink(Heap.HeapNode<V> list) {
+        numTrees = 0;
+        min = null;
+        if (list == null) {
+            return;
+        }
+        int maxRank = 0;
+        for (Heap.HeapNode<V> x = list; x != null; x = x.next) {
+            maxRank = Math.max(maxRank, x.rank);
+        }
+        if (bucket == null || bucket.length <= maxRank) {
+            bucket = newNodeArray(Math.max(2 * (maxRank + 1), 16));
+        }
+
+        Heap.HeapNode<V> x = list;
+        while (x != null) {
+            Heap.HeapNode<V> next = x.next;
+            x.next = null;
+            Heap.HeapNode<V> other = bucket[x.rank];
+            if (other == null) {
+                bucket[x.rank] = x;
+            } else {
+                bucket[x.rank] = null;
+                addRoot(link(other, x));
+            }
+            x = next;
+        }
+        for (int i = 0; i <= maxRank; i++) {
+            if (bucket[i] != null) {
+                addRoot(bucket[i]);
+                bucket[i] = null;
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Heap.HeapNode<V>[] newNodeArray(int length) {
+        return (Heap.HeapNode<V>[]) new Heap.HeapNode[length];
+    }
+}
@@ -0,0 +1,1024 @@
+/**
+ * StrictFibonacciHeap
+ *
+ * A strict Fibonacci heap (Brodal, Lagogiannis and Tarjan, STOC 2012) over
+ * positive integers: the Fibonacci heap bounds, but in the worst case.
+ *   insert, meld, findMin, decreaseKey: O(1) worst case
+ *   deleteMin, delete:                  O(logn) worst case
+ *
+ * The heap is a single heap-ordered tree. Every node is active or passive;
+ * the root is always passive. An active node whose parent is passive is an
+ * active root. The rank of an active node is its number of active children,
+ * and an active non-root has a loss: the active children it lost since it
+ * last had loss 0. A passive node is linkable if all its children are
+ * passive. Active children are kept at the left end of every child list; the
+ * linkable children of the root are kept at its right end.
+ *
+ * Three quantities stay O(logn): the number of active roots, the total loss
+ * and the degree of the root. Each operation does a constant number of O(1)
+ * transformations that reduce them (deleteMin does as many as needed):
+ *   active root reduction: link two active roots of equal rank
+ *   loss reduction:        cut an active node with loss >= 2 to the root, or
+ *                          link two active nodes of equal rank with loss 1
+ *   root degree reduction: turn the three rightmost linkable children of the
+ *                          root into an active root of rank 1
+ * The active roots and the nodes with loss are found in O(1) through rank
+ * tables, and all non-root nodes wait in a queue Q. Every deleteMin moves the
+ * passive children of the next two queue nodes to the root, which keeps the
+ * degree of every node, and so the work of the next deleteMin, O(logn).
+ * All nodes of a heap point to one active record; meld makes every node of the
+ * smaller heap passive at once by clearing its record.
+ *
+ * The nodes extend Heap.HeapNode: child = leftmost child, next and prev =
+ * circular sibling list, rank = number of active children; marked is unused.
+ * Ties between equal keys are broken by insertion order, so no node is ever
+ * linked below its own descendant. Links, cuts and item swaps are counted as
+ * in the other backends, so maxOperationCost shows the worst-case bounds.
+ *
+ */
+public class StrictFibonacciHeap<V> implements MeldableHeap<V> {
+    public int size;
+    public long totalLinks;
+    public long totalCuts;
+    public long totalHeapifyCosts;
+
+    // transformations each operation does, as in the paper
+    private static final int DECREASE_KEY_ROOT_REDUCTIONS = 6;
+    private static final int DECREASE_KEY_DEGREE_REDUCTIONS = 4;
+
+    // fix list a node is in
+    private static final int NONE = 0;
+    private static final int ACTIVE_ROOTS = 1;
+    private static final int LOSS_ONE = 2;
+    private static final int LOSS_MANY = 3;
+
+    private Node<V> root;
+    private Node<V> queue;            // first node of Q, a circular list of all non-root nodes
+    private ActiveRecord<V> record;   // shared by the active nodes of this heap
+
+    // tie-break order of inserted nodes, global so that melded heaps never share one
+    private static final java.util.concurrent.atomic.AtomicLong SEQUENCE = new java.util.concurrent.atomic.AtomicLong();
+
+    /**
+     * Constructor to initialize an empty heap.
+     *
+     */
+    public StrictFibonacciHeap() {
+        this.size = 0;
+        this.totalLinks = 0;
+        this.totalCuts = 0;
+        this.totalHeapifyCosts = 0;
+        this.root = null;
+        this.queue = null;
+        this.record = new ActiveRecord<>();
+    }
+
+    /**
+     * Inserts a new item with the given key and info into the heap and returns it.
+     * The same as melding with a heap of one node.
+     *
+     * pre: key > 0
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public Heap.HeapItem<V> insert(int key, V info) {
+        Heap.HeapItem<V> item = new Heap.HeapItem<>(key, info);
+        Node<V> node = new Node<>(item, SEQUENCE.getAndIncrement());
+        item.node = node;
+        size++;
+        if (root == null) {
+            root = node;
+            return item;
+        }
+        Node<V> x = root;
+        Node<V> y = node;
+        if (less(y, x)) {
+            x = node;
+            y = root;
+        }
+        root = x;
+        attachToRoot(y);
+        totalLinks++;
+        queue = concat(single(y), queue);
+        activeRootReduction();
+        rootDegreeReduction();
+        return item;
+    }
+
+    /**
+     * Returns the minimal item, or null if the heap is empty.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public Heap.HeapItem<V> findMin() {
+        return root == null ? null : root.item;
+    }
+
+    /**
+     * Deletes the minimal item from the heap.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    public void deleteMin() {
+        if (root == null) {
+            return;
+        }
+        Node<V> oldRoot = root;
+        oldRoot.item.node = null;
+        size--;
+        if (oldRoot.child == null) {
+            root = null;
+            return;
+        }
+
+        // the child with the smallest key becomes the root
+        Node<V> x = child(oldRoot);
+        for (Node<V> c = right(x); c != oldRoot.child; c = right(c)) {
+            if (less(c, x)) {
+                x = c;
+            }
+        }
+        detach(x);
+        queueRemove(x);
+        if (isActive(x)) {
+            // x becomes passive, so its active children become active roots
+            unfix(x);
+            x.record = null;
+            Node<V> c = child(x);
+            while (c != null && isActive(c)) {
+                setLoss(c, 0);
+                refix(c);
+                c = right(c);
+                if (c == x.child) {
+                    break;
+                }
+            }
+        }
+
+        // the other children of the old root, and x's own, become children of x in root order
+        Node<V> rest = child(oldRoot);
+        Node<V> own = child(x);
+        oldRoot.child = null;
+        x.child = null;
+        root = x;
+        int moved = relinkToRoot(rest);
+        relinkToRoot(own);
+        totalLinks += moved;
+
+        // move the passive children of the next two queue nodes to the root
+        for (int i = 0; i < 2 && queue != null; i++) {
+            Node<V> z = queue;
+            queue = z.qNext;
+            for (int j = 0; j < 2 && z.child != null; j++) {
+                Node<V> c = left(child(z));
+                if (isActive(c)) {
+                    break;
+                }
+                detach(c);
+                attachToRoot(c);
+                totalLinks++;
+            }
+        }
+
+        while (lossReduction()) {
+            // restore the loss bound
+        }
+        boolean reduced = true;
+        while (reduced) {
+            reduced = activeRootReduction() | rootDegreeReduction();
+        }
+    }
+
+    /**
+     * Decreases the key of x by diff. A node that now breaks the heap order is
+     * cut off and linked below the root, and the heap is repaired by a constant
+     * number of transformations.
+     * Returns false and does nothing if x was already deleted.
+     *
+     * pre: 0<=diff<=x.key
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean decreaseKey(Heap.HeapItem<V> x, int diff) {
+        if (!contains(x)) {
+            return false;
+        }
+        x.key = x.key - diff;
+        moveUp(x, false);
+        return true;
+    }
+
+    /**
+     * Deletes x from the heap. Returns false and does nothing if x was already deleted.
+     * Makes x the root without touching its key, then deletes the min.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    public boolean delete(Heap.HeapItem<V> x) {
+        if (!contains(x)) {
+            return false;
+        }
+        moveUp(x, true);
+        deleteMin();
+        return true;
+    }
+
+    /**
+     * Returns true if x is currently in the heap, false if it was deleted.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public boolean contains(Heap.HeapItem<V> x) {
+        return x != null && x.node != null && x.node.item == x;
+    }
+
+    /**
+     * Melds heap2, which must be a StrictFibonacciHeap, into this heap. The
+     * nodes of the smaller heap become passive, the root with the larger key
+     * becomes a child of the other root, and one active root reduction and one
+     * root degree reduction pay for the new child.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public void meld(MeldableHeap<V> heap2) {
+        StrictFibonacciHeap<V> other = (StrictFibonacciHeap<V>) heap2;
+        if (other == null || other == this || other.root == null) {
+            return;
+        }
+        totalLinks += other.totalLinks;
+        totalCuts += other.totalCuts;
+        totalHeapifyCosts += other.totalHeapifyCosts;
+        if (root == null) {
+            root = other.root;
+            queue = other.queue;
+            record = other.record;
+            size = other.size;
+            return;
+        }
+
+        // the smaller heap goes passive and its queue goes first
+        Node<V> smallQueue;
+        Node<V> largeQueue;
+        if (size <= other.size) {
+            record.active = false;
+            record = other.record;
+            smallQueue = queue;
+            largeQueue = other.queue;
+        } else {
+            other.record.active = false;
+            smallQueue = other.queue;
+            largeQueue = queue;
+        }
+        size += other.size;
+
+        Node<V> x = root;
+        Node<V> y = other.root;
+        if (less(y, x)) {
+            x = other.root;
+            y = root;
+        }
+        root = x;
+        attachToRoot(y);
+        totalLinks++;
+        queue = concat(concat(smallQueue, single(y)), largeQueue);
+        activeRootReduction();
+        rootDegreeReduction();
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of trees in the heap (1, or 0 if it is empty).
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numTrees() {
+        return root == null ? 0 : 1;
+    }
+
+    /**
+     * Returns the number of links performed so far.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalLinks() {
+        return totalLinks;
+    }
+
+    /**
+     * Returns the number of cuts performed so far.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalCuts() {
+        return totalCuts;
+    }
+
+    /**
+     * Returns the number of item swaps with the root performed so far.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalHeapifyCosts() {
+        return totalHeapifyCosts;
+    }
+
+    /**
+     * Returns the number of active roots.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public int numActiveRoots() {
+        return record.roots == null ? 0 : record.roots.size;
+    }
+
+    /**
+     * Returns the total loss of the active nodes.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    public long totalLoss() {
+        return record.totalLoss;
+    }
+
+    /**
+     * Returns the number of children of the root.
+     *
+     * Time Complexity (WC): O(logn)
+     */
+    public int rootDegree() {
+        return root == null ? 0 : degree(root);
+    }
+
+    /**
+     * Returns the largest number of children of any node.
+     *
+     * Time Complexity (WC): O(n)
+     */
+    public int maxDegree() {
+        int max = 0;
+        if (root == null) {
+            return 0;
+        }
+        max = degree(root);
+        Node<V> z = queue;
+        if (z != null) {
+            do {
+                max = Math.max(max, degree(z));
+                z = z.qNext;
+            } while (z != queue);
+        }
+        return max;
+    }
+
+    /**
+     * Gives x's item a smaller key position: swaps it into the root if it is
+     * smaller than the root's item (or if toRoot is set), then cuts the node
+     * that now breaks the heap order and links it below the root, and runs the
+     * transformations of decreaseKey.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void moveUp(Heap.HeapItem<V> item, boolean toRoot) {
+        Node<V> x = node(item);
+        if (x == root) {
+            return;
+        }
+        if (toRoot || less(x, root)) {
+            // the root keeps the minimum; x's node takes the old root item
+            Heap.HeapItem<V> rootItem = root.item;
+            root.item = item;
+            item.node = root;
+            x.item = rootItem;
+            rootItem.node = x;
+            totalHeapifyCosts++;
+        }
+        Node<V> y = parent(x);
+        if (y == root || !less(x, y)) {
+            return;
+        }
+
+        totalCuts++;
+        detach(x);
+        if (isActive(x)) {
+            setLoss(x, 0);
+            attachToRoot(x);
+            refix(x);
+            if (isActive(y)) {
+                y.rank--;
+                if (isActive(parent(y))) {
+                    setLoss(y, y.loss + 1);
+                }
+                refix(y);
+            } else {
+                activeChildLeft(y);
+            }
+        } else {
+            attachToRoot(x);
+        }
+        totalLinks++;
+
+        lossReduction();
+        for (int i = 0; i < DECREASE_KEY_ROOT_REDUCTIONS; i++) {
+            activeRootReduction();
+        }
+        for (int i = 0; i < DECREASE_KEY_DEGREE_REDUCTIONS; i++) {
+            rootDegreeReduction();
+        }
+    }
+
+    /**
+     * Links two active roots of equal rank, the one with the larger key below
+     * the other, and moves the rightmost passive child of the winner to the
+     * root so its degree does not grow. Returns false if no two active roots
+     * have equal rank.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private boolean activeRootReduction() {
+        if (record.roots == null) {
+            return false;
+        }
+        Node<V> x = record.roots.pair();
+        if (x == null) {
+            return false;
+        }
+        Node<V> y = x.fixNext;
+        if (less(y, x)) {
+            Node<V> temp = x;
+            x = y;
+            y = temp;
+        }
+        Node<V> oldParent = parent(y);
+        detach(y);
+        attachLeft(y, x);
+        totalLinks++;
+        x.rank++;
+        refix(y);
+        refix(x);
+        activeChildLeft(oldParent);
+
+        Node<V> z = left(child(x));
+        if (!isActive(z)) {
+            detach(z);
+            attachToRoot(z);
+            totalLinks++;
+        }
+        return true;
+    }
+
+    /**
+     * Turns the three rightmost children of the root into an active root of
+     * rank 1 if they are linkable: the smallest becomes the active root, the
+     * middle one its active child and the largest a passive child of that.
+     * Returns false if the root has fewer than three linkable children.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private boolean rootDegreeReduction() {
+        if (root == null || root.child == null) {
+            return false;
+        }
+        Node<V> c = left(child(root));
+        Node<V> b = left(c);
+        Node<V> a = left(b);
+        if (c == root.child || b == root.child || !isLinkable(a) || !isLinkable(b) || !isLinkable(c)) {
+            return false;
+        }
+        // sort so that x < y < z
+        Node<V> x = a;
+        Node<V> y = b;
+        Node<V> z = c;
+        if (less(y, x)) {
+            Node<V> temp = x;
+            x = y;
+            y = temp;
+        }
+        if (less(z, y)) {
+            Node<V> temp = y;
+            y = z;
+            z = temp;
+            if (less(y, x)) {
+                temp = x;
+                x = y;
+                y = temp;
+            }
+        }
+        detach(x);
+        detach(y);
+        detach(z);
+        activate(x);
+        activate(y);
+        attachRight(z, y);
+        attachLeft(y, x);
+        x.rank = 1;
+        attachLeft(x, root);
+        totalLinks += 2;
+        refix(y);
+        refix(x);
+        return true;
+    }
+
+    /**
+     * Does one loss reduction: cuts an active node with loss >= 2 and links it
+     * below the root, or links two active nodes of equal rank with loss 1, the
+     * one with the larger key below the other. Returns false if neither exists.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private boolean lossReduction() {
+        Node<V> x = record.lossMany;
+        if (x != null) {
+            Node<V> y = parent(x);
+            detach(x);
+            totalCuts++;
+            setLoss(x, 0);
+            attachToRoot(x);
+            totalLinks++;
+            refix(x);
+            y.rank--;
+            if (isActive(parent(y))) {
+                setLoss(y, y.loss + 1);
+            }
+            refix(y);
+            return true;
+        }
+
+        if (record.lossOne == null) {
+            return false;
+        }
+        x = record.lossOne.pair();
+        if (x == null) {
+            return false;
+        }
+        Node<V> y = x.fixNext;
+        if (less(y, x)) {
+            Node<V> temp = x;
+            x = y;
+            y = temp;
+        }
+        Node<V> z = parent(y);
+        detach(y);
+        attachLeft(y, x);
+        totalLinks++;
+        setLoss(y, 0);
+        refix(y);
+        if (z == x) {
+            // y was already a child of x; moving it leftmost pays for its loss
+            return true;
+        }
+        x.rank++;
+        setLoss(x, 0);
+        refix(x);
+        z.rank--;
+        if (isActive(parent(z))) {
+            setLoss(z, z.loss + 1);
+        }
+        refix(z);
+        return true;
+    }
+
+    /**
+     * Relinks the circular sibling list starting at first below the root, in
+     * root order, and returns the number of nodes. The nodes keep their queue
+     * position and their fix lists.
+     *
+     * Time Complexity (WC): O(length of the list)
+     */
+    private int relinkToRoot(Node<V> first) {
+        if (first == null) {
+            return 0;
+        }
+        int count = 0;
+        first.prev.next = null;
+        Node<V> c = first;
+        while (c != null) {
+            Node<V> next = right(c);
+            c.next = c;
+            c.prev = c;
+            c.parent = null;
+            attachToRoot(c);
+            count++;
+            c = next;
+        }
+        return count;
+    }
+
+    /**
+     * Called after a passive node p lost an active child. If p is a child of
+     * the root and is now linkable, it moves to the linkable end of the root's children.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void activeChildLeft(Node<V> p) {
+        if (p != root && p.parent == root && isLinkable(p)) {
+            detach(p);
+            attachRight(p, root);
+        }
+    }
+
+    /**
+     * Makes the passive node x active with rank 0 and loss 0.
+     *
+     * pre: x is linkable
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void activate(Node<V> x) {
+        x.fixList = NONE;
+        x.record = record;
+        x.rank = 0;
+        x.loss = 0;
+    }
+
+    /**
+     * Sets the loss of the active node x, keeping the total loss up to date.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void setLoss(Node<V> x, int loss) {
+        record.totalLoss += loss - x.loss;
+        x.loss = loss;
+    }
+
+    /**
+     * Puts x into the fix list that matches its state: active roots by rank,
+     * active non-roots with loss 1 by rank, or the list of nodes with loss >= 2.
+     *
+     * Time Complexity (WC): O(1) amortized, as a rank table may grow
+     */
+    private void refix(Node<V> x) {
+        unfix(x);
+        if (!isActive(x)) {
+            return;
+        }
+        if (!isActive(parent(x))) {
+            record.roots().add(x, x.rank);
+            x.fixList = ACTIVE_ROOTS;
+        } else if (x.loss == 1) {
+            record.lossOne().add(x, x.rank);
+            x.fixList = LOSS_ONE;
+        } else if (x.loss > 1) {
+            record.addLossMany(x);
+            x.fixList = LOSS_MANY;
+        }
+    }
+
+    /**
+     * Takes x out of its fix list. A passive node's entry belongs to a record
+     * that a meld turned off, so it is just forgotten.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void unfix(Node<V> x) {
+        if (x.fixList == NONE) {
+            return;
+        }
+        if (isActive(x)) {
+            if (x.fixList == ACTIVE_ROOTS) {
+                record.roots.remove(x);
+            } else if (x.fixList == LOSS_ONE) {
+                record.lossOne.remove(x);
+            } else {
+                record.removeLossMany(x);
+            }
+        }
+        x.fixList = NONE;
+        x.fixNext = null;
+        x.fixPrev = null;
+    }
+
+    /**
+     * Links x below the root: active and non-linkable nodes at the left end,
+     * linkable nodes at the right end.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void attachToRoot(Node<V> x) {
+        if (isActive(x) || !isLinkable(x)) {
+            attachLeft(x, root);
+        } else {
+            attachRight(x, root);
+        }
+    }
+
+    /**
+     * Makes the detached node x the leftmost child of p.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void attachLeft(Node<V> x, Node<V> p) {
+        attachRight(x, p);
+        p.child = x;
+    }
+
+    /**
+     * Makes the detached node x the rightmost child of p.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void attachRight(Node<V> x, Node<V> p) {
+        x.parent = p;
+        Heap.HeapNode<V> first = p.child;
+        if (first == null) {
+            x.next = x;
+            x.prev = x;
+            p.child = x;
+            return;
+        }
+        x.next = first;
+        x.prev = first.prev;
+        first.prev.next = x;
+        first.prev = x;
+    }
+
+    /**
+     * Removes x from the child list of its parent.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void detach(Node<V> x) {
+        Heap.HeapNode<V> p = x.parent;
+        if (x.next == x) {
+            p.child = null;
+        } else {
+            x.prev.next = x.next;
+            x.next.prev = x.prev;
+            if (p.child == x) {
+                p.child = x.next;
+            }
+        }
+        x.next = x;
+        x.prev = x;
+        x.parent = null;
+    }
+
+    /**
+     * Removes x from Q.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private void queueRemove(Node<V> x) {
+        if (x.qNext == x) {
+            queue = null;
+        } else {
+            x.qPrev.qNext = x.qNext;
+            x.qNext.qPrev = x.qPrev;
+            if (queue == x) {
+                queue = x.qNext;
+            }
+        }
+        x.qNext = x;
+        x.qPrev = x;
+    }
+
+    /**
+     * Returns the circular queue a followed by the circular queue b.
+     *
+     * Time Complexity (WC): O(1)
+     */
+    private static <V> Node<V> concat(Node<V> a, Node<V> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        Node<V> aLast = a.qPrev;
+        Node<V> bLast = b.qPrev;
+        aLast.qNext = b;
+        b.qPrev = aLast;
+        bLast.qNext = a;
+        a.qPrev = bLast;
+        return a;
+    }
+
+    private static <V> Node<V> single(Node<V> x) {
+        x.qNext = x;
+        x.qPrev = x;
+        return x;
+    }
+
+    private int degree(Node<V> x) {
+        if (x.child == null) {
+            return 0;
+        }
+        int count = 0;
+        Heap.HeapNode<V> c = x.child;
+        do {
+            count++;
+            c = c.next;
+        } while (c != x.child);
+        return count;
+    }
+
+    private static <V> boolean isActive(Node<V> x) {
+        return x != null && x.record != null && x.record.active;
+    }
+
+    private static <V> boolean isLinkable(Node<V> x) {
+        return !isActive(x) && (x.child == null || !isActive(child(x)));
+    }
+
+    // the order of the heap: by key, then by insertion order
+    private static <V> boolean less(Node<V> a, Node<V> b) {
+        return a.item.key < b.item.key || (a.item.key == b.item.key && a.seq < b.seq);
+    }
+
+    private static <V> Node<V> node(Heap.HeapItem<V> item) {
+        return (Node<V>) item.node;
+    }
+
+    private static <V> Node<V> parent(Node<V> x) {
+        return (Node<V>) x.parent;
+    }
+
+    private static <V> Node<V> child(Node<V> x) {
+        return (Node<V>) x.child;
+    }
+
+    private static <V> Node<V> right(Node<V> x) {
+        return (Node<V>) x.next;
+    }
+
+    private static <V> Node<V> left(Node<V> x) {
+        return (Node<V>) x.prev;
+    }
+
+    /**
+     * The activity flag shared by the active nodes of a heap, and the fix lists
+     * that find its active roots and its nodes with loss.
+     *
+     */
+    private static final class ActiveRecord<V> {
+        boolean active;
+        RankTable<V> roots;         // active roots by rank, created on first use
+        RankTable<V> lossOne;       // active non-roots with loss 1 by rank
+        Node<V> lossMany;           // active non-roots with loss >= 2, linked through fixNext
+        long totalLoss;
+
+        ActiveRecord() {
+            this.active = true;
+            this.roots = null;
+            this.lossOne = null;
+            this.lossMany = null;
+            this.totalLoss = 0;
+        }
+
+        RankTable<V> roots() {
+            if (roots == null) {
+                roots = new RankTable<>();
+            }
+            return roots;
+        }
+
+        RankTable<V> lossOne() {
+            if (lossOne == null) {
+                lossOne = new RankTable<>();
+            }
+            return lossOne;
+        }
+
+        void addLossMany(Node<V> x) {
+            x.fixPrev = null;
+            x.fixNext = lossMany;
+            if (lossMany != null) {
+                lossMany.fixPrev = x;
+            }
+            lossMany = x;
+        }
+
+        void removeLossMany(Node<V> x) {
+            if (x.fixPrev == null) {
+                lossMany = x.fixNext;
+            } else {
+                x.fixPrev.fixNext = x.fixNext;
+            }
+            if (x.fixNext != null) {
+                x.fixNext.fixPrev = x.fixPrev;
+            }
+        }
+    }
+
+    /**
+     * Nodes grouped by rank, with the ranks that hold two or more nodes in a
+     * list of their own, so pair() finds two nodes of equal rank in O(1).
+     *
+     */
+    private static final class RankTable<V> {
+        private static final int INITIAL_RANKS = 64;
+
+        private Node<V>[] heads;    // heads[r] = first node of rank r, linked through fixNext
+        private int[] counts;
+        private int[] pairNext;     // list of the ranks with counts >= 2
+        private int[] pairPrev;
+        private int pairs;          // first rank with two or more nodes, -1 if none
+        int size;
+
+        RankTable() {
+            this.heads = newNodeArray(INITIAL_RANKS);
+            this.counts = new int[INITIAL_RANKS];
+            this.pairNext = new int[INITIAL_RANKS];
+            this.pairPrev = new int[INITIAL_RANKS];
+            this.pairs = -1;
+            this.size = 0;
+        }
+
+        void add(Node<V> x, int rank) {
+            if (rank >= heads.length) {
+                int length = Math.max(2 * heads.length, rank + 1);
+                heads = java.util.Arrays.copyOf(heads, length);
+                counts = java.util.Arrays.copyOf(counts, length);
+                pairNext = java.util.Arrays.copyOf(pairNext, length);
+                pairPrev = java.util.Arrays.copyOf(pairPrev, length);
+            }
+            x.fixRank = rank;
+            x.fixPrev = null;
+            x.fixNext = heads[rank];
+            if (heads[rank] != null) {
+                heads[rank].fixPrev = x;
+            }
+            heads[rank] = x;
+            size++;
+            if (++counts[rank] == 2) {
+                pairPrev[rank] = -1;
+                pairNext[rank] = pairs;
+                if (pairs >= 0) {
+                    pairPrev[pairs] = rank;
+                }
+                pairs = rank;
+            }
+        }
+
+        void remove(Node<V> x) {
+            int rank = x.fixRank;
+            if (x.fixPrev == null) {
+                heads[rank] = x.fixNext;
+            } else {
+                x.fixPrev.fixNext = x.fixNext;
+            }
+            if (x.fixNext != null) {
+                x.fixNext.fixPrev = x.fixPrev;
+            }
+            size--;
+            if (counts[rank]-- == 2) {
+                if (pairPrev[rank] < 0) {
+                    pairs = pairNext[rank];
+                } else {
+                    pairNext[pairPrev[rank]] = pairNext[rank];
+                }
+                if (pairNext[rank] >= 0) {
+                    pairPrev[pairNext[rank]] = pairPrev[rank];
+                }
+            }
+        }
+
+        // the first of two nodes of equal rank (the second is its fixNext), or null
+        Node<V> pair() {
+            return pairs < 0 ? null : heads[pairs];
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Node<V>[] newNodeArray(int length) {
+        return (Node<V>[]) new Node[length];
+    }
+
+    /**
+     * Class implementing a node in a StrictFibonacciHeap.
+     *
+     */
+    static final class Node<V> extends Heap.HeapNode<V> {
+        final long seq;             // insertion order, breaks ties between equal keys
+        ActiveRecord<V> record;     // active iff record != null and record.active
+        int loss;
+        Node<V> qNext;              // Q
+        Node<V> qPrev;
+        Node<V> fixNext;            // fix list (rank table bucket or loss list)
+        Node<V> fixPrev;
+        int fixRank;
+        int fixList;
+
+        Node(Heap.HeapItem<V> item, long seq) {
+            super(item, null, null, null, null, 0);
+            this.next = this;
+            this.prev = this;
+            this.seq = seq;
+            this.record = null;
+            this.loss = 0;
+            this.qNext = this;
+            this.qPrev = this;
+            this.fixNext = null;
+            this.fixPrev = null;
+            this.fixRank = 0;
+            this.fixList = NONE;
+        }
+    }
+}